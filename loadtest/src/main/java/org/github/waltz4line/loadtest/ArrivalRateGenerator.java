@@ -0,0 +1,141 @@
+package org.github.waltz4line.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * open model (constant arrival rate) 부하 생성기.
+ *
+ * i 번째 요청의 전송 시각은 시작 시각 + i / rate 로 미리 정해지며 이전 요청의 응답을 기다리지 않는다.
+ * server 가 느려져 전송이 밀리더라도 (maxInFlight 초과, generator 지연) 지연 시간은 예정된 전송 시각부터 측정하므로
+ * 밀린 시간만큼 latency 에 포함된다. (coordinated omission 보정)
+ */
+final class ArrivalRateGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArrivalRateGenerator.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final HttpClient client;
+
+    private final URI baseUri;
+
+    private final Scenario scenario;
+
+    private final LoadTestOptions options;
+
+    private final Map<String, EndpointRecorder> recorders = new LinkedHashMap<>();
+
+    private final EndpointRecorder total = new EndpointRecorder();
+
+    private final LongAccumulator maxSendLag = new LongAccumulator(Math::max, 0);
+
+    private final LongAccumulator lastCompleted = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    ArrivalRateGenerator(HttpClient client, URI baseUri, Scenario scenario, LoadTestOptions options) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.scenario = scenario;
+        this.options = options;
+        for (Scenario.Target target : scenario.targets()) {
+            recorders.put(target.name(), new EndpointRecorder());
+        }
+    }
+
+    LoadTestReport run() throws InterruptedException {
+        long intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / options.rate()));
+        long start = System.nanoTime();
+        long measureStart = start + options.warmup().toNanos();
+        long end = measureStart + options.duration().toNanos();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        LOGGER.info("Sending {} req/s to {} (scenario: {}, warmup: {}, duration: {})",
+                options.rate(), baseUri, scenario.name(), options.warmup(), options.duration());
+
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (now >= nextProgress) {
+                LOGGER.info("{} requests scheduled, {} in flight", i, options.maxInFlight() - inFlight.availablePermits());
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+            inFlight.acquire();
+            send(scenario.pick(), intended, intended >= measureStart, inFlight);
+        }
+
+        // 응답을 기다리는 요청이 모두 끝날 때까지 대기한다. (timeout 이 지나면 실패로 기록된다.)
+        long drainMillis = options.timeout().toMillis() + TimeUnit.SECONDS.toMillis(1);
+        if (!inFlight.tryAcquire(options.maxInFlight(), drainMillis, TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("{} requests did not complete within {} ms", options.maxInFlight() - inFlight.availablePermits(), drainMillis);
+        }
+        return report(measureStart);
+    }
+
+    private void send(Scenario.Target target, long intended, boolean measured, Semaphore inFlight) {
+        long sent = System.nanoTime();
+        if (measured) {
+            maxSendLag.accumulate(sent - intended);
+        }
+        EndpointRecorder recorder = recorders.get(target.name());
+        client.sendAsync(target.request(baseUri, options.timeout()), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    try {
+                        if (measured) {
+                            lastCompleted.accumulate(completed);
+                            String outcome = response == null ? outcome(error) : String.valueOf(response.statusCode());
+                            boolean failed = response == null || response.statusCode() >= 400;
+                            recorder.record(intended, sent, completed, outcome, failed);
+                            total.record(intended, sent, completed, outcome, failed);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+    }
+
+    private static String outcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof HttpTimeoutException) {
+            return EndpointRecorder.OUTCOME_TIMEOUT;
+        }
+        if (!(cause instanceof IOException)) {
+            LOGGER.warn("Unexpected request failure", cause);
+        }
+        return EndpointRecorder.OUTCOME_IO_ERROR;
+    }
+
+    /*
+     * 처리량은 측정 구간에 예정된 요청이 모두 완료되기까지의 시간으로 계산한다.
+     * server 가 목표 rate 를 따라가지 못하면 구간이 늘어나 처리량이 목표보다 낮아진다.
+     */
+    private LoadTestReport report(long measureStart) {
+        long durationMillis = options.duration().toMillis();
+        long elapsedMillis = Math.max(durationMillis, TimeUnit.NANOSECONDS.toMillis(lastCompleted.get() - measureStart));
+        Map<String, LoadTestReport.Result> endpoints = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> endpoints.put(name, LoadTestReport.Result.of(recorder, elapsedMillis)));
+        return new LoadTestReport(scenario.name(), baseUri.toString(), options.rate(), durationMillis, elapsedMillis,
+                options.warmup().toMillis(), options.maxInFlight(), maxSendLag.get() / 1_000_000.0,
+                LoadTestReport.Result.of(total, elapsedMillis), endpoints);
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.github.waltz4line.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.json.JsonCodecs;
+import org.github.waltz4line.server.javalin.json.JsonMappers;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답 body format (JSON, CBOR, Smile) 별 크기와 직렬화 / 역직렬화 latency 비교.
+ *
+ * ContentNegotiation 과 같이 공유 mapper 의 설정을 복사해 format 별 mapper 를 만들고, 목록 응답 형태의 body 를
+ * byte[] 로 쓰고 읽는다. 평균은 묶음 단위로, percentile 은 별도 구간에서 호출마다 측정한다.
+ *
+ * 인자로 목록의 item 수를 받는다. (기본값: 1 10 100)
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.BinaryFormatBenchmark
+ */
+public final class BinaryFormatBenchmark {
+
+    private static final int BATCH = 256;
+
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private static long sink;
+
+    public record Item(long id, String name, String category, double price, int stock, boolean active,
+                       Instant updatedAt, List<String> tags) {
+    }
+
+    public record Page(int page, int size, long total, List<Item> items) {
+    }
+
+    private BinaryFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] itemCounts = args.length == 0 ? new int[]{1, 10, 100} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            itemCounts[i] = Integer.parseInt(args[i]);
+        }
+        ObjectMapper json = JsonMappers.create(JavalinContextConfig.JavalinJson.DEFAULT,
+                JsonCodecs.load(BinaryFormatBenchmark.class.getClassLoader(), List.of()));
+        ObjectMapper cbor = json.copyWith(new CBORFactory());
+        ObjectMapper smile = json.copyWith(new SmileFactory());
+        PrintStream out = System.out;
+        out.printf("%-6s %6s %8s %11s %11s %11s %11s%n", "format", "items", "bytes",
+                "write(ns)", "write p99", "read(ns)", "read p99");
+        for (int itemCount : itemCounts) {
+            Page page = page(itemCount);
+            run("json", json, page, out);
+            run("cbor", cbor, page, out);
+            run("smile", smile, page, out);
+        }
+        out.println("sink=" + sink);
+    }
+
+    private static void run(String name, ObjectMapper mapper, Page page, PrintStream out) throws IOException {
+        ObjectWriter writer = mapper.writerFor(Page.class);
+        ObjectReader reader = mapper.readerFor(Page.class);
+        byte[] body = writer.writeValueAsBytes(page);
+        if (!page.equals(reader.readValue(body))) {
+            throw new IllegalStateException(name + " round trip changed the body");
+        }
+        measureWrite(writer, page, WARMUP_NANOS, null);
+        measureRead(reader, body, WARMUP_NANOS, null);
+        long[] write = measureWrite(writer, page, MEASURE_NANOS, null);
+        long[] read = measureRead(reader, body, MEASURE_NANOS, null);
+        Histogram writeHistogram = new Histogram();
+        Histogram readHistogram = new Histogram();
+        measureWrite(writer, page, MEASURE_NANOS, writeHistogram);
+        measureRead(reader, body, MEASURE_NANOS, readHistogram);
+        out.printf("%-6s %6d %8d %11.1f %11d %11.1f %11d%n", name, page.items().size(), body.length,
+                (double) write[1] / write[0], writeHistogram.percentileNanos(99),
+                (double) read[1] / read[0], readHistogram.percentileNanos(99));
+    }
+
+    /*
+     * @return {호출 수, 호출에 걸린 전체 시간}
+     */
+    private static long[] measureWrite(ObjectWriter writer, Page page, long durationNanos, Histogram histogram) throws IOException {
+        long count = 0;
+        long elapsed = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                if (histogram == null) {
+                    sink += writer.writeValueAsBytes(page).length;
+                } else {
+                    long start = System.nanoTime();
+                    sink += writer.writeValueAsBytes(page).length;
+                    histogram.record(System.nanoTime() - start);
+                }
+            }
+            elapsed += System.nanoTime() - batchStart;
+            count += BATCH;
+        }
+        return new long[]{count, elapsed};
+    }
+
+    private static long[] measureRead(ObjectReader reader, byte[] body, long durationNanos, Histogram histogram) throws IOException {
+        long count = 0;
+        long elapsed = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < BATCH; i++) {
+                if (histogram == null) {
+                    sink += reader.<Page>readValue(body).total();
+                } else {
+                    long start = System.nanoTime();
+                    sink += reader.<Page>readValue(body).total();
+                    histogram.record(System.nanoTime() - start);
+                }
+            }
+            elapsed += System.nanoTime() - batchStart;
+            count += BATCH;
+        }
+        return new long[]{count, elapsed};
+    }
+
+    private static Page page(int itemCount) {
+        List<Item> items = new ArrayList<>(itemCount);
+        Instant updatedAt = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(100_000L + i, "item name " + i, "category-" + (i % 8), 1_000 + i * 10.5, i * 3,
+                    i % 5 != 0, updatedAt.plusSeconds(i * 60L), List.of("tag-" + (i % 3), "tag-" + (i % 7))));
+        }
+        return new Page(1, itemCount, 1_000L, items);
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.github.waltz4line.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * endpoint 하나의 결과를 집계한다.
+ * responseTime 은 예정된 전송 시각부터, serviceTime 은 실제 전송 시각부터 응답 완료까지의 시간이다.
+ * successTime 은 에러가 아닌 응답만의 responseTime 으로, load shedding 으로 빠르게 거절된 응답을 제외하고 비교할 때 사용한다.
+ */
+final class EndpointRecorder {
+
+    static final String OUTCOME_TIMEOUT = "timeout";
+
+    static final String OUTCOME_IO_ERROR = "ioError";
+
+    final Histogram responseTime = new Histogram();
+
+    final Histogram serviceTime = new Histogram();
+
+    final Histogram successTime = new Histogram();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, String outcome, boolean error) {
+        responseTime.record(completedNanos - intendedNanos);
+        serviceTime.record(completedNanos - sentNanos);
+        if (error) {
+            errors.increment();
+        } else {
+            successTime.record(completedNanos - intendedNanos);
+        }
+        outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Map<String, Long> outcomes() {
+        Map<String, Long> result = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> result.put(outcome, count.sum()));
+        return result;
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.github.waltz4line.loadtest;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.JavalinContext;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.error.ErrorCodeException;
+import org.github.waltz4line.server.router.annotation.GetMapping;
+import org.github.waltz4line.server.router.annotation.Router;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * endpoint 예외 응답 경로의 처리량 / latency 비교.
+ *
+ * 같은 프로세스에 {@link JavalinContext} 를 띄우고 clients 개의 thread 가 응답을 받는 즉시 다음 요청을 보낸다. (closed loop)
+ * 예외는 endpoint 에서 depth 단계 아래의 호출에서 던진다.
+ * - ok: 정상 응답 (200). 비교 기준
+ * - code: 요청마다 새 {@link ErrorCodeException} (stack trace 없음, 500)
+ * - constant: 상수로 선언한 {@link ErrorCodeException} (응답 body 재사용, 503)
+ * - mapped: registerErrorMapping 으로 등록한 예외 (stack trace 생성, 400)
+ * - unmapped: 등록되지 않은 예외 (stack trace 생성, 500. 첫 발생만 WARN 으로 기록)
+ *
+ * 측정 순서에 따라 JIT warm-up 정도가 달라지지 않도록 endpoint 를 번갈아 가며 여러 번에 나누어 측정하고,
+ * 그 전에 같은 방식으로 warm-up 한다.
+ *
+ * 인자: clients depth seconds (기본값: 4 50 8). seconds 는 endpoint 별 측정 시간이다.
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.ErrorPathBenchmark -Dexec.args="4 50 8"
+ */
+public final class ErrorPathBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorPathBenchmark.class);
+
+    private static final String[] ENDPOINTS = {"ok", "code", "constant", "mapped", "unmapped"};
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final int ROUNDS = 4;
+
+    private static final ErrorCodeException UNAVAILABLE =
+            new ErrorCodeException(HttpStatus.SERVICE_UNAVAILABLE, "DOWNSTREAM_UNAVAILABLE", "downstream unavailable");
+
+    private static int depth;
+
+    @Router(path = "/errors", tag = "error")
+    public static class ErrorRouter {
+
+        @GetMapping(path = "/ok", description = "정상 응답")
+        public Object ok(Context ctx) {
+            return call(depth, () -> Map.of("ok", true));
+        }
+
+        @GetMapping(path = "/code", description = "새 ErrorCodeException")
+        public Object code(Context ctx) {
+            return call(depth, () -> {
+                throw new ErrorCodeException("downstream unavailable");
+            });
+        }
+
+        @GetMapping(path = "/constant", description = "상수 ErrorCodeException")
+        public Object constant(Context ctx) {
+            return call(depth, () -> {
+                throw UNAVAILABLE;
+            });
+        }
+
+        @GetMapping(path = "/mapped", description = "등록된 예외 mapping")
+        public Object mapped(Context ctx) {
+            return call(depth, () -> {
+                throw new IllegalArgumentException("invalid parameter");
+            });
+        }
+
+        @GetMapping(path = "/unmapped", description = "등록되지 않은 예외")
+        public Object unmapped(Context ctx) {
+            return call(depth, () -> {
+                throw new IllegalStateException("downstream unavailable");
+            });
+        }
+
+        private static Object call(int remaining, Supplier<Object> body) {
+            return remaining == 0 ? body.get() : call(remaining - 1, body);
+        }
+
+    }
+
+    private ErrorPathBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        depth = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long seconds = args.length > 2 ? Long.parseLong(args[2]) : 8;
+
+        int port = freePort();
+        startServer(port);
+        HttpClient client = HttpClient.newHttpClient();
+        PrintStream out = System.out;
+        out.printf("clients=%d depth=%d duration=%ds%n", clients, depth, seconds);
+        out.printf("%-9s %6s %10s %10s %10s %10s%n", "endpoint", "status", "req/s", "p50(ms)", "p99(ms)", "max(ms)");
+        long sliceNanos = TimeUnit.SECONDS.toNanos(seconds) / ROUNDS;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String endpoint : ENDPOINTS) {
+                run(client, uri(port, endpoint), clients, sliceNanos, new Histogram());
+            }
+        }
+        Map<String, Histogram> latencies = new LinkedHashMap<>();
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String endpoint : ENDPOINTS) {
+                Histogram latency = latencies.computeIfAbsent(endpoint, ignored -> new Histogram());
+                long[] result = run(client, uri(port, endpoint), clients, sliceNanos, latency);
+                results.merge(endpoint, result, (total, last) -> new long[]{total[0] + last[0], last[1]});
+            }
+        }
+        for (String endpoint : ENDPOINTS) {
+            long[] result = results.get(endpoint);
+            Histogram latency = latencies.get(endpoint);
+            out.printf("%-9s %6d %10.0f %10.3f %10.3f %10.3f%n", endpoint, result[1], result[0] / (double) seconds,
+                    latency.percentileNanos(50) / 1e6, latency.percentileNanos(99) / 1e6, latency.maxNanos() / 1e6);
+        }
+        // 내장 server 는 shutdown hook 으로 종료된다.
+        System.exit(0);
+    }
+
+    /*
+     * @return {완료한 요청 수, 마지막 응답 status}
+     */
+    private static long[] run(HttpClient client, URI uri, int clients, long durationNanos, Histogram latency) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).build();
+        LongAdder completed = new LongAdder();
+        AtomicInteger status = new AtomicInteger();
+        long deadline = System.nanoTime() + durationNanos;
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latency.record(System.nanoTime() - start);
+                        status.set(response.statusCode());
+                        completed.increment();
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Request to {} failed", uri, e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "error-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new long[]{completed.sum(), status.get()};
+    }
+
+    private static URI uri(int port, String endpoint) {
+        return URI.create("http://localhost:" + port + "/errors/" + endpoint);
+    }
+
+    private static void startServer(int port) throws Exception {
+        JavalinContext.Builder builder = new JavalinContext.Builder(JavalinContextConfig.builder(port).build());
+        builder.registerRouters(new ErrorRouter());
+        builder.registerErrorMapping(IllegalArgumentException.class, HttpStatus.BAD_REQUEST, "INVALID_PARAMETER", "invalid parameter");
+        JavalinContext context = (JavalinContext) builder.build();
+        context.initialize();
+        Thread server = new Thread(() -> {
+            try {
+                context.start();
+            } catch (Exception e) {
+                LOGGER.error("Failed to start error server", e);
+            }
+        }, "error-server");
+        server.setDaemon(true);
+        server.start();
+        while (context.startupReport().totalMillis() == 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package org.github.waltz4line.loadtest;
+
+import io.javalin.http.Context;
+import org.github.waltz4line.server.javalin.JavalinContext;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.file.FileResponse;
+import org.github.waltz4line.server.router.annotation.GetMapping;
+import org.github.waltz4line.server.router.annotation.Router;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 파일 응답 방식 비교: {@link FileResponse} 와 Files.readAllBytes + ctx.result.
+ *
+ * 같은 프로세스에 {@link JavalinContext} 를 띄우고 임시 파일을 만든 뒤, 방식마다 같은 파일을 순서대로 요청하여
+ * 요청 시간, 처리량, 요청 중 heap 사용량의 최대값을 측정한다. 첫 요청 전에 파일을 한 번 읽어 page cache 에 올린다.
+ * client 도 같은 프로세스에서 실행되므로 heap 사용량에는 client 의 수신 buffer 도 포함된다.
+ * 2 GB 이상은 byte[] 로 읽을 수 없으므로 readAllBytes 방식은 실패 (500) 한다.
+ *
+ * 인자: 파일 크기 (MB) 목록 (기본값: 64 1536 3072). 파일 크기 합만큼의 디스크 공간이 필요하다.
+ * heap 크기에 따라 readAllBytes 결과가 달라지므로 -Xmx 를 함께 기록한다.
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.FileResponseBenchmark -Dexec.args="64 1536 3072"
+ */
+public final class FileResponseBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileResponseBenchmark.class);
+
+    private static final int REQUESTS = 3;
+
+    private static final int WRITE_BLOCK_BYTES = 1024 * 1024;
+
+    private static final long HEAP_SAMPLE_MILLIS = 5;
+
+    @Router(path = "/files", tag = "file")
+    public static class FileRouter {
+
+        private final Path directory;
+
+        public FileRouter(Path directory) {
+            this.directory = directory;
+        }
+
+        @GetMapping(path = "/mapped/{name}", description = "FileResponse")
+        public FileResponse mapped(Context ctx) {
+            return FileResponse.of(directory.resolve(ctx.pathParam("name")));
+        }
+
+        @GetMapping(path = "/bytes/{name}", description = "Files.readAllBytes + ctx.result")
+        public void bytes(Context ctx) throws IOException {
+            ctx.result(Files.readAllBytes(directory.resolve(ctx.pathParam("name"))));
+        }
+
+    }
+
+    private FileResponseBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] sizesMb = args.length == 0 ? new long[]{64, 1536, 3072} : new long[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizesMb[i] = Long.parseLong(args[i]);
+        }
+        Path directory = Files.createTempDirectory("file-response-bench");
+        int port = freePort();
+        startServer(port, directory);
+        HttpClient client = HttpClient.newHttpClient();
+        PrintStream out = System.out;
+        out.printf("max heap=%dMB%n", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        out.printf("%-7s %8s %4s %6s %10s %10s %14s%n", "mode", "size(MB)", "req", "status", "time(ms)", "MB/s", "peak heap(MB)");
+        try {
+            for (long sizeMb : sizesMb) {
+                Path file = createFile(directory, sizeMb);
+                try {
+                    warmPageCache(file);
+                    for (String mode : new String[]{"mapped", "bytes"}) {
+                        URI uri = URI.create("http://localhost:" + port + "/files/" + mode + "/" + file.getFileName());
+                        for (int i = 1; i <= REQUESTS; i++) {
+                            request(client, uri, mode, sizeMb, i, out);
+                        }
+                    }
+                } finally {
+                    Files.delete(file);
+                }
+            }
+        } finally {
+            Files.delete(directory);
+        }
+        // 내장 server 는 shutdown hook 으로 종료된다.
+        System.exit(0);
+    }
+
+    private static void request(HttpClient client, URI uri, String mode, long sizeMb, int index, PrintStream out) throws Exception {
+        System.gc();
+        HeapSampler heap = new HeapSampler();
+        heap.start();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofInputStream());
+        long bytes;
+        try (InputStream body = response.body()) {
+            bytes = body.transferTo(OutputStream.nullOutputStream());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long peakHeap = heap.finish();
+        boolean complete = response.statusCode() == 200 && bytes == sizeMb * 1024 * 1024;
+        out.printf("%-7s %8d %4d %6d %10d %10s %14d%n", mode, sizeMb, index, response.statusCode(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), complete ? String.format("%.0f", bytes / 1e6 / (elapsedNanos / 1e9)) : "-",
+                peakHeap / (1024 * 1024));
+    }
+
+    private static Path createFile(Path directory, long sizeMb) throws IOException {
+        Path file = directory.resolve(sizeMb + "mb.bin");
+        byte[] block = new byte[WRITE_BLOCK_BYTES];
+        new Random(sizeMb).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long i = 0; i < sizeMb; i++) {
+                out.write(block);
+            }
+        }
+        return file;
+    }
+
+    private static void warmPageCache(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void startServer(int port, Path directory) throws Exception {
+        JavalinContext.Builder builder = new JavalinContext.Builder(JavalinContextConfig.builder(port).build());
+        builder.registerRouters(new FileRouter(directory));
+        JavalinContext context = (JavalinContext) builder.build();
+        context.initialize();
+        Thread server = new Thread(() -> {
+            try {
+                context.start();
+            } catch (Exception e) {
+                LOGGER.error("Failed to start file server", e);
+            }
+        }, "file-server");
+        server.setDaemon(true);
+        server.start();
+        while (context.startupReport().totalMillis() == 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 요청 중 heap 사용량의 최대값을 기록한다.
+     */
+    private static final class HeapSampler extends Thread {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        private final AtomicLong peak = new AtomicLong();
+
+        private final AtomicBoolean running = new AtomicBoolean(true);
+
+        private HeapSampler() {
+            super("heap-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(HEAP_SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long finish() throws InterruptedException {
+            running.set(false);
+            join();
+            return peak.get();
+        }
+
+    }
+
+}
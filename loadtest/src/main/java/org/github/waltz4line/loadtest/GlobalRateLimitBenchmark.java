@@ -0,0 +1,100 @@
+package org.github.waltz4line.loadtest;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.github.waltz4line.server.javalin.ratelimit.RateLimitInterceptor;
+import org.github.waltz4line.server.javalin.ratelimit.RateLimiter;
+import org.github.waltz4line.server.router.RateLimitAttr;
+import org.github.waltz4line.server.router.annotation.RateLimitKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 경합이 없는 GLOBAL rate limit 의 허용 경로 비용. (JMH)
+ *
+ * - tryAcquire: {@link RateLimiter#tryAcquire(long)} 만 호출한다.
+ * - withoutInterceptor: endpoint handler 를 직접 호출한다.
+ * - withInterceptor: {@link RateLimitInterceptor} 를 거쳐 같은 handler 를 호출한다.
+ * 측정 중에 제한되지 않도록 초당 허용 수를 호출 빈도보다 크게 설정한다.
+ * GLOBAL key 는 Context 를 사용하지 않으므로 호출되면 실패하는 Context 를 전달한다.
+ * mvn -f loadtest/pom.xml compile exec:exec -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main GlobalRateLimitBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GlobalRateLimitBenchmark {
+
+    private static final int PERMITS_PER_SECOND = 1_000_000_000;
+
+    private RateLimiter rateLimiter;
+
+    private RateLimitInterceptor interceptor;
+
+    private Context ctx;
+
+    private Handler endpoint;
+
+    private long handled;
+
+    private long rejected;
+
+    @Setup
+    public void setup() {
+        RateLimitAttr rateLimit = RateLimitAttr.of(PERMITS_PER_SECOND, 0, RateLimitKey.GLOBAL, null);
+        rateLimiter = new RateLimiter(rateLimit.permitsPerSecond(), rateLimit.burst(), 1);
+        interceptor = new RateLimitInterceptor(rateLimit, 1);
+        ctx = (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("Context." + method.getName());
+                });
+        endpoint = ignored -> handled++;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (rejected > 0) {
+            throw new IllegalStateException(rejected + " requests were rate limited");
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        long waitNanos = rateLimiter.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            rejected++;
+        }
+        return waitNanos;
+    }
+
+    @Benchmark
+    public long withoutInterceptor() throws Exception {
+        endpoint.handle(ctx);
+        return handled;
+    }
+
+    @Benchmark
+    public long withInterceptor() throws Exception {
+        long before = handled;
+        interceptor.intercept(ctx, endpoint);
+        if (handled == before) {
+            rejected++;
+        }
+        return handled;
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.github.waltz4line.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.json.GenerateJsonCodec;
+import org.github.waltz4line.server.javalin.json.JsonCodecs;
+import org.github.waltz4line.server.javalin.json.JsonMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GenerateJsonCodec} 로 생성한 codec 과 Jackson (reflection / blackbird) 의 직렬화, 역직렬화 비용 비교. (JMH)
+ *
+ * 같은 구조의 record 를 codec 생성 여부만 달리해 선언하고, 요청 / 응답 body 와 같이 byte[] 로 쓰고 읽는다.
+ * 상위 프로젝트의 annotation processor 로 codec 을 생성하므로 먼저 상위 프로젝트를 설치해야 한다. (mvn install)
+ * mvn -f loadtest/pom.xml compile exec:exec -Dexec.executable=java -Dexec.args="-cp %classpath org.openjdk.jmh.Main JsonCodecBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final int LINES = 8;
+
+    @GenerateJsonCodec
+    public record CodecLine(long productId, String name, int quantity, double price, boolean gift) {
+    }
+
+    @GenerateJsonCodec
+    public record CodecOrder(long id, String customer, String status, Long couponId, List<CodecLine> lines) {
+    }
+
+    public record PlainLine(long productId, String name, int quantity, double price, boolean gift) {
+    }
+
+    public record PlainOrder(long id, String customer, String status, Long couponId, List<PlainLine> lines) {
+    }
+
+    private ObjectWriter codecWriter;
+
+    private ObjectReader codecReader;
+
+    private ObjectWriter jacksonWriter;
+
+    private ObjectReader jacksonReader;
+
+    private ObjectWriter blackbirdWriter;
+
+    private ObjectReader blackbirdReader;
+
+    private CodecOrder codecOrder;
+
+    private PlainOrder plainOrder;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonCodecs codecs = JsonCodecs.load(JsonCodecBenchmark.class.getClassLoader(), List.of());
+        if (codecs.find(CodecOrder.class) == null) {
+            throw new IllegalStateException("JSON codec of " + CodecOrder.class.getName() + " is not generated");
+        }
+        ObjectMapper jackson = JsonMappers.create(new JavalinContextConfig.JavalinJson(false, null, null, null, null, null), codecs);
+        ObjectMapper blackbird = JsonMappers.create(new JavalinContextConfig.JavalinJson(true, null, null, null, null, null), codecs);
+        codecWriter = jackson.writerFor(CodecOrder.class);
+        codecReader = jackson.readerFor(CodecOrder.class);
+        jacksonWriter = jackson.writerFor(PlainOrder.class);
+        jacksonReader = jackson.readerFor(PlainOrder.class);
+        blackbirdWriter = blackbird.writerFor(PlainOrder.class);
+        blackbirdReader = blackbird.readerFor(PlainOrder.class);
+
+        List<CodecLine> codecLines = new ArrayList<>();
+        List<PlainLine> plainLines = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            codecLines.add(new CodecLine(1_000L + i, "product-" + i, i + 1, 9.99 * (i + 1), i % 3 == 0));
+            plainLines.add(new PlainLine(1_000L + i, "product-" + i, i + 1, 9.99 * (i + 1), i % 3 == 0));
+        }
+        codecOrder = new CodecOrder(42L, "customer-42", "PAID", null, codecLines);
+        plainOrder = new PlainOrder(42L, "customer-42", "PAID", null, plainLines);
+        body = jacksonWriter.writeValueAsBytes(plainOrder);
+        if (!new String(body).equals(new String(codecWriter.writeValueAsBytes(codecOrder)))) {
+            throw new IllegalStateException("codec and Jackson output differ");
+        }
+    }
+
+    @Benchmark
+    public byte[] writeCodec() throws IOException {
+        return codecWriter.writeValueAsBytes(codecOrder);
+    }
+
+    @Benchmark
+    public byte[] writeJackson() throws IOException {
+        return jacksonWriter.writeValueAsBytes(plainOrder);
+    }
+
+    @Benchmark
+    public byte[] writeBlackbird() throws IOException {
+        return blackbirdWriter.writeValueAsBytes(plainOrder);
+    }
+
+    @Benchmark
+    public CodecOrder readCodec() throws IOException {
+        return codecReader.readValue(body);
+    }
+
+    @Benchmark
+    public PlainOrder readJackson() throws IOException {
+        return jacksonReader.readValue(body);
+    }
+
+    @Benchmark
+    public PlainOrder readBlackbird() throws IOException {
+        return blackbirdReader.readValue(body);
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.github.waltz4line.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.github.waltz4line.server.javalin.JavalinContext;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 부하 테스트 harness.
+ *
+ * --target 을 지정하지 않으면 {@link SampleRouter} 를 등록한 {@link JavalinContext} 를 임의의 port 로 띄워 부하를 보낸다.
+ * 결과는 endpoint 별 처리량, 에러율, p50 ~ p99.99 latency 를 출력하며 --output 이 있다면 JSON 으로 저장한다.
+ * 옵션은 {@link LoadTestOptions#USAGE} 참고.
+ */
+public final class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        Scenario scenario = Scenario.of(options.scenario());
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+        URI baseUri = options.target();
+        JavalinContext sampleServer = null;
+        if (baseUri == null) {
+            int port = freePort();
+            baseUri = URI.create("http://localhost:" + port);
+            sampleServer = startSampleServer(client, baseUri, port, options.concurrencyLimit());
+        }
+
+        LoadTestReport report = new ArrivalRateGenerator(client, baseUri, scenario, options).run();
+        print(report, System.out);
+        if (sampleServer != null && sampleServer.concurrencyLimitStats() != null) {
+            System.out.println("concurrency limit: " + sampleServer.concurrencyLimitStats());
+        }
+        if (options.output() != null) {
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.output().toFile(), report);
+            LOGGER.info("Report written to {}", options.output().toAbsolutePath());
+        }
+        // 내장 server 는 shutdown hook 으로 종료된다.
+        System.exit(0);
+    }
+
+    private static JavalinContext startSampleServer(HttpClient client, URI baseUri, int port, boolean concurrencyLimit)
+            throws Exception {
+        JavalinContextConfig.JavalinConcurrencyLimit limit = concurrencyLimit
+                ? new JavalinContextConfig.JavalinConcurrencyLimit(true)
+                : null;
+        JavalinContext.Builder builder = new JavalinContext.Builder(JavalinContextConfig.builder(port).concurrencyLimit(limit).build());
+        builder.registerRouters(new SampleRouter());
+        JavalinContext context = (JavalinContext) builder.build();
+        context.initialize();
+
+        Thread server = new Thread(() -> {
+            try {
+                context.start();
+            } catch (Exception e) {
+                LOGGER.error("Failed to start sample server", e);
+            }
+        }, "sample-server");
+        server.setDaemon(true);
+        server.start();
+
+        awaitReady(client, baseUri);
+        return context;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitReady(HttpClient client, URI baseUri) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUri + "/sample/items")).timeout(Duration.ofSeconds(1)).build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ignored) {
+                // 아직 시작 중
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        throw new IllegalStateException("Sample server did not become ready within " + READY_TIMEOUT);
+    }
+
+    private static void print(LoadTestReport report, PrintStream out) {
+        out.printf("%nscenario=%s target=%s rate=%.0f/s duration=%dms elapsed=%dms maxSendLag=%.3fms%n",
+                report.scenario(), report.target(), report.targetRate(), report.durationMillis(), report.elapsedMillis(),
+                report.maxSendLagMillis());
+        out.printf("%-28s %9s %10s %8s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50", "p90", "p99", "p99.9", "p99.99", "max", "ok p99");
+        for (Map.Entry<String, LoadTestReport.Result> entry : report.endpoints().entrySet()) {
+            print(entry.getKey(), entry.getValue(), out);
+        }
+        print("total", report.total(), out);
+    }
+
+    private static void print(String name, LoadTestReport.Result result, PrintStream out) {
+        LoadTestReport.Latency latency = result.latencyMillis();
+        out.printf("%-28s %9d %10.1f %7.2f%% %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                name, result.requests(), result.throughput(), result.errorRate() * 100,
+                latency.p50(), latency.p90(), latency.p99(), latency.p999(), latency.p9999(), latency.max(),
+                result.successLatencyMillis().p99());
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.github.waltz4line.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param target           부하를 보낼 server. null 이면 sample router 를 등록한 JavalinContext 를 임의의 port 로 띄운다.
+ * @param rate             초당 요청 수 (arrival rate). 응답 속도와 무관하게 일정하다.
+ * @param maxInFlight      동시에 응답을 기다리는 최대 요청 수. 초과하면 전송이 늦어지지만 지연은 예정된 전송 시각 기준으로 기록된다.
+ * @param output           JSON report 경로. null 이면 출력만 한다.
+ * @param concurrencyLimit 내장 sample server 에 적응형 동시 실행 수 제한을 적용할지 여부
+ */
+public record LoadTestOptions(URI target,
+                              String scenario,
+                              double rate,
+                              Duration duration,
+                              Duration warmup,
+                              int maxInFlight,
+                              Duration timeout,
+                              Path output,
+                              boolean concurrencyLimit) {
+
+    static final String USAGE = """
+            usage: LoadTest [options]
+              --target <url>        부하를 보낼 server (기본: 내장 sample server)
+              --scenario <name>     mixed | slow | overload (기본: mixed)
+              --rate <n>            초당 요청 수 (기본: 1000)
+              --duration <seconds>  측정 시간 (기본: 30)
+              --warmup <seconds>    측정 전 warm-up 시간 (기본: 5)
+              --max-in-flight <n>   최대 동시 요청 수 (기본: 1024)
+              --timeout <millis>    요청 timeout (기본: 5000)
+              --output <path>       JSON report 경로
+              --concurrency-limit <true|false>
+                                    내장 sample server 에 적응형 동시 실행 수 제한 적용 (기본: false)""";
+
+    public LoadTestOptions {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive: " + duration);
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup must not be negative: " + warmup);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        URI target = null;
+        String scenario = Scenario.MIXED.name();
+        double rate = 1000;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(5);
+        int maxInFlight = 1024;
+        Duration timeout = Duration.ofSeconds(5);
+        Path output = null;
+        boolean concurrencyLimit = false;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option + System.lineSeparator() + USAGE);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--target" -> target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "--scenario" -> scenario = value;
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> duration = Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+                case "--warmup" -> warmup = Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--timeout" -> timeout = Duration.ofMillis(Long.parseLong(value));
+                case "--output" -> output = Path.of(value);
+                case "--concurrency-limit" -> concurrencyLimit = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option + System.lineSeparator() + USAGE);
+            }
+        }
+        return new LoadTestOptions(target, scenario, rate, duration, warmup, maxInFlight, timeout, output, concurrencyLimit);
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.github.waltz4line.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * 부하 테스트 결과. JSON 으로 export 한다.
+ * latency 는 예정된 전송 시각 기준 (coordinated omission 보정) 이며 serviceTime 은 비교를 위한 실제 전송 시각 기준 값이다.
+ *
+ * @param elapsedMillis    측정 구간에 예정된 요청이 모두 완료되기까지의 시간. 처리량 계산에 사용한다.
+ * @param maxSendLagMillis 예정된 전송 시각보다 늦게 보낸 최대 시간. 크다면 generator (또는 maxInFlight) 가 병목이다.
+ */
+public record LoadTestReport(String scenario,
+                             String target,
+                             double targetRate,
+                             long durationMillis,
+                             long elapsedMillis,
+                             long warmupMillis,
+                             int maxInFlight,
+                             double maxSendLagMillis,
+                             Result total,
+                             Map<String, Result> endpoints) {
+
+    /**
+     * @param outcomes             HTTP status 또는 {@value EndpointRecorder#OUTCOME_TIMEOUT} / {@value EndpointRecorder#OUTCOME_IO_ERROR} 별 건수
+     * @param successLatencyMillis 에러가 아닌 응답만의 latency
+     */
+    public record Result(long requests,
+                         double throughput,
+                         long errors,
+                         double errorRate,
+                         Map<String, Long> outcomes,
+                         Latency latencyMillis,
+                         Latency serviceTimeMillis,
+                         Latency successLatencyMillis) {
+
+        static Result of(EndpointRecorder recorder, long elapsedMillis) {
+            long requests = recorder.responseTime.count();
+            long errors = recorder.errors();
+            return new Result(requests,
+                    elapsedMillis == 0 ? 0 : requests * 1000.0 / elapsedMillis,
+                    errors,
+                    requests == 0 ? 0 : (double) errors / requests,
+                    recorder.outcomes(),
+                    Latency.of(recorder.responseTime),
+                    Latency.of(recorder.serviceTime),
+                    Latency.of(recorder.successTime));
+        }
+    }
+
+    public record Latency(@JsonProperty("p50") double p50,
+                          @JsonProperty("p90") double p90,
+                          @JsonProperty("p99") double p99,
+                          @JsonProperty("p99.9") double p999,
+                          @JsonProperty("p99.99") double p9999,
+                          @JsonProperty("max") double max,
+                          @JsonProperty("mean") double mean) {
+
+        static Latency of(Histogram histogram) {
+            return new Latency(millis(histogram.percentileNanos(50)),
+                    millis(histogram.percentileNanos(90)),
+                    millis(histogram.percentileNanos(99)),
+                    millis(histogram.percentileNanos(99.9)),
+                    millis(histogram.percentileNanos(99.99)),
+                    millis(histogram.maxNanos()),
+                    millis(histogram.meanNanos()));
+        }
+
+        private static double millis(double nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.github.waltz4line.loadtest;
+
+import org.github.waltz4line.server.javalin.JavalinContext;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.push.PushConnection;
+import org.github.waltz4line.server.router.annotation.Router;
+import org.github.waltz4line.server.router.annotation.WebSocketMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WebSocket push fan-out 비교.
+ *
+ * 같은 프로세스에 {@link JavalinContext} 를 띄우고 connections 개의 WebSocket 연결이 하나의 topic 을 구독한 뒤,
+ * messages 개의 메시지를 publish 하여 모든 연결에 전달될 때까지의 처리량과 publish 부터 수신까지의 latency 를 측정한다.
+ * 메시지는 한 번만 직렬화되어 모든 연결에 같은 bytes 로 전송된다. (publish 루프 시간이 연결 수에 비례하는지 확인한다)
+ *
+ * 인자: connections messages payloadBytes (기본값: 10000 100 64)
+ * 연결마다 client / server socket 을 하나씩 사용하므로 connections * 2 보다 큰 open file 제한이 필요하다. (ulimit -n)
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.PushBenchmark -Dexec.args="10000 100 64"
+ */
+public final class PushBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushBenchmark.class);
+
+    private static final String TOPIC = "bench";
+
+    private static final int CONNECT_BATCH = 500;
+
+    private static final long DELIVERY_TIMEOUT_SECONDS = 300;
+
+    @Router(path = "/push", tag = "push")
+    public static class PushRouter {
+
+        @WebSocketMapping(path = "/ws", queueSize = 1024, description = "benchmark topic 구독")
+        public void subscribe(PushConnection connection) {
+            connection.subscribe(TOPIC);
+        }
+
+    }
+
+    private PushBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int payloadBytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        int port = freePort();
+        JavalinContext context = startServer(port);
+        HttpClient client = HttpClient.newHttpClient();
+        Histogram latency = new Histogram();
+        LongAdder received = new LongAdder();
+        CountDownLatch completed = new CountDownLatch(connections);
+
+        long connectStart = System.nanoTime();
+        List<CompletableFuture<WebSocket>> sockets = new ArrayList<>(connections);
+        URI uri = URI.create("ws://localhost:" + port + "/push/ws");
+        for (int i = 0; i < connections; i++) {
+            sockets.add(client.newWebSocketBuilder().buildAsync(uri, new Receiver(messages, latency, received, completed)));
+            if (sockets.size() % CONNECT_BATCH == 0) {
+                CompletableFuture.allOf(sockets.toArray(CompletableFuture[]::new)).join();
+            }
+        }
+        CompletableFuture.allOf(sockets.toArray(CompletableFuture[]::new)).join();
+        while (context.topics().subscriberCount(TOPIC) < connections) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        long connectNanos = System.nanoTime() - connectStart;
+
+        String payload = "x".repeat(payloadBytes);
+        long publishStart = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            context.topics().publish(TOPIC, Map.of("seq", i, "sentNanos", System.nanoTime(), "payload", payload));
+        }
+        long publishNanos = System.nanoTime() - publishStart;
+        boolean delivered = completed.await(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long deliveryNanos = System.nanoTime() - publishStart;
+
+        print(connections, messages, payloadBytes, connectNanos, publishNanos, deliveryNanos, delivered, received.sum(),
+                latency, System.out);
+        System.out.println("push stats: " + context.topics().stats());
+        // 내장 server 는 shutdown hook 으로 종료된다.
+        System.exit(0);
+    }
+
+    private static void print(int connections, int messages, int payloadBytes, long connectNanos, long publishNanos,
+                              long deliveryNanos, boolean delivered, long received, Histogram latency, PrintStream out) {
+        out.printf("connections=%d messages=%d payload=%dB connect=%dms%n", connections, messages, payloadBytes,
+                TimeUnit.NANOSECONDS.toMillis(connectNanos));
+        out.printf("publish loop=%.1fms delivery=%dms%s deliveries=%d/%d (%.0f/s)%n",
+                publishNanos / 1e6, TimeUnit.NANOSECONDS.toMillis(deliveryNanos), delivered ? "" : " (timeout)",
+                received, (long) connections * messages, received * 1e9 / deliveryNanos);
+        out.printf("latency ms p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+                latency.percentileNanos(50) / 1e6, latency.percentileNanos(90) / 1e6, latency.percentileNanos(99) / 1e6,
+                latency.percentileNanos(99.9) / 1e6, latency.maxNanos() / 1e6);
+    }
+
+    private static JavalinContext startServer(int port) throws Exception {
+        JavalinContext.Builder builder = new JavalinContext.Builder(JavalinContextConfig.builder(port).build());
+        builder.registerRouters(new PushRouter());
+        JavalinContext context = (JavalinContext) builder.build();
+        context.initialize();
+        Thread server = new Thread(() -> {
+            try {
+                context.start();
+            } catch (Exception e) {
+                LOGGER.error("Failed to start push server", e);
+            }
+        }, "push-server");
+        server.setDaemon(true);
+        server.start();
+        while (context.startupReport().totalMillis() == 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return context;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 수신한 메시지의 sentNanos 로 latency 를 기록한다. (같은 프로세스이므로 System.nanoTime 을 비교할 수 있다)
+     */
+    private static final class Receiver implements WebSocket.Listener {
+
+        private static final String SENT_NANOS = "\"sentNanos\":";
+
+        private final int messages;
+
+        private final Histogram latency;
+
+        private final LongAdder received;
+
+        private final CountDownLatch completed;
+
+        private final StringBuilder partial = new StringBuilder();
+
+        private int count;
+
+        private Receiver(int messages, Histogram latency, LongAdder received, CountDownLatch completed) {
+            this.messages = messages;
+            this.latency = latency;
+            this.received = received;
+            this.completed = completed;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                latency.record(System.nanoTime() - sentNanos(partial));
+                partial.setLength(0);
+                received.increment();
+                if (++count == messages) {
+                    completed.countDown();
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        private static long sentNanos(CharSequence text) {
+            String message = text.toString();
+            int start = message.indexOf(SENT_NANOS) + SENT_NANOS.length();
+            int end = start;
+            while (end < message.length() && (Character.isDigit(message.charAt(end)) || message.charAt(end) == '-')) {
+                end++;
+            }
+            return Long.parseLong(message, start, end, 10);
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package org.github.waltz4line.loadtest;
+
+import org.github.waltz4line.server.javalin.ratelimit.RateLimiter;
+
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * key 단위 rate limit 의 조회 비용 비교.
+ *
+ * maxKeys 개의 bucket 을 채운 뒤 다음 세 가지 key 분포로 tryAcquire(key, now) 를 호출한다.
+ * - existing: 이미 bucket 이 있는 key 만 조회한다.
+ * - churn-idle: 매번 새 key 로 조회한다. 기존 bucket 은 idle 이므로 low-water mark 까지 정리된다.
+ * - churn-live: 매번 새 key 로 조회한다. 기존 bucket 이 모두 사용 중이므로 정리되지 않고 overflow bucket 을 사용한다.
+ * 평균은 조회 묶음 단위로, percentile 은 별도 구간에서 조회마다 측정한다.
+ * GLOBAL bucket 의 허용 경로는 {@link GlobalRateLimitBenchmark} 에서 측정한다.
+ *
+ * 인자로 maxKeys 목록을 받는다. (기본값: 1000 10000 100000)
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.RateLimiterBenchmark
+ */
+public final class RateLimiterBenchmark {
+
+    private static final int LOOKUP_KEYS = 4096;
+
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    /* 사용 중인 bucket 의 TAT 가 측정 중에 지나가지 않도록 초당 1 회, burst 1 로 제한한다. */
+    private static final int PERMITS_PER_SECOND = 1;
+
+    private static long sink;
+
+    private static long keySequence;
+
+    private RateLimiterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] keyCounts = args.length == 0 ? new int[]{1_000, 10_000, 100_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            keyCounts[i] = Integer.parseInt(args[i]);
+        }
+        PrintStream out = System.out;
+        out.printf("%-11s %7s %12s %10s %10s %10s %8s%n", "keys", "maxKeys", "lookups", "mean(ns)", "p50(ns)", "p99(ns)", "buckets");
+        for (int maxKeys : keyCounts) {
+            run("existing", maxKeys, false, out);
+            run("churn-idle", maxKeys, false, out);
+            run("churn-live", maxKeys, true, out);
+        }
+        out.println("sink=" + sink);
+    }
+
+    private static void run(String name, int maxKeys, boolean live, PrintStream out) {
+        RateLimiter rateLimiter = new RateLimiter(PERMITS_PER_SECOND, 1, maxKeys);
+        long now = System.nanoTime();
+        // live 가 아니라면 과거 시각으로 채워서 모든 bucket 이 idle 이 되도록 한다.
+        long fillNanos = live ? now : now - TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < maxKeys; i++) {
+            rateLimiter.tryAcquire("filled-" + i, fillNanos);
+        }
+        String[] lookups = "existing".equals(name) ? existingKeys(maxKeys, new Random(maxKeys)) : null;
+        measure(rateLimiter, lookups, WARMUP_NANOS, null);
+        long[] totals = measure(rateLimiter, lookups, MEASURE_NANOS, null);
+        Histogram histogram = new Histogram();
+        measure(rateLimiter, lookups, MEASURE_NANOS, histogram);
+        out.printf("%-11s %7d %12d %10.1f %10d %10d %8d%n", name, maxKeys, totals[0], (double) totals[1] / totals[0],
+                histogram.percentileNanos(50), histogram.percentileNanos(99), rateLimiter.keyCount());
+    }
+
+    /*
+     * lookups 가 null 이면 매번 새 key 로 조회한다.
+     * @return {조회 수, 조회에 걸린 전체 시간}
+     */
+    private static long[] measure(RateLimiter rateLimiter, String[] lookups, long durationNanos, Histogram histogram) {
+        String[] keys = lookups == null ? new String[LOOKUP_KEYS] : lookups;
+        long count = 0;
+        long elapsed = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            if (lookups == null) {
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = "new-" + keySequence++;
+                }
+            }
+            long batchStart = System.nanoTime();
+            for (String key : keys) {
+                if (histogram == null) {
+                    sink += rateLimiter.tryAcquire(key, batchStart);
+                } else {
+                    long start = System.nanoTime();
+                    sink += rateLimiter.tryAcquire(key, start);
+                    histogram.record(System.nanoTime() - start);
+                }
+            }
+            elapsed += System.nanoTime() - batchStart;
+            count += keys.length;
+        }
+        return new long[]{count, elapsed};
+    }
+
+    private static String[] existingKeys(int maxKeys, Random random) {
+        String[] keys = new String[LOOKUP_KEYS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "filled-" + random.nextInt(maxKeys);
+        }
+        return keys;
+    }
+
+}
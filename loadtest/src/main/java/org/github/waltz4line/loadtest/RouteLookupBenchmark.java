@@ -0,0 +1,132 @@
+package org.github.waltz4line.loadtest;
+
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.router.Endpoint;
+import io.javalin.router.InternalRouter;
+import io.javalin.router.ParsedEndpoint;
+import org.github.waltz4line.server.javalin.route.CopyOnWriteRouter;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * endpoint 수에 따른 router 조회 latency 비교.
+ *
+ * annotation endpoint 와 비슷한 형태 (고정 segment 와 {@code {param}} segment) 의 GET endpoint 를 등록한 뒤,
+ * 요청 처리와 같이 findHttpHandlerEntries(...).findFirst() 로 endpoint 를 찾는 시간을 측정한다. 조회 대상의 10% 는 일치하는
+ * endpoint 가 없는 path 이다. 평균은 조회 묶음 단위로, percentile 은 별도 구간에서 조회마다 측정한다.
+ * (percentile 에는 System.nanoTime / histogram 기록 비용이 포함된다.)
+ *
+ * 인자로 endpoint 수 목록을 받는다. (기본값: 100 1000 10000)
+ * mvn -f loadtest/pom.xml compile exec:java -Dexec.mainClass=org.github.waltz4line.loadtest.RouteLookupBenchmark
+ */
+public final class RouteLookupBenchmark {
+
+    private static final int LOOKUP_PATHS = 4096;
+
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private static final Handler NOOP = ctx -> {
+    };
+
+    private static long sink;
+
+    private RouteLookupBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] routeCounts = args.length == 0 ? new int[]{100, 1_000, 10_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            routeCounts[i] = Integer.parseInt(args[i]);
+        }
+        PrintStream out = System.out;
+        out.printf("%-14s %7s %12s %10s %10s %10s%n", "router", "routes", "lookups", "mean(ns)", "p50(ns)", "p99(ns)");
+        for (int routeCount : routeCounts) {
+            List<String> paths = paths(routeCount);
+            String[] lookups = lookups(paths, new Random(routeCount));
+            run("javalin", routeCount, () -> new JavalinConfig().pvt.internalRouter, paths, lookups, out);
+            run("copy-on-write", routeCount, () -> CopyOnWriteRouter.install(new JavalinConfig(), false), paths, lookups, out);
+            run("radix-tree", routeCount, () -> CopyOnWriteRouter.install(new JavalinConfig(), true), paths, lookups, out);
+        }
+        out.println("sink=" + sink);
+    }
+
+    private static void run(String name, int routeCount, Supplier<InternalRouter> routerFactory, List<String> paths,
+                            String[] lookups, PrintStream out) {
+        InternalRouter router = routerFactory.get();
+        for (String path : paths) {
+            router.addHttpEndpoint(new Endpoint(HandlerType.GET, path, Set.of(), NOOP));
+        }
+        measure(router, lookups, WARMUP_NANOS, null);
+        long[] totals = measure(router, lookups, MEASURE_NANOS, null);
+        Histogram histogram = new Histogram();
+        measure(router, lookups, MEASURE_NANOS, histogram);
+        out.printf("%-14s %7d %12d %10.1f %10d %10d%n", name, routeCount, totals[0], (double) totals[1] / totals[0],
+                histogram.percentileNanos(50), histogram.percentileNanos(99));
+    }
+
+    /*
+     * @return {조회 수, 조회에 걸린 전체 시간}
+     */
+    private static long[] measure(InternalRouter router, String[] lookups, long durationNanos, Histogram histogram) {
+        long count = 0;
+        long elapsed = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            long batchStart = System.nanoTime();
+            for (String lookup : lookups) {
+                if (histogram == null) {
+                    sink += lookup(router, lookup);
+                } else {
+                    long start = System.nanoTime();
+                    sink += lookup(router, lookup);
+                    histogram.record(System.nanoTime() - start);
+                }
+            }
+            elapsed += System.nanoTime() - batchStart;
+            count += lookups.length;
+        }
+        return new long[]{count, elapsed};
+    }
+
+    private static int lookup(InternalRouter router, String path) {
+        ParsedEndpoint entry = router.findHttpHandlerEntries(HandlerType.GET, path).findFirst().orElse(null);
+        return entry == null ? 1 : entry.getEndpoint().getPath().length();
+    }
+
+    /*
+     * 서비스 / 리소스 별로 목록, 단건, 하위 리소스 endpoint 를 만든다.
+     */
+    private static List<String> paths(int routeCount) {
+        List<String> paths = new ArrayList<>(routeCount);
+        for (int i = 0; paths.size() < routeCount; i++) {
+            String resource = "/api/service" + (i / 10) + "/resource" + (i % 10);
+            paths.add(resource);
+            paths.add(resource + "/{id}");
+            paths.add(resource + "/{id}/detail");
+            paths.add(resource + "/{id}/items/{itemId}");
+        }
+        return paths.subList(0, routeCount);
+    }
+
+    private static String[] lookups(List<String> paths, Random random) {
+        String[] lookups = new String[LOOKUP_PATHS];
+        for (int i = 0; i < lookups.length; i++) {
+            String path = paths.get(random.nextInt(paths.size()))
+                    .replace("{id}", Integer.toString(random.nextInt(100_000)))
+                    .replace("{itemId}", Integer.toString(random.nextInt(100)));
+            lookups[i] = random.nextInt(10) == 0 ? path + "/missing" : path;
+        }
+        return lookups;
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.github.waltz4line.loadtest;
+
+import io.javalin.http.Context;
+import org.github.waltz4line.server.router.annotation.GetMapping;
+import org.github.waltz4line.server.router.annotation.PostMapping;
+import org.github.waltz4line.server.router.annotation.Router;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 부하 테스트 대상 sample endpoint.
+ * 직렬화 비용, 요청 body 처리, I/O 대기 (sleep), 처리 용량이 정해진 downstream, 에러 응답을 각각 대표한다.
+ */
+@Router(path = "/sample", tag = "sample")
+public class SampleRouter {
+
+    public record Item(long id, String name, double price, List<String> tags) {
+    }
+
+    public record Order(long userId, List<Item> items, String memo) {
+    }
+
+    /* 요청마다 DOWNSTREAM_MILLIS 씩 처리하는 connection 1 개. 용량은 약 50 req/s 이며 초과하면 대기열이 쌓인다. */
+    private static final Semaphore DOWNSTREAM = new Semaphore(1, true);
+
+    private static final long DOWNSTREAM_MILLIS = 20;
+
+    private static final List<Item> ITEMS = List.of(
+            new Item(1, "keyboard", 89.5, List.of("input", "usb")),
+            new Item(2, "mouse", 25.0, List.of("input", "wireless")),
+            new Item(3, "monitor", 320.0, List.of("display")));
+
+    @GetMapping(path = "/items/{id}", description = "단건 조회", responseBody = Item.class)
+    public Object item(Context ctx) {
+        long id = Long.parseLong(ctx.pathParam("id"));
+        Item item = ITEMS.get(Math.floorMod(id, ITEMS.size()));
+        return new Item(id, item.name(), item.price(), item.tags());
+    }
+
+    @GetMapping(path = "/items", description = "목록 조회", responseBody = Item[].class)
+    public Object items(Context ctx) {
+        return ITEMS;
+    }
+
+    @PostMapping(path = "/orders", description = "요청 body 역직렬화 / 응답 직렬화", requestBody = Order.class, responseBody = Order.class)
+    public Object order(Context ctx) {
+        return ctx.bodyAsClass(Order.class);
+    }
+
+    @GetMapping(path = "/slow", description = "downstream 대기 (1 ~ 10ms)")
+    public Object slow(Context ctx) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextInt(1, 11)));
+        return "ok";
+    }
+
+    @GetMapping(path = "/downstream", description = "용량이 제한된 downstream 호출 (약 50 req/s)")
+    public Object downstream(Context ctx) throws InterruptedException {
+        DOWNSTREAM.acquire();
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(DOWNSTREAM_MILLIS));
+        } finally {
+            DOWNSTREAM.release();
+        }
+        return "ok";
+    }
+
+    @GetMapping(path = "/error", description = "처리 중 예외 (500)")
+    public Object error(Context ctx) {
+        throw new IllegalStateException("sample failure");
+    }
+
+}
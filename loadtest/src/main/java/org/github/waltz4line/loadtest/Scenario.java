@@ -0,0 +1,114 @@
+package org.github.waltz4line.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 가중치에 따라 요청을 고르는 부하 시나리오.
+ * 결과는 {@link Target#name()} (method + path template) 단위로 집계한다.
+ */
+public record Scenario(String name, List<Target> targets) {
+
+    private static final String ID_PLACEHOLDER = "{id}";
+
+    private static final String ORDER_BODY = """
+            {"userId":42,"items":[{"id":1,"name":"keyboard","price":89.5,"tags":["input","usb"]},\
+            {"id":2,"name":"mouse","price":25.0,"tags":["input","wireless"]}],"memo":"load test"}""";
+
+    /**
+     * @param path {@value #ID_PLACEHOLDER} 는 요청마다 임의의 숫자로 치환한다.
+     * @param body null 이면 body 없이 요청한다.
+     */
+    public record Target(String method, String path, String body, int weight) {
+
+        public Target {
+            Objects.requireNonNull(method, "method must not be null");
+            Objects.requireNonNull(path, "path must not be null");
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight must be positive: " + weight);
+            }
+        }
+
+        public String name() {
+            return method + " " + path;
+        }
+
+        HttpRequest request(URI baseUri, Duration timeout) {
+            String resolved = path.contains(ID_PLACEHOLDER)
+                    ? path.replace(ID_PLACEHOLDER, String.valueOf(ThreadLocalRandom.current().nextInt(1, 10_000)))
+                    : path;
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + resolved)).timeout(timeout);
+            if (body == null) {
+                builder.method(method, HttpRequest.BodyPublishers.noBody());
+            } else {
+                builder.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofString(body));
+            }
+            return builder.build();
+        }
+    }
+
+    /** 조회 위주의 일반적인 트래픽. 소량의 느린 요청과 에러를 포함한다. */
+    public static final Scenario MIXED = new Scenario("mixed", List.of(
+            new Target("GET", "/sample/items/{id}", null, 50),
+            new Target("GET", "/sample/items", null, 20),
+            new Target("POST", "/sample/orders", ORDER_BODY, 20),
+            new Target("GET", "/sample/slow", null, 9),
+            new Target("GET", "/sample/error", null, 1)));
+
+    /** 모든 요청이 downstream 을 대기한다. 동시 처리량 한계를 확인할 때 사용한다. */
+    public static final Scenario SLOW = new Scenario("slow", List.of(
+            new Target("GET", "/sample/slow", null, 1)));
+
+    /**
+     * 처리 용량이 약 50 req/s 인 downstream 만 호출한다. --rate 100 으로 용량의 2 배 부하를 보내고
+     * --concurrency-limit 사용 여부에 따른 성공 응답의 latency 를 비교한다.
+     */
+    public static final Scenario OVERLOAD = new Scenario("overload", List.of(
+            new Target("GET", "/sample/downstream", null, 1)));
+
+    private static final Map<String, Scenario> BUILT_IN = List.of(MIXED, SLOW, OVERLOAD).stream()
+            .collect(Collectors.toUnmodifiableMap(Scenario::name, Function.identity()));
+
+    public Scenario {
+        Objects.requireNonNull(name, "name must not be null");
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("Scenario must have at least one target: " + name);
+        }
+        targets = List.copyOf(targets);
+    }
+
+    public static Scenario of(String name) {
+        Scenario scenario = BUILT_IN.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("Unknown scenario: " + name + " (available: " + BUILT_IN.keySet() + ")");
+        }
+        return scenario;
+    }
+
+    Target pick() {
+        if (targets.size() == 1) {
+            return targets.get(0);
+        }
+        int total = 0;
+        for (Target target : targets) {
+            total += target.weight();
+        }
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (Target target : targets) {
+            value -= target.weight();
+            if (value < 0) {
+                return target;
+            }
+        }
+        return targets.get(targets.size() - 1);
+    }
+
+}
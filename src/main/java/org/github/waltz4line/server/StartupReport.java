@@ -0,0 +1,85 @@
+package org.github.waltz4line.server;
+
+import org.github.waltz4line.server.jfr.StartupPhaseEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버 구동 단계별 소요 시간.
+ * {@link WebServerContext#initialize()} 부터 {@link WebServerContext#start()} 의 server 시작까지를 단계별로 기록한다.
+ * 각 단계는 JFR 이 기록 중이라면 {@link StartupPhaseEvent} 로도 남긴다.
+ */
+public final class StartupReport {
+
+    private final List<Phase> phases = new ArrayList<>();
+
+    private long startNanos;
+
+    private long totalNanos;
+
+    public synchronized void begin() {
+        phases.clear();
+        startNanos = System.nanoTime();
+        totalNanos = 0;
+    }
+
+    /**
+     * 단계를 실행하고 소요 시간을 기록한다.
+     */
+    public <E extends Exception> void record(String name, PhaseAction<E> action) throws E {
+        long phaseStart = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            addPhase(name, System.nanoTime() - phaseStart);
+        }
+    }
+
+    public synchronized void addPhase(String name, long durationNanos) {
+        phases.add(new Phase(name, durationNanos));
+        StartupPhaseEvent event = new StartupPhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = name;
+            event.elapsed = durationNanos;
+            event.commit();
+        }
+    }
+
+    public synchronized void complete() {
+        totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public synchronized List<Phase> phases() {
+        return Collections.unmodifiableList(new ArrayList<>(phases));
+    }
+
+    public synchronized long totalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("total=").append(totalMillis()).append("ms");
+        for (Phase phase : phases) {
+            builder.append(", ").append(phase.name()).append('=').append(phase.durationMillis()).append("ms");
+        }
+        return builder.toString();
+    }
+
+    public record Phase(String name, long durationNanos) {
+
+        public long durationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+    }
+
+    @FunctionalInterface
+    public interface PhaseAction<E extends Exception> {
+        void run() throws E;
+    }
+
+}
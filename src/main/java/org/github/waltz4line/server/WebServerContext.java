@@ -8,4 +8,23 @@ public interface WebServerContext {
 
     void start() throws ServerInitializeException, InterruptedException;
 
+    /**
+     * router 를 등록한다. initialize 이후에 호출하면 재시작 없이 endpoint 가 추가되며 OpenAPI 문서에도 반영된다.
+     *
+     * @throws IllegalArgumentException 이미 등록된 router 이거나 등록된 endpoint 와 method / path 가 겹치는 경우
+     */
+    void registerRouter(Object router);
+
+    /**
+     * 등록된 router 의 endpoint / filter 를 제거한다. 이미 처리 중인 요청은 제거 전 handler 로 완료된다.
+     *
+     * @throws IllegalArgumentException 등록되지 않은 router 인 경우
+     */
+    void unregisterRouter(Object router);
+
+    /**
+     * @return 구동 단계별 소요 시간. start 이후 server 가 시작되면 완료된다.
+     */
+    StartupReport startupReport();
+
 }
@@ -0,0 +1,30 @@
+package org.github.waltz4line.server.javalin;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * annotation endpoint 호출 전후에 동작하는 interceptor.
+ * endpoint 등록 시점에 해당 endpoint 에 필요한 interceptor 만 골라 하나의 {@link Handler} 로 합성한다.
+ * next 를 호출하지 않으면 이후 interceptor 및 endpoint 는 실행되지 않는다.
+ */
+@FunctionalInterface
+public interface EndpointInterceptor {
+
+    void intercept(Context ctx, Handler next) throws Exception;
+
+    static Handler chain(Handler endpoint, Iterable<? extends EndpointInterceptor> interceptors) {
+        Handler handler = endpoint;
+        Deque<EndpointInterceptor> reversed = new ArrayDeque<>();
+        interceptors.forEach(reversed::push);
+        for (EndpointInterceptor interceptor : reversed) {
+            Handler next = handler;
+            handler = ctx -> interceptor.intercept(ctx, next);
+        }
+        return handler;
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.github.waltz4line.server.javalin;
+
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+/**
+ * endpoint 등록 시점에 해당 endpoint 에 적용할 {@link EndpointInterceptor} 를 생성한다.
+ * 등록된 순서대로 바깥쪽부터 합성된다.
+ */
+@FunctionalInterface
+public interface EndpointInterceptorFactory {
+
+    /**
+     * @return 해당 endpoint 에 적용할 interceptor, 적용 대상이 아니라면 null
+     */
+    EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping);
+
+    /**
+     * 구동 중 router 가 제거되어 endpoint 가 더 이상 호출되지 않을 때 호출된다. endpoint 별로 보관하던 상태를 정리한다.
+     * (이미 처리 중인 요청은 제거 이후에도 interceptor 를 사용할 수 있다.)
+     */
+    default void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+    }
+
+}
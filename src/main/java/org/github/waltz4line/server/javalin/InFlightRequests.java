@@ -0,0 +1,59 @@
+package org.github.waltz4line.server.javalin;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * annotation endpoint 에서 처리 중인 요청 수를 추적한다.
+ * 요청 스레드 간 경합을 피하기 위해 {@link LongAdder} 를 사용하며,
+ * 종료 시 drain 단계에서 남은 요청이 모두 끝날 때까지 대기하는 용도로 사용된다.
+ */
+public final class InFlightRequests implements EndpointInterceptor {
+
+    private static final long DRAIN_POLL_INTERVAL_MILLIS = 10;
+
+    private final LongAdder inFlight = new LongAdder();
+
+    private volatile boolean draining;
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        inFlight.increment();
+        try {
+            next.handle(ctx);
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    public long count() {
+        return inFlight.sum();
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    void startDrain() {
+        this.draining = true;
+    }
+
+    /**
+     * 처리 중인 요청이 모두 끝나거나 timeout 이 지날 때까지 대기한다.
+     *
+     * @return timeout 이후에도 남아있는 요청 수 (모두 처리되었다면 0)
+     */
+    long awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = count();
+        while (remaining > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(DRAIN_POLL_INTERVAL_MILLIS);
+            remaining = count();
+        }
+        return Math.max(remaining, 0);
+    }
+
+}
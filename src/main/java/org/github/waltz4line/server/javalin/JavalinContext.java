@@ -1,34 +1,76 @@
 package org.github.waltz4line.server.javalin;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.Javalin;
 import io.javalin.config.JavalinConfig;
+import io.javalin.http.HandlerType;
 import io.javalin.http.HttpStatus;
 import io.javalin.http.RequestLogger;
 import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
 import io.javalin.openapi.plugin.OpenApiPlugin;
 import io.javalin.openapi.plugin.redoc.ReDocPlugin;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.github.waltz4line.server.StartupReport;
 import org.github.waltz4line.server.WebServerContext;
+import org.github.waltz4line.server.javalin.accesslog.BinaryAccessLogger;
+import org.github.waltz4line.server.javalin.auth.AuthStats;
+import org.github.waltz4line.server.javalin.auth.Authenticator;
+import org.github.waltz4line.server.javalin.auth.CredentialVerifier;
+import org.github.waltz4line.server.javalin.batch.BatchHandler;
+import org.github.waltz4line.server.javalin.batch.BatchStats;
+import org.github.waltz4line.server.javalin.bulkhead.BulkheadStats;
+import org.github.waltz4line.server.javalin.bulkhead.Bulkheads;
+import org.github.waltz4line.server.javalin.cache.CacheStats;
+import org.github.waltz4line.server.javalin.cache.CoalescingStats;
+import org.github.waltz4line.server.javalin.cache.RequestCoalescers;
+import org.github.waltz4line.server.javalin.cache.ResponseCaches;
+import org.github.waltz4line.server.javalin.concurrency.AdaptiveConcurrencyLimit;
+import org.github.waltz4line.server.javalin.concurrency.ConcurrencyLimitStats;
+import org.github.waltz4line.server.javalin.error.ErrorMappings;
 import org.github.waltz4line.server.javalin.error.JettyErrorHandler;
+import org.github.waltz4line.server.javalin.etag.ETagInterceptor;
 import org.github.waltz4line.server.javalin.error.ServerInitializeException;
 import org.github.waltz4line.server.javalin.event.AuthenticationHandler;
 import org.github.waltz4line.server.javalin.event.LifecycleEvent;
+import org.github.waltz4line.server.javalin.filter.EndpointFilters;
+import org.github.waltz4line.server.javalin.format.BinaryBodyJsonMapper;
+import org.github.waltz4line.server.javalin.format.ContentNegotiation;
+import org.github.waltz4line.server.javalin.jfr.FlightRecorderEvents;
+import org.github.waltz4line.server.javalin.json.CodecJsonMapper;
+import org.github.waltz4line.server.javalin.json.JsonCodec;
+import org.github.waltz4line.server.javalin.json.JsonCodecs;
+import org.github.waltz4line.server.javalin.json.JsonMappers;
+import org.github.waltz4line.server.javalin.json.JsonPrewarmer;
 import org.github.waltz4line.server.javalin.openapi.DynamicDefinitionProcessor;
-import org.github.waltz4line.server.router.RouterAnnotationHandler;
+import org.github.waltz4line.server.javalin.openapi.OpenApiDocumentHandler;
+import org.github.waltz4line.server.javalin.push.PushEndpoints;
+import org.github.waltz4line.server.javalin.push.Topics;
+import org.github.waltz4line.server.javalin.ratelimit.RateLimitInterceptor;
+import org.github.waltz4line.server.javalin.route.CopyOnWriteRouter;
+import org.github.waltz4line.server.javalin.timing.ServerTiming;
+import org.github.waltz4line.server.javalin.timing.TimingPhase;
+import org.github.waltz4line.server.javalin.timing.TimingStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class JavalinContext implements WebServerContext {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JavalinContext.class);
 
+    private static final String DEFAULT_OPENAPI_TITLE = "Javalin OpenAPI";
+
     private final AtomicReference<Javalin> app = new AtomicReference<>();
 
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
@@ -43,67 +85,242 @@ public class JavalinContext implements WebServerContext {
 
     private final RequestLogger requestLogger;
 
-    private final AuthenticationHandler authenticationHandler;
+    private final Authenticator authenticator;
+
+    private final List<ExecutorService> registeredSchedulers;
+
+    private final ErrorMappings errorMappings;
 
     private final DynamicDefinitionProcessor definitionProcessor;
 
+    private final InFlightRequests inFlightRequests = new InFlightRequests();
+
+    private final BinaryAccessLogger accessLogger;
+
+    private final ResponseCaches responseCaches = new ResponseCaches();
+
+    private final RequestCoalescers requestCoalescers = new RequestCoalescers();
+
+    private final JsonCodecs jsonCodecs;
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonPrewarmer jsonPrewarmer;
+
+    private final ContentNegotiation contentNegotiation;
+
+    private final ServerTiming serverTiming;
+
+    private final FlightRecorderEvents flightRecorderEvents;
+
+    private final PushEndpoints pushEndpoints;
+
+    private final Bulkheads bulkheads;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final StartupReport startupReport = new StartupReport();
+
+    private BatchHandler batchHandler;
+
+    private CopyOnWriteRouter internalRouter;
+
+    private String openApiDocumentationPath;
+
+    private volatile JavalinRouterMapper routerMapper;
+
     private JavalinContext(JavalinContextConfig javalinContextConfig,
                            LifecycleEvent preparingEvent,
                            LifecycleEvent serverStoppedEvent,
                            List<Object> registeredRouterInstances,
                            RequestLogger requestLogger,
-                           AuthenticationHandler authenticationHandler) {
+                           AuthenticationHandler authenticationHandler,
+                           CredentialVerifier credentialVerifier,
+                           List<ExecutorService> registeredSchedulers,
+                           ErrorMappings errorMappings,
+                           List<JsonCodec<?>> registeredJsonCodecs) {
         this.javalinContextConfig = javalinContextConfig;
         this.preparingEvent = preparingEvent;
         this.serverStoppedEvent = serverStoppedEvent;
         this.registeredRouterInstances = registeredRouterInstances;
         this.requestLogger = requestLogger;
-        this.authenticationHandler = authenticationHandler;
-        this.definitionProcessor = javalinContextConfig.enableOpenApi() ? new DynamicDefinitionProcessor() : null;
+        this.authenticator = new Authenticator(javalinContextConfig.auth() == null
+                ? JavalinContextConfig.JavalinAuth.DEFAULT : javalinContextConfig.auth(), credentialVerifier, authenticationHandler);
+        this.registeredSchedulers = registeredSchedulers;
+        this.errorMappings = errorMappings;
+        JavalinContextConfig.JavalinJson json = javalinContextConfig.json() == null
+                ? JavalinContextConfig.JavalinJson.DEFAULT : javalinContextConfig.json();
+        this.jsonCodecs = JsonCodecs.load(Thread.currentThread().getContextClassLoader(), registeredJsonCodecs);
+        this.objectMapper = JsonMappers.create(json, jsonCodecs);
+        this.jsonPrewarmer = json.prewarm() ? new JsonPrewarmer() : null;
+        this.pushEndpoints = new PushEndpoints(new Topics(objectMapper));
+        this.serverTiming = new ServerTiming(javalinContextConfig.timing());
+        this.bulkheads = new Bulkheads(javalinContextConfig.bulkhead());
+        this.concurrencyLimit = AdaptiveConcurrencyLimit.of(javalinContextConfig.concurrencyLimit());
+        this.flightRecorderEvents = new FlightRecorderEvents(javalinContextConfig.timing() != null
+                && javalinContextConfig.timing().flightRecorder(), errorMappings);
+        this.contentNegotiation = new ContentNegotiation(objectMapper, json.binaryFormats());
+        this.definitionProcessor = javalinContextConfig.enableOpenApi()
+                ? new DynamicDefinitionProcessor(objectMapper, contentNegotiation.mediaTypes()) : null;
+        this.accessLogger = javalinContextConfig.accessLog() != null && javalinContextConfig.accessLog().enable()
+                ? new BinaryAccessLogger(javalinContextConfig.accessLog()) : null;
     }
 
     @Override
     public void initialize() throws ServerInitializeException {
+        startupReport.begin();
         try {
             if (preparingEvent != null) {
-                preparingEvent.handleEvent();
+                startupReport.record("preparingEvent", preparingEvent::handleEvent);
             }
         } catch (Exception e) {
             throw new ServerInitializeException("Failed to preparing context ... ", e);
         }
 
+        long createStart = System.nanoTime();
         Javalin javalinApp = Javalin.create(config -> {
+            JavalinContextConfig.JavalinRouter router = javalinContextConfig.router();
+            internalRouter = CopyOnWriteRouter.install(config, router != null && router.radixTree());
             configureRequestLogger(config);
             configureCors(config);
             configureRoutes(config);
-            config.jetty.modifyServer(server -> server.setErrorHandler(new JettyErrorHandler()));
-            config.jsonMapper(new JavalinJackson()
-                    .updateMapper(mapper -> mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL)));
             configureOpenApi(config);
+            config.jetty.modifyServer(server -> server.setErrorHandler(new JettyErrorHandler()));
+            JavalinJackson javalinJackson = new JavalinJackson(objectMapper, false);
+            JsonMapper jsonMapper = jsonCodecs.isEmpty() ? javalinJackson : new CodecJsonMapper(javalinJackson, jsonCodecs);
+            config.jsonMapper(contentNegotiation.isEnabled() ? new BinaryBodyJsonMapper(jsonMapper) : jsonMapper);
         });
+        startupReport.addPhase("javalinCreate", System.nanoTime() - createStart);
+        if (openApiDocumentationPath != null) {
+            internalRouter.decorateHttpEndpoint(HandlerType.GET, openApiDocumentationPath,
+                    pluginHandler -> new OpenApiDocumentHandler(pluginHandler, definitionProcessor));
+        }
 
-        javalinApp.before(authenticationHandler::handle);
         javalinApp.after(ctx -> {
             ctx.header("Server", " ");
             ctx.header("X-Content-Type-Options", "nosniff");
             ctx.header("X-Frame-Options", "DENY");
             ctx.header("X-XSS-Protection", "1; mode=block");
+            if (inFlightRequests.isDraining()) {
+                ctx.header("Connection", "close");
+            }
         });
+        javalinApp.exception(Exception.class, errorMappings);
         javalinApp.error(HttpStatus.NOT_FOUND, ctx -> {});
-        RouterAnnotationHandler.handle(registeredRouterInstances,
-                new JavalinRouterMapper(javalinApp, definitionProcessor));
+        configureReadiness(javalinApp);
+        configureBatch(javalinApp);
+        EndpointFilters endpointFilters = new EndpointFilters(javalinApp.unsafeConfig().router);
+        JavalinRouterMapper mapper = new JavalinRouterMapper(javalinApp, internalRouter, definitionProcessor, accessLogger, pushEndpoints,
+                authenticator, endpointFilters, jsonPrewarmer, serverTiming, flightRecorderEvents, interceptorFactories(endpointFilters));
+        startupReport.record("routerScan", () -> registeredRouterInstances.forEach(mapper::register));
+        mapper.initialized();
+        routerMapper = mapper;
+        if (jsonPrewarmer != null) {
+            startupReport.record("jsonPrewarm", () -> LOGGER.debug("Prewarmed JSON serializers for {} types",
+                    jsonPrewarmer.prewarm(objectMapper)));
+        }
 
         app.set(javalinApp);
         registerShutdownHook();
     }
 
+    /*
+     * initialize 이전이라면 initialize 시점에 등록된다.
+     */
+    @Override
+    public void registerRouter(Object router) {
+        Objects.requireNonNull(router, "router must not be null");
+        JavalinRouterMapper mapper = routerMapper;
+        if (mapper == null) {
+            registeredRouterInstances.add(router);
+            return;
+        }
+        mapper.register(router);
+        if (jsonPrewarmer != null) {
+            jsonPrewarmer.prewarm(objectMapper);
+        }
+        LOGGER.info("Router registered: {}", router.getClass().getName());
+    }
+
+    @Override
+    public void unregisterRouter(Object router) {
+        Objects.requireNonNull(router, "router must not be null");
+        JavalinRouterMapper mapper = routerMapper;
+        if (mapper == null) {
+            if (!registeredRouterInstances.removeIf(registered -> registered == router)) {
+                throw new IllegalArgumentException("Router is not registered: " + router.getClass().getName());
+            }
+            return;
+        }
+        mapper.unregister(router);
+        LOGGER.info("Router unregistered: {}", router.getClass().getName());
+    }
+
+    /**
+     * @return endpointId 별 {@link org.github.waltz4line.server.router.annotation.Cached} 응답 캐시 통계
+     */
+    public Map<String, CacheStats> responseCacheStats() {
+        return responseCaches.stats();
+    }
+
+    /**
+     * @return endpointId 별 {@link org.github.waltz4line.server.router.annotation.Coalesced} 요청 병합 통계
+     */
+    public Map<String, CoalescingStats> coalescingStats() {
+        return requestCoalescers.stats();
+    }
+
+    /**
+     * @return credential 검증 캐시 및 검증 시간 통계
+     */
+    public AuthStats authStats() {
+        return authenticator.stats();
+    }
+
+    /**
+     * @return endpointId 별 요청 처리 구간 통계. instrumentation 이 비활성화 되어 있다면 비어 있다.
+     */
+    public Map<String, Map<TimingPhase, TimingStats>> timingStats() {
+        return serverTiming.stats();
+    }
+
+    /**
+     * @return tag 또는 endpointId 별 bulkhead 사용 현황. (key 형식은 {@link Bulkheads#stats()} 참고)
+     */
+    public Map<String, BulkheadStats> bulkheadStats() {
+        return bulkheads.stats();
+    }
+
+    /**
+     * @return 적응형 동시 실행 수 제한 현황. 사용하지 않는다면 null
+     */
+    public ConcurrencyLimitStats concurrencyLimitStats() {
+        return concurrencyLimit == null ? null : concurrencyLimit.stats();
+    }
+
+    /**
+     * @return batch endpoint 처리 통계. batch endpoint 를 사용하지 않는다면 null
+     */
+    public BatchStats batchStats() {
+        return batchHandler == null ? null : batchHandler.stats();
+    }
+
+    /**
+     * @return WebSocket / SSE endpoint 의 topic broadcast API
+     */
+    public Topics topics() {
+        return pushEndpoints.topics();
+    }
+
     @Override
     public void start() throws ServerInitializeException {
         if (app.get() == null) {
             throw new ServerInitializeException("Javalin context has not been initialized");
         }
 
-        app.get().start(javalinContextConfig.port());
+        startupReport.record("jettyStart", () -> app.get().start(javalinContextConfig.port()));
+        startupReport.complete();
+        LOGGER.info("Startup report: {}", startupReport);
 
         try {
             shutdownLatch.await();
@@ -112,37 +329,169 @@ public class JavalinContext implements WebServerContext {
         }
     }
 
+    @Override
+    public StartupReport startupReport() {
+        return startupReport;
+    }
+
+    private List<EndpointInterceptorFactory> interceptorFactories(EndpointFilters endpointFilters) {
+        JavalinContextConfig.JavalinRateLimit rateLimit = javalinContextConfig.rateLimit() == null
+                ? JavalinContextConfig.JavalinRateLimit.DEFAULT : javalinContextConfig.rateLimit();
+        return List.of(
+                serverTiming,
+                flightRecorderEvents,
+                (handlerType, requestMapping) -> inFlightRequests,
+                concurrencyLimit != null ? concurrencyLimit : (handlerType, requestMapping) -> null,
+                RateLimitInterceptor.factory(rateLimit.maxKeys()),
+                serverTiming.timed(TimingPhase.AUTH, authenticator),
+                contentNegotiation,
+                serverTiming.timed(TimingPhase.FILTER, endpointFilters),
+                ETagInterceptor.factory(),
+                responseCaches,
+                requestCoalescers,
+                serverTiming.timed(TimingPhase.BULKHEAD, bulkheads));
+    }
+
     private void registerShutdownHook() {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            shutdownLatch.countDown();
             try {
-                if (app.get() != null) {
-                    app.get().stop();
-                }
-
-                if (serverStoppedEvent != null) {
-                    serverStoppedEvent.handleEvent();
-                }
+                drainAndStop();
             } catch (Exception e) {
                 LOGGER.warn("Error occurred while shutting down Javalin context.", e);
+            } finally {
+                shutdownLatch.countDown();
             }
         }));
     }
 
+    /*
+     * 종료 순서
+     *  1. readiness 실패 처리 (신규 트래픽 유입 차단 요청)
+     *  2. connector 를 닫아 신규 connection 수락 중지
+     *  3. 처리 중인 요청이 끝날 때까지 drainTimeout 만큼 대기
+     *  4. 등록된 scheduler pool 을 등록 순서대로 종료
+     *  5. Javalin 종료 후 serverStoppedEvent 호출
+     */
+    private void drainAndStop() throws InterruptedException {
+        JavalinContextConfig.JavalinShutdown shutdown = javalinContextConfig.shutdown() == null
+                ? JavalinContextConfig.JavalinShutdown.DEFAULT : javalinContextConfig.shutdown();
+        long drainStart = System.nanoTime();
+        inFlightRequests.startDrain();
+        LOGGER.info("Shutdown requested. readiness failed, in-flight requests: {}", inFlightRequests.count());
+
+        Javalin javalinApp = app.get();
+        if (javalinApp != null) {
+            if (shutdown.readinessGraceMillis() > 0) {
+                Thread.sleep(shutdown.readinessGraceMillis());
+            }
+            closeConnectors(javalinApp);
+            long dropped = inFlightRequests.awaitDrained(shutdown.drainTimeoutMillis(), TimeUnit.MILLISECONDS);
+            long drainMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart);
+            if (dropped > 0) {
+                LOGGER.warn("Drain timed out after {} ms. dropped in-flight requests: {}", drainMillis, dropped);
+            } else {
+                LOGGER.info("Drain completed in {} ms.", drainMillis);
+            }
+        }
+
+        if (batchHandler != null) {
+            batchHandler.close();
+        }
+        shutdownSchedulers(shutdown.drainTimeoutMillis());
+
+        if (javalinApp != null) {
+            javalinApp.stop();
+        }
+        pushEndpoints.close();
+
+        if (accessLogger != null) {
+            accessLogger.close();
+        }
+
+        if (serverStoppedEvent != null) {
+            serverStoppedEvent.handleEvent();
+        }
+    }
+
+    private void closeConnectors(Javalin javalinApp) {
+        for (Connector connector : javalinApp.jettyServer().server().getConnectors()) {
+            if (connector instanceof NetworkConnector networkConnector) {
+                networkConnector.close();
+            }
+        }
+    }
+
+    private void shutdownSchedulers(long timeoutMillis) throws InterruptedException {
+        for (ExecutorService scheduler : registeredSchedulers) {
+            scheduler.shutdown();
+            if (!scheduler.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Scheduler {} did not terminate in {} ms.", scheduler, timeoutMillis);
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    /*
+     * 하위 요청은 Javalin servlet 으로 직접 전달되어 일반 요청과 같은 처리 과정을 거친다.
+     */
+    private void configureBatch(Javalin javalinApp) {
+        JavalinContextConfig.JavalinBatch batch = javalinContextConfig.batch();
+        if (batch == null || !batch.enable()) {
+            return;
+        }
+        batchHandler = new BatchHandler(javalinApp.javalinServlet(), objectMapper, batch);
+        javalinApp.post(batch.path(), batchHandler);
+    }
+
+    private void configureReadiness(Javalin javalinApp) {
+        JavalinContextConfig.JavalinShutdown shutdown = javalinContextConfig.shutdown();
+        if (shutdown == null || shutdown.readinessPath() == null) {
+            return;
+        }
+        javalinApp.get(shutdown.readinessPath(), ctx -> ctx.status(inFlightRequests.isDraining()
+                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK));
+    }
+
+    /*
+     * plugin 은 구동 시 handler 만 등록하며, OpenAPI 문서는 첫 문서 요청 시점에 plugin 이 생성한다.
+     * (annotation processor 가 생성한 문서에 DynamicDefinitionProcessor 가 annotation endpoint 를 추가한다.)
+     */
     private void configureOpenApi(JavalinConfig config) {
-        if (javalinContextConfig.enableOpenApi()) {
-            config.registerPlugin(new OpenApiPlugin(pluginConfig -> {
-                pluginConfig.withDefinitionConfiguration((version, definition) -> {
-                    definition.withInfo(info -> info.setTitle("Javalin OpenAPI"));
-                    definition.withDefinitionProcessor(definitionProcessor);
-                });
-            }));
-            config.registerPlugin(new ReDocPlugin());
+        if (!javalinContextConfig.enableOpenApi()) {
+            return;
         }
+        JavalinContextConfig.JavalinOpenApi openApi = javalinContextConfig.openApi();
+        String title = openApi != null && openApi.title() != null ? openApi.title() : DEFAULT_OPENAPI_TITLE;
+        config.registerPlugin(new OpenApiPlugin(pluginConfig -> {
+            openApiDocumentationPath = pluginConfig.documentationPath;
+            pluginConfig.withDefinitionConfiguration((version, definition) -> {
+                definition.withInfo(info -> {
+                    info.setTitle(title);
+                    if (openApi != null && openApi.version() != null) {
+                        info.setVersion(openApi.version());
+                    }
+                });
+                definition.withDefinitionProcessor(definitionProcessor);
+            });
+        }));
+        config.registerPlugin(new ReDocPlugin(reDoc -> {
+            reDoc.setTitle(title);
+            reDoc.setDocumentationPath(openApiDocumentationPath);
+        }));
     }
 
     private void configureRequestLogger(JavalinConfig config) {
-        if (requestLogger != null) {
+        if (accessLogger != null) {
+            accessLogger.start();
+            if (requestLogger != null) {
+                config.requestLogger.http((ctx, executionTimeMs) -> {
+                    accessLogger.handle(ctx, executionTimeMs);
+                    requestLogger.handle(ctx, executionTimeMs);
+                });
+            } else {
+                config.requestLogger.http(accessLogger);
+            }
+        } else if (requestLogger != null) {
             config.requestLogger.http(requestLogger);
         }
     }
@@ -199,6 +548,14 @@ public class JavalinContext implements WebServerContext {
 
         private AuthenticationHandler authenticationHandler = AuthenticationHandler.NOOP;
 
+        private CredentialVerifier credentialVerifier;
+
+        private final List<ExecutorService> registeredSchedulers = new ArrayList<>();
+
+        private final ErrorMappings errorMappings = new ErrorMappings();
+
+        private final List<JsonCodec<?>> registeredJsonCodecs = new ArrayList<>();
+
         public Builder(JavalinContextConfig config) {
             this.config = config;
         }
@@ -233,8 +590,44 @@ public class JavalinContext implements WebServerContext {
             this.authenticationHandler = authenticationHandler;
         }
 
+        /**
+         * {@link org.github.waltz4line.server.router.annotation.Auth} 로 인증이 필요한 endpoint 의 credential 을 검증할 verifier 를 등록한다.
+         * 검증 결과는 설정 (auth) 에 따라 캐시된다.
+         */
+        public void registerCredentialVerifier(CredentialVerifier credentialVerifier) {
+            Objects.requireNonNull(credentialVerifier, "credentialVerifier must not be null");
+            this.credentialVerifier = credentialVerifier;
+        }
+
+        /**
+         * endpoint 에서 발생한 예외 class (및 하위 class) 를 고정된 에러 응답으로 mapping 한다.
+         * mapping 되지 않은 예외는 500 으로 응답한다.
+         */
+        public void registerErrorMapping(Class<? extends Exception> type, HttpStatus status, String errorCode, String errorDescription) {
+            Objects.requireNonNull(status, "status must not be null");
+            errorMappings.register(type, status, errorCode, errorDescription);
+        }
+
+        /**
+         * {@link JsonCodec#type()} class 를 Jackson 대신 codec 으로 읽고 쓴다.
+         * ServiceLoader 로 등록된 codec ({@link org.github.waltz4line.server.javalin.json.GenerateJsonCodec}) 보다 우선한다.
+         */
+        public void registerJsonCodec(JsonCodec<?> codec) {
+            Objects.requireNonNull(codec, "codec must not be null");
+            registeredJsonCodecs.add(codec);
+        }
+
+        /**
+         * 종료 시 drain 이후 등록 순서대로 종료할 scheduler pool 을 등록한다.
+         */
+        public void registerScheduler(ExecutorService scheduler) {
+            Objects.requireNonNull(scheduler, "scheduler must not be null");
+            registeredSchedulers.add(scheduler);
+        }
+
         public WebServerContext build() {
-            return new JavalinContext(config, preparingEvent, serverStoppedEvent, registeredRouterInstances, requestLogger, authenticationHandler);
+            return new JavalinContext(config, preparingEvent, serverStoppedEvent, registeredRouterInstances, requestLogger,
+                    authenticationHandler, credentialVerifier, registeredSchedulers, errorMappings, registeredJsonCodecs);
         }
 
     }
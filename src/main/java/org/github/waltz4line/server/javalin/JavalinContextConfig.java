@@ -1,9 +1,14 @@
 package org.github.waltz4line.server.javalin;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.github.waltz4line.server.javalin.format.BinaryFormat;
+import org.github.waltz4line.server.javalin.json.BufferRecycling;
+import org.github.waltz4line.server.router.annotation.AuthMode;
 
 import java.util.List;
+import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record JavalinContextConfig(@JsonProperty(required = true)
@@ -12,18 +17,70 @@ public record JavalinContextConfig(@JsonProperty(required = true)
                                    JavalinCors cors,
                                    @JsonProperty(defaultValue = "false")
                                    boolean enableOpenApi,
-                                   JavalinOpenApi openApi) {
+                                   JavalinOpenApi openApi,
+                                   JavalinShutdown shutdown,
+                                   JavalinAccessLog accessLog,
+                                   JavalinRateLimit rateLimit,
+                                   JavalinAuth auth,
+                                   JavalinJson json,
+                                   JavalinBatch batch,
+                                   JavalinTiming timing,
+                                   JavalinBulkhead bulkhead,
+                                   JavalinConcurrencyLimit concurrencyLimit) {
 
-    public record JavalinRouter(@JsonProperty(defaultValue = "/")
-                                String contextPath,
-                                @JsonProperty(defaultValue = "true")
+    /*
+     * 설정 항목이 추가되기 전의 생성자. 추가된 항목은 설정하지 않은 것 (null) 으로 처리한다.
+     */
+    public JavalinContextConfig(int port, JavalinRouter router, JavalinCors cors, boolean enableOpenApi, JavalinOpenApi openApi) {
+        this(port, router, cors, enableOpenApi, openApi, null, null, null, null, null, null, null, null, null);
+    }
+
+    public static Builder builder(int port) {
+        return new Builder(port);
+    }
+
+    /**
+     * 설정 파일에서 읽을 때 ignoreTrailingSlash, treatMultipleSlashesAsSingleSlash 가 없다면 true 로 설정한다. ({@link #of})
+     *
+     * @param contextPath                       없다면 /
+     * @param radixTree                         annotation endpoint 를 포함한 HTTP endpoint 조회에 radix tree 를 사용할지 여부. (endpoint 마다 정규식을 비교하지 않는다.)
+     */
+    public record JavalinRouter(String contextPath,
                                 boolean ignoreTrailingSlash,
-                                @JsonProperty(defaultValue = "true")
                                 boolean treatMultipleSlashesAsSingleSlash,
-                                @JsonProperty(defaultValue = "false")
                                 boolean caseInsensitiveRoutes,
-                                @JsonProperty(defaultValue = "false")
-                                boolean enableRouteOverview) {
+                                boolean enableRouteOverview,
+                                boolean radixTree) {
+
+        public JavalinRouter {
+            if (contextPath == null || contextPath.isBlank()) {
+                contextPath = "/";
+            }
+        }
+
+        /*
+         * radixTree 가 추가되기 전의 생성자. radix tree 를 사용하지 않는다.
+         */
+        public JavalinRouter(String contextPath, boolean ignoreTrailingSlash, boolean treatMultipleSlashesAsSingleSlash,
+                             boolean caseInsensitiveRoutes, boolean enableRouteOverview) {
+            this(contextPath, ignoreTrailingSlash, treatMultipleSlashesAsSingleSlash, caseInsensitiveRoutes, enableRouteOverview, false);
+        }
+
+        /*
+         * Jackson 용 factory. 생략된 값을 구분하기 위해 boxed type 으로 받는다.
+         */
+        @JsonCreator
+        private static JavalinRouter of(@JsonProperty("contextPath") String contextPath,
+                                        @JsonProperty("ignoreTrailingSlash") Boolean ignoreTrailingSlash,
+                                        @JsonProperty("treatMultipleSlashesAsSingleSlash") Boolean treatMultipleSlashesAsSingleSlash,
+                                        @JsonProperty("caseInsensitiveRoutes") boolean caseInsensitiveRoutes,
+                                        @JsonProperty("enableRouteOverview") boolean enableRouteOverview,
+                                        @JsonProperty("radixTree") boolean radixTree) {
+            return new JavalinRouter(contextPath, ignoreTrailingSlash == null || ignoreTrailingSlash,
+                    treatMultipleSlashesAsSingleSlash == null || treatMultipleSlashesAsSingleSlash,
+                    caseInsensitiveRoutes, enableRouteOverview, radixTree);
+        }
+
     }
 
     public record JavalinCors(boolean enableCors,
@@ -34,4 +91,389 @@ public record JavalinContextConfig(@JsonProperty(required = true)
     public record JavalinOpenApi(String title, String version) {
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 종료 시 drain 단계 설정
+     *
+     * @param readinessPath        readiness 확인용 path. 설정 시 drain 단계에 들어가면 503 을 응답한다.
+     * @param readinessGraceMillis readiness 실패 후 connector 를 닫기 전까지 대기 시간 (load balancer 반영 대기)
+     * @param drainTimeoutMillis   처리 중인 요청이 끝나기를 기다리는 최대 시간. 0 이하라면 30초
+     */
+    public record JavalinShutdown(String readinessPath,
+                                  long readinessGraceMillis,
+                                  long drainTimeoutMillis) {
+
+        public static final JavalinShutdown DEFAULT = new JavalinShutdown(null, 0, 30_000);
+
+        public JavalinShutdown {
+            readinessGraceMillis = Math.max(0, readinessGraceMillis);
+            if (drainTimeoutMillis <= 0) {
+                drainTimeoutMillis = 30_000;
+            }
+        }
+
+    }
+
+    /**
+     * binary access log 설정
+     *
+     * @param directory           access log 파일 저장 경로. 기본값 logs/access
+     * @param bufferSize          ring buffer 크기 (2의 거듭제곱으로 올림). 가득 차면 레코드를 버린다. 기본값 65536
+     * @param maxFileBytes        파일 하나의 최대 크기 (최소 64KiB). 초과 시 rotation. 기본값 64MiB
+     * @param maxFiles            보관할 최대 파일 수. 기본값 10
+     * @param flushIntervalMillis mmap 영역을 디스크에 반영하는 주기. 기본값 1000
+     * @param sampleRate          기본 sampling rate (0.0 ~ 1.0). 기본값 1.0
+     * @param endpointSampleRates endpointId 별 sampling rate
+     */
+    public record JavalinAccessLog(boolean enable,
+                                   String directory,
+                                   int bufferSize,
+                                   long maxFileBytes,
+                                   int maxFiles,
+                                   long flushIntervalMillis,
+                                   Double sampleRate,
+                                   Map<String, Double> endpointSampleRates) {
+
+        public JavalinAccessLog {
+            if (directory == null || directory.isBlank()) {
+                directory = "logs/access";
+            }
+            if (bufferSize <= 0) {
+                bufferSize = 65_536;
+            }
+            if (maxFileBytes <= 0) {
+                maxFileBytes = 64L * 1024 * 1024;
+            }
+            if (maxFiles <= 0) {
+                maxFiles = 10;
+            }
+            if (flushIntervalMillis <= 0) {
+                flushIntervalMillis = 1_000;
+            }
+            sampleRate = sampleRate == null ? 1.0 : Math.max(0.0, Math.min(1.0, sampleRate));
+        }
+
+        public JavalinAccessLog(boolean enable) {
+            this(enable, null, 0, 0, 0, 0, null, null);
+        }
+
+    }
+
+    /**
+     * rate limit 설정
+     *
+     * @param maxKeys CLIENT_IP / HEADER 단위 rate limit 사용 시 endpoint 별로 보관할 최대 bucket 수. 0 이하라면 10000
+     */
+    public record JavalinRateLimit(int maxKeys) {
+
+        public static final JavalinRateLimit DEFAULT = new JavalinRateLimit(10_000);
+
+        public JavalinRateLimit {
+            if (maxKeys <= 0) {
+                maxKeys = 10_000;
+            }
+        }
+
+    }
+
+    /**
+     * 인증 설정
+     *
+     * @param header          credential 을 읽을 header 이름. 없다면 Authorization
+     * @param defaultMode     {@link org.github.waltz4line.server.router.annotation.Auth} 를 선언하지 않은 endpoint 의 인증 방식. 없다면 REQUIRED
+     * @param cacheTtlMillis  검증된 credential 을 캐시하는 최대 시간. 0 이면 캐시하지 않으며, 없다면 60초
+     * @param cacheMaxEntries 캐시할 최대 credential 수. 0 이하라면 10000
+     */
+    public record JavalinAuth(String header,
+                              AuthMode defaultMode,
+                              Long cacheTtlMillis,
+                              int cacheMaxEntries) {
+
+        public static final JavalinAuth DEFAULT = new JavalinAuth(null, null, null, 0);
+
+        public JavalinAuth {
+            if (header == null || header.isBlank()) {
+                header = "Authorization";
+            }
+            if (defaultMode == null) {
+                defaultMode = AuthMode.REQUIRED;
+            }
+            cacheTtlMillis = cacheTtlMillis == null ? 60_000L : Math.max(0L, cacheTtlMillis);
+            if (cacheMaxEntries <= 0) {
+                cacheMaxEntries = 10_000;
+            }
+        }
+
+    }
+
+    /**
+     * JSON mapper 설정. endpoint 응답, push message, OpenAPI 문서가 같은 mapper 를 사용한다.
+     *
+     * @param blackbird              jackson-module-blackbird 를 등록할지 여부. (reflection 대신 생성된 accessor 사용) 없다면 true
+     * @param canonicalizeFieldNames 읽은 field 이름을 symbol table 로 재사용할지 여부. 없다면 true
+     * @param internFieldNames       canonicalize 된 field 이름을 String.intern 할지 여부. 없다면 false
+     * @param bufferRecycling        parser / generator buffer 재사용 방식. 없다면 THREAD_LOCAL
+     * @param prewarm                구동 시점에 requestBody / responseBody class 의 serializer / deserializer 를 미리 생성할지 여부. 없다면 true
+     * @param binaryFormats          Accept / Content-Type 으로 선택할 수 있는 binary format. 해당 Jackson data format module 이 classpath 에 있어야 한다.
+     */
+    public record JavalinJson(Boolean blackbird,
+                              Boolean canonicalizeFieldNames,
+                              Boolean internFieldNames,
+                              BufferRecycling bufferRecycling,
+                              Boolean prewarm,
+                              List<BinaryFormat> binaryFormats) {
+
+        public static final JavalinJson DEFAULT = new JavalinJson(null, null, null, null, null, null);
+
+        public JavalinJson {
+            blackbird = blackbird == null || blackbird;
+            canonicalizeFieldNames = canonicalizeFieldNames == null || canonicalizeFieldNames;
+            internFieldNames = internFieldNames != null && internFieldNames;
+            if (bufferRecycling == null) {
+                bufferRecycling = BufferRecycling.THREAD_LOCAL;
+            }
+            prewarm = prewarm == null || prewarm;
+            binaryFormats = binaryFormats == null ? List.of() : List.copyOf(binaryFormats);
+        }
+
+    }
+
+    /**
+     * batch endpoint 설정
+     *
+     * @param enable        batch endpoint 를 등록할지 여부
+     * @param path          batch endpoint path (POST). 없다면 /batch
+     * @param maxRequests   batch 하나에 포함할 수 있는 최대 요청 수. 0 이하라면 20
+     * @param timeoutMillis batch 전체의 최대 처리 시간. 초과한 하위 요청은 504 로 응답한다. 0 이하라면 10초
+     * @param parallelism   하위 요청을 병렬로 실행할 thread 수. 1 이하라면 순서대로 실행하며, 없다면 4
+     */
+    public record JavalinBatch(boolean enable,
+                               String path,
+                               int maxRequests,
+                               long timeoutMillis,
+                               Integer parallelism) {
+
+        public JavalinBatch {
+            if (path == null || path.isBlank()) {
+                path = "/batch";
+            }
+            if (maxRequests <= 0) {
+                maxRequests = 20;
+            }
+            if (timeoutMillis <= 0) {
+                timeoutMillis = 10_000;
+            }
+            if (parallelism == null) {
+                parallelism = 4;
+            }
+        }
+
+        public JavalinBatch(boolean enable) {
+            this(enable, null, 0, 0, null);
+        }
+
+    }
+
+    /**
+     * 요청 처리 구간 측정 설정. 비활성화 시 측정 비용은 없다.
+     *
+     * @param enable         구간별 소요 시간을 측정하여 endpointId 별 histogram 에 기록할지 여부
+     * @param header         측정 결과를 Server-Timing 응답 header 로 전달할지 여부. 없다면 true
+     * @param flightRecorder endpoint / filter 실행을 JFR event 로 기록할지 여부. (enable 과 무관하게 동작하며, threshold 는 JFR 설정을 따른다)
+     */
+    public record JavalinTiming(boolean enable,
+                                Boolean header,
+                                boolean flightRecorder) {
+
+        public JavalinTiming {
+            header = header == null || header;
+        }
+
+        public JavalinTiming(boolean enable) {
+            this(enable, null, false);
+        }
+
+    }
+
+    /**
+     * bulkhead 설정. 느려진 endpoint 가 Jetty thread 를 모두 점유하지 않도록 동시 실행 수를 제한한다.
+     *
+     * @param tags      {@link org.github.waltz4line.server.router.annotation.Router} tag 별 bulkhead. 같은 tag 의 endpoint 가 공유한다.
+     * @param endpoints endpointId 별 bulkhead. tag 설정보다 우선한다.
+     */
+    public record JavalinBulkhead(Map<String, Limit> tags,
+                                  Map<String, Limit> endpoints) {
+
+        /**
+         * @param maxConcurrent 동시에 실행할 수 있는 최대 요청 수
+         * @param maxWaiting    permit 을 기다릴 수 있는 최대 요청 수. 초과한 요청은 바로 503 으로 응답한다.
+         * @param maxWaitMillis permit 을 기다리는 최대 시간. 초과 시 503 으로 응답한다.
+         */
+        public record Limit(@JsonProperty(required = true)
+                            int maxConcurrent,
+                            @JsonProperty(defaultValue = "0")
+                            int maxWaiting,
+                            @JsonProperty(defaultValue = "0")
+                            long maxWaitMillis) {
+        }
+
+    }
+
+    /**
+     * 적응형 동시 실행 수 제한 설정. 응답 시간을 관측해 annotation endpoint 전체의 동시 실행 수 limit 을 조정하고,
+     * limit 을 넘는 요청은 503 과 Retry-After 로 응답한다. OpenAPI 문서, readiness 등 내장 endpoint 는 제한하지 않는다.
+     *
+     * @param initialLimit         첫 minRtt 측정 이후의 시작 limit. 0 이하라면 20
+     * @param minLimit             limit 의 최소값. 0 이하라면 4
+     * @param maxLimit             limit 의 최대값. 0 이하라면 1000
+     * @param windowMillis         limit 을 다시 계산하는 주기. 0 이하라면 100
+     * @param minRttIntervalMillis limit 을 minLimit 으로 낮춰 기준 응답 시간 (minRtt) 을 다시 측정하는 주기. 0 이하라면 60초
+     * @param retryAfterSeconds    거절 응답의 Retry-After (초). 0 이하라면 1
+     * @param exempt               제한하지 않을 {@link org.github.waltz4line.server.router.annotation.Router} tag 또는 endpointId (health check 등)
+     */
+    public record JavalinConcurrencyLimit(boolean enable,
+                                          int initialLimit,
+                                          int minLimit,
+                                          int maxLimit,
+                                          long windowMillis,
+                                          long minRttIntervalMillis,
+                                          int retryAfterSeconds,
+                                          List<String> exempt) {
+
+        public JavalinConcurrencyLimit {
+            if (initialLimit <= 0) {
+                initialLimit = 20;
+            }
+            if (minLimit <= 0) {
+                minLimit = 4;
+            }
+            if (maxLimit <= 0) {
+                maxLimit = 1_000;
+            }
+            if (windowMillis <= 0) {
+                windowMillis = 100;
+            }
+            if (minRttIntervalMillis <= 0) {
+                minRttIntervalMillis = 60_000;
+            }
+            if (retryAfterSeconds <= 0) {
+                retryAfterSeconds = 1;
+            }
+            exempt = exempt == null ? List.of() : List.copyOf(exempt);
+        }
+
+        public JavalinConcurrencyLimit(boolean enable) {
+            this(enable, 0, 0, 0, 0, 0, 0, null);
+        }
+
+    }
+
+    /**
+     * 코드로 설정을 만들 때 사용한다. 설정하지 않은 항목은 null 이며 각 기능의 기본값을 따른다.
+     */
+    public static final class Builder {
+
+        private final int port;
+
+        private JavalinRouter router;
+
+        private JavalinCors cors;
+
+        private boolean enableOpenApi;
+
+        private JavalinOpenApi openApi;
+
+        private JavalinShutdown shutdown;
+
+        private JavalinAccessLog accessLog;
+
+        private JavalinRateLimit rateLimit;
+
+        private JavalinAuth auth;
+
+        private JavalinJson json;
+
+        private JavalinBatch batch;
+
+        private JavalinTiming timing;
+
+        private JavalinBulkhead bulkhead;
+
+        private JavalinConcurrencyLimit concurrencyLimit;
+
+        private Builder(int port) {
+            this.port = port;
+        }
+
+        public Builder router(JavalinRouter router) {
+            this.router = router;
+            return this;
+        }
+
+        public Builder cors(JavalinCors cors) {
+            this.cors = cors;
+            return this;
+        }
+
+        public Builder enableOpenApi(boolean enableOpenApi) {
+            this.enableOpenApi = enableOpenApi;
+            return this;
+        }
+
+        public Builder openApi(JavalinOpenApi openApi) {
+            this.openApi = openApi;
+            return this;
+        }
+
+        public Builder shutdown(JavalinShutdown shutdown) {
+            this.shutdown = shutdown;
+            return this;
+        }
+
+        public Builder accessLog(JavalinAccessLog accessLog) {
+            this.accessLog = accessLog;
+            return this;
+        }
+
+        public Builder rateLimit(JavalinRateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        public Builder auth(JavalinAuth auth) {
+            this.auth = auth;
+            return this;
+        }
+
+        public Builder json(JavalinJson json) {
+            this.json = json;
+            return this;
+        }
+
+        public Builder batch(JavalinBatch batch) {
+            this.batch = batch;
+            return this;
+        }
+
+        public Builder timing(JavalinTiming timing) {
+            this.timing = timing;
+            return this;
+        }
+
+        public Builder bulkhead(JavalinBulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+            return this;
+        }
+
+        public Builder concurrencyLimit(JavalinConcurrencyLimit concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        public JavalinContextConfig build() {
+            return new JavalinContextConfig(port, router, cors, enableOpenApi, openApi, shutdown, accessLog, rateLimit, auth,
+                    json, batch, timing, bulkhead, concurrencyLimit);
+        }
+
+    }
+}
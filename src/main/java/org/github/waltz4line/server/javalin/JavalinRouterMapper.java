@@ -1,67 +1,266 @@
 package org.github.waltz4line.server.javalin;
 
 import io.javalin.Javalin;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.javalin.accesslog.BinaryAccessLogger;
+import org.github.waltz4line.server.javalin.auth.Authenticator;
+import org.github.waltz4line.server.javalin.filter.EndpointFilters;
+import org.github.waltz4line.server.javalin.filter.FilterHandlers;
+import org.github.waltz4line.server.javalin.jfr.FlightRecorderEvents;
+import org.github.waltz4line.server.javalin.json.JsonPrewarmer;
 import org.github.waltz4line.server.javalin.openapi.DynamicDefinitionProcessor;
 import org.github.waltz4line.server.javalin.openapi.RequestMapper;
+import org.github.waltz4line.server.javalin.push.PushEndpoints;
+import org.github.waltz4line.server.javalin.route.CopyOnWriteRouter;
+import org.github.waltz4line.server.javalin.stream.StreamingRequestBody;
+import org.github.waltz4line.server.javalin.timing.ServerTiming;
+import org.github.waltz4line.server.router.PushMappingAttr;
 import org.github.waltz4line.server.router.RequestMapperAttr;
+import org.github.waltz4line.server.router.RouterAnnotationHandler;
 import org.github.waltz4line.server.router.RouterMapper;
 
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * router instance 의 annotation endpoint / filter 를 Javalin 에 등록한다.
+ *
+ * router 단위로 등록한 항목과 정리 작업을 기록해두어 구동 중에 router 를 제거할 수 있다.
+ * 등록 도중 실패하면 (중복 path 등) 해당 router 에서 이미 등록한 항목을 되돌린다.
+ * WebSocket endpoint 는 Javalin 에서 제거할 수 없으므로 구동 이후에는 등록할 수 없고, 포함한 router 는 제거할 수 없다.
+ */
 public class JavalinRouterMapper implements RouterMapper {
 
     private final Javalin javalin;
 
+    private final CopyOnWriteRouter router;
+
     private final boolean enableOpenApi;
 
     private final DynamicDefinitionProcessor definitionProcessor;
 
-    public JavalinRouterMapper(Javalin javalin, DynamicDefinitionProcessor definitionProcessor) {
+    private final BinaryAccessLogger accessLogger;
+
+    private final PushEndpoints pushEndpoints;
+
+    private final Authenticator authenticator;
+
+    private final EndpointFilters endpointFilters;
+
+    private final JsonPrewarmer jsonPrewarmer;
+
+    private final ServerTiming serverTiming;
+
+    private final FlightRecorderEvents flightRecorderEvents;
+
+    private final List<EndpointInterceptorFactory> interceptorFactories;
+
+    private final Map<Object, Registration> registrations = new IdentityHashMap<>();
+
+    private Registration registration;
+
+    private boolean initialized;
+
+    public JavalinRouterMapper(Javalin javalin, CopyOnWriteRouter router, DynamicDefinitionProcessor definitionProcessor,
+                               BinaryAccessLogger accessLogger, PushEndpoints pushEndpoints, Authenticator authenticator,
+                               EndpointFilters endpointFilters, JsonPrewarmer jsonPrewarmer, ServerTiming serverTiming,
+                               FlightRecorderEvents flightRecorderEvents, List<EndpointInterceptorFactory> interceptorFactories) {
         this.javalin = javalin;
+        this.router = router;
         this.enableOpenApi = definitionProcessor != null;
         this.definitionProcessor = definitionProcessor;
+        this.accessLogger = accessLogger;
+        this.pushEndpoints = pushEndpoints;
+        this.authenticator = authenticator;
+        this.endpointFilters = endpointFilters;
+        this.jsonPrewarmer = jsonPrewarmer;
+        this.serverTiming = serverTiming;
+        this.flightRecorderEvents = flightRecorderEvents;
+        this.interceptorFactories = List.copyOf(interceptorFactories);
+    }
+
+    /**
+     * router instance 의 endpoint / filter 를 등록한다.
+     *
+     * @throws IllegalArgumentException 이미 등록된 router 이거나 이미 등록된 endpoint 와 method / path 가 겹치는 경우
+     * @throws IllegalStateException    초기화 이후 WebSocket endpoint 를 등록하려는 경우
+     */
+    public synchronized void register(Object instance) {
+        if (registrations.containsKey(instance)) {
+            throw new IllegalArgumentException("Router already registered: " + instance.getClass().getName());
+        }
+        Registration current = new Registration();
+        registration = current;
+        try {
+            RouterAnnotationHandler.handle(instance, this);
+        } catch (RuntimeException e) {
+            current.undo();
+            throw e;
+        } finally {
+            registration = null;
+        }
+        registrations.put(instance, current);
+    }
+
+    /**
+     * router instance 가 등록한 endpoint / filter 를 제거한다. 처리 중인 요청은 제거 전 handler 로 완료된다.
+     *
+     * @throws IllegalArgumentException 등록되지 않은 router 인 경우
+     * @throws IllegalStateException    WebSocket endpoint 를 포함한 router 인 경우
+     */
+    public synchronized void unregister(Object instance) {
+        Registration current = registrations.get(instance);
+        if (current == null) {
+            throw new IllegalArgumentException("Router is not registered: " + instance.getClass().getName());
+        }
+        if (current.webSocket) {
+            throw new IllegalStateException("Router with WebSocket endpoints cannot be unregistered: " + instance.getClass().getName());
+        }
+        registrations.remove(instance);
+        current.undo();
+    }
+
+    /**
+     * 초기화 완료 이후에는 WebSocket endpoint 를 등록하지 않는다.
+     */
+    public synchronized void initialized() {
+        initialized = true;
     }
 
     @Override
     public void requestGet(Object instance, Method method, RequestMapperAttr requestMapping) {
-        javalin.get(requestMapping.getPath(), ctx -> RouterInvokeHandler.handle(ctx, instance, method));
-        if (enableOpenApi) {
-            definitionProcessor.addRequestMapper(RequestMapper.METHOD_GET, requestMapping);
-        }
+        addEndpoint(HandlerType.GET, RequestMapper.METHOD_GET, instance, method, requestMapping);
     }
 
     @Override
     public void requestPost(Object instance, Method method, RequestMapperAttr requestMapping) {
-        javalin.post(requestMapping.getPath(), ctx -> RouterInvokeHandler.handle(ctx, instance, method));
-        if (enableOpenApi) {
-            definitionProcessor.addRequestMapper(RequestMapper.METHOD_POST, requestMapping);
-        }
+        addEndpoint(HandlerType.POST, RequestMapper.METHOD_POST, instance, method, requestMapping);
     }
 
     @Override
     public void requestPut(Object instance, Method method, RequestMapperAttr requestMapping) {
-        javalin.put(requestMapping.getPath(), ctx -> RouterInvokeHandler.handle(ctx, instance, method));
-        if (enableOpenApi) {
-            definitionProcessor.addRequestMapper(RequestMapper.METHOD_PUT, requestMapping);
-        }
+        addEndpoint(HandlerType.PUT, RequestMapper.METHOD_PUT, instance, method, requestMapping);
     }
 
     @Override
     public void requestDelete(Object instance, Method method, RequestMapperAttr requestMapping) {
-        javalin.delete(requestMapping.getPath(), ctx -> RouterInvokeHandler.handle(ctx, instance, method));
-        if (enableOpenApi) {
-            definitionProcessor.addRequestMapper(RequestMapper.METHOD_DELETE, requestMapping);
+        addEndpoint(HandlerType.DELETE, RequestMapper.METHOD_DELETE, instance, method, requestMapping);
+    }
+
+    @Override
+    public void webSocket(Object instance, Method method, PushMappingAttr pushMapping) {
+        if (initialized) {
+            throw new IllegalStateException("WebSocket endpoint cannot be registered after initialization: " + pushMapping.path());
+        }
+        Handler authentication = authenticator.beforeHandler(pushMapping.auth());
+        if (authentication != null) {
+            javalin.wsBeforeUpgrade(pushMapping.path(), authentication);
+        }
+        pushEndpoints.registerWebSocket(javalin, instance, method, pushMapping);
+        registration.webSocket = true;
+    }
+
+    @Override
+    public void sse(Object instance, Method method, PushMappingAttr pushMapping) {
+        String path = pushMapping.path();
+        Handler authentication = authenticator.beforeHandler(pushMapping.auth());
+        if (authentication != null) {
+            javalin.before(path, authentication);
+            registration.onRemove(() -> router.removeHttpEndpoint(HandlerType.BEFORE, path, authentication));
         }
+        Handler handler = pushEndpoints.registerSse(javalin, instance, method, pushMapping);
+        registration.onRemove(() -> router.removeHttpEndpoint(HandlerType.GET, path, handler));
     }
 
     @Override
     public void filterBefore(Object instance, Method method, String filterPath) {
-        javalin.beforeMatched(filterPath, ctx -> RouterInvokeHandler.handle(ctx, instance, method));
+        Handler filter = flightRecorderEvents.filter(FilterHandlers.of(instance, method), filterName(method), filterPath, true);
+        endpointFilters.addBefore(filterPath, filter);
+        registration.onRemove(() -> endpointFilters.remove(filter));
     }
 
     @Override
     public void filterAfter(Object instance, Method method, String filterPath) {
-        javalin.afterMatched(filterPath, ctx -> RouterInvokeHandler.handle(ctx, instance, method));
+        Handler filter = flightRecorderEvents.filter(FilterHandlers.of(instance, method), filterName(method), filterPath, false);
+        endpointFilters.addAfter(filterPath, filter);
+        registration.onRemove(() -> endpointFilters.remove(filter));
+    }
+
+    /*
+     * interceptor 가 endpoint 별 상태를 만들기 전에 중복 여부를 먼저 확인한다.
+     */
+    private void addEndpoint(HandlerType handlerType, String documentMethod, Object instance, Method method,
+                             RequestMapperAttr requestMapping) {
+        String path = requestMapping.getPath();
+        if (router.hasHttpEndpoint(handlerType, path)) {
+            throw new IllegalArgumentException("Handler with type='" + handlerType + "' and path='" + path + "' already exists.");
+        }
+        Handler handler = endpointHandler(handlerType, instance, method, requestMapping);
+        registration.onRemove(() -> interceptorFactories.forEach(factory -> factory.release(handlerType, requestMapping)));
+        javalin.addHttpHandler(handlerType, path, handler);
+        registration.onRemove(() -> router.removeHttpEndpoint(handlerType, path, handler));
+        if (accessLogger != null) {
+            accessLogger.registerEndpoint(handlerType, path, requestMapping.getEndpointDocument().getEndpointId());
+            registration.onRemove(() -> accessLogger.unregisterEndpoint(handlerType, path));
+        }
+        if (enableOpenApi) {
+            definitionProcessor.addRequestMapper(documentMethod, requestMapping);
+            registration.onRemove(() -> definitionProcessor.removeRequestMapper(documentMethod, requestMapping));
+        }
+    }
+
+    private static String filterName(Method method) {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+
+    private Handler endpointHandler(HandlerType handlerType, Object instance, Method method, RequestMapperAttr requestMapping) {
+        if (jsonPrewarmer != null) {
+            jsonPrewarmer.register(requestMapping);
+        }
+        List<EndpointInterceptor> interceptors = new ArrayList<>();
+        for (EndpointInterceptorFactory factory : interceptorFactories) {
+            EndpointInterceptor interceptor = factory.create(handlerType, requestMapping);
+            if (interceptor != null) {
+                interceptors.add(interceptor);
+            }
+        }
+        Handler endpoint;
+        if (requestMapping.getStreamingBody() != null) {
+            endpoint = serverTiming.timed(StreamingRequestBody.handler(instance, method, requestMapping.getStreamingBody(),
+                    requestMapping.getEndpointDocument().getRequestBody()));
+        } else if (serverTiming.isEnabled()) {
+            endpoint = ctx -> RouterInvokeHandler.handleTimed(ctx, instance, method);
+        } else {
+            endpoint = ctx -> RouterInvokeHandler.handle(ctx, instance, method);
+        }
+        return EndpointInterceptor.chain(endpoint, interceptors);
+    }
+
+    /*
+     * router 하나가 등록한 항목의 정리 작업. 등록의 역순으로 실행한다.
+     */
+    private static final class Registration {
+
+        private final Deque<Runnable> undo = new ArrayDeque<>();
+
+        private boolean webSocket;
+
+        private void onRemove(Runnable action) {
+            undo.push(action);
+        }
+
+        private void undo() {
+            while (!undo.isEmpty()) {
+                undo.pop().run();
+            }
+        }
+
     }
 
 }
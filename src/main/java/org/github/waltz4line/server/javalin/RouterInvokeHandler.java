@@ -1,8 +1,19 @@
 package org.github.waltz4line.server.javalin;
 
 import io.javalin.http.Context;
+import io.javalin.http.HttpResponseException;
 import org.github.waltz4line.server.javalin.error.ErrorCodeException;
+import org.github.waltz4line.server.javalin.etag.ETags;
+import org.github.waltz4line.server.javalin.etag.Versioned;
+import org.github.waltz4line.server.javalin.file.FileResponse;
+import org.github.waltz4line.server.javalin.file.FileResponseWriter;
+import org.github.waltz4line.server.javalin.format.ContentNegotiation;
+import org.github.waltz4line.server.javalin.stream.StreamingResponse;
+import org.github.waltz4line.server.javalin.timing.RequestTiming;
+import org.github.waltz4line.server.javalin.timing.TimingPhase;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Optional;
 
@@ -11,16 +22,112 @@ public final class RouterInvokeHandler {
     private RouterInvokeHandler() {
     }
 
-    public static void handle(Context context, Object instance, Method method) {
+    public static void handle(Context context, Object instance, Method method) throws Exception {
+        invoke(context, instance, method, context);
+    }
+
+    /**
+     * Context 와 함께 추가 인자를 전달하여 endpoint 를 호출한다. (e.g. streaming 요청 body)
+     */
+    public static void handle(Context context, Object instance, Method method, Object argument) throws Exception {
+        invoke(context, instance, method, context, argument);
+    }
+
+    /*
+     * endpoint 에서 발생한 예외는 새 예외로 감싸지 않고 (stack trace 생성 비용) 그대로 던져
+     * Javalin exception handler (ErrorMappings) 에서 응답으로 변환한다.
+     */
+    private static void invoke(Context context, Object instance, Method method, Object... arguments) throws Exception {
+        Object result = call(instance, method, arguments);
+        if (result != null) {
+            writeResult(context, result);
+        }
+    }
+
+    /**
+     * {@link #handle(Context, Object, Method)} 와 같으며, endpoint 실행 시간과 반환 값의 응답 변환 시간을
+     * 요청의 {@link RequestTiming} 에 나누어 기록한다.
+     */
+    public static void handleTimed(Context context, Object instance, Method method) throws Exception {
+        RequestTiming timing = RequestTiming.of(context);
+        if (timing == null) {
+            handle(context, instance, method);
+            return;
+        }
+        long start = System.nanoTime();
+        Object result;
         try {
-            method.invoke(instance, context);
-        } catch (Throwable e) {
-            Optional<ErrorCodeException> errorCodeException = findCause(e);
-            if (errorCodeException.isPresent()) {
-                throw errorCodeException.get();
+            result = call(instance, method, context);
+        } finally {
+            timing.add(TimingPhase.HANDLER, System.nanoTime() - start);
+        }
+        if (result != null) {
+            long writeStart = System.nanoTime();
+            try {
+                writeResult(context, result);
+            } finally {
+                timing.add(TimingPhase.SERIALIZE, System.nanoTime() - writeStart);
+            }
+        }
+    }
+
+    private static Object call(Object instance, Method method, Object... arguments) throws Exception {
+        try {
+            return method.invoke(instance, arguments);
+        } catch (InvocationTargetException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static Exception failure(Throwable cause) {
+        Optional<ErrorCodeException> errorCodeException = findCause(cause);
+        if (errorCodeException.isPresent()) {
+            return errorCodeException.get();
+        }
+        Optional<HttpResponseException> httpResponseException = findHttpResponseCause(cause);
+        if (httpResponseException.isPresent()) {
+            return httpResponseException.get();
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return (Exception) cause;
+    }
+
+    /**
+     * endpoint 반환 값을 응답으로 쓴다. {@link Versioned} 는 버전 비교 후 필요한 경우에만 body 를 만들며,
+     * Stream, Iterator, Flow.Publisher 는 {@link StreamingResponse} 로 순차적으로 쓰고, {@link FileResponse} 는 복사 없이 파일을 응답한다.
+     */
+    private static void writeResult(Context context, Object result) throws IOException {
+        if (result instanceof FileResponse file) {
+            FileResponseWriter.write(context, file);
+            return;
+        }
+        if (StreamingResponse.isStreaming(result)) {
+            StreamingResponse.write(context, result);
+            return;
+        }
+        if (result instanceof Versioned<?> versioned) {
+            if (ETags.notModified(context, versioned.version())) {
+                return;
             }
-            throw new ErrorCodeException("TODO");
+            Object body = versioned.body().get();
+            if (body != null) {
+                ContentNegotiation.writeBody(context, body);
+            }
+            return;
+        }
+        ContentNegotiation.writeBody(context, result);
+    }
+
+    private static Optional<HttpResponseException> findHttpResponseCause(Throwable throwable) {
+        while (throwable != null) {
+            if (throwable instanceof HttpResponseException httpResponseException) {
+                return Optional.of(httpResponseException);
+            }
+            throwable = throwable.getCause();
         }
+        return Optional.empty();
     }
 
     public static Optional<ErrorCodeException> findCause(Throwable throwable) {
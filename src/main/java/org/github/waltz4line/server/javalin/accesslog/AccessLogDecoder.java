@@ -0,0 +1,126 @@
+package org.github.waltz4line.server.javalin.accesslog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * {@link BinaryAccessLogger} 가 기록한 binary access log 를 text 또는 json line 으로 변환하는 CLI.
+ *
+ * <pre>
+ * usage: AccessLogDecoder [--json] &lt;file or directory&gt;...
+ * </pre>
+ */
+public final class AccessLogDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final boolean json;
+
+    private final PrintStream out;
+
+    public AccessLogDecoder(boolean json, PrintStream out) {
+        this.json = json;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean json = false;
+        List<Path> paths = new ArrayList<>();
+        for (String arg : args) {
+            if ("--json".equals(arg)) {
+                json = true;
+            } else {
+                paths.add(Path.of(arg));
+            }
+        }
+        if (paths.isEmpty()) {
+            System.err.println("usage: AccessLogDecoder [--json] <file or directory>...");
+            System.exit(1);
+        }
+        AccessLogDecoder decoder = new AccessLogDecoder(json, System.out);
+        for (Path path : paths) {
+            decoder.decode(path);
+        }
+    }
+
+    public void decode(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                for (Path file : files.filter(AccessLogFileWriter::isAccessLogFile).sorted().toList()) {
+                    decodeFile(file);
+                }
+            }
+        } else {
+            decodeFile(path);
+        }
+    }
+
+    private void decodeFile(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < AccessLogFormat.HEADER_SIZE || buffer.getInt() != AccessLogFormat.MAGIC) {
+            throw new IOException("Not an access log file: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != AccessLogFormat.VERSION) {
+            throw new IOException("Unsupported access log version " + version + ": " + file);
+        }
+        Map<Integer, String> endpoints = new HashMap<>();
+        endpoints.put(AccessLogFormat.UNKNOWN_ENDPOINT_ID, AccessLogFormat.UNKNOWN_ENDPOINT);
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == AccessLogFormat.TYPE_ENDPOINT) {
+                int id = buffer.getInt();
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                endpoints.put(id, new String(name, StandardCharsets.UTF_8));
+            } else if (type == AccessLogFormat.TYPE_RECORD) {
+                long timestamp = buffer.getLong();
+                String method = AccessLogFormat.methodName(buffer.get());
+                String endpointId = endpoints.getOrDefault(buffer.getInt(), AccessLogFormat.UNKNOWN_ENDPOINT);
+                int status = buffer.getShort();
+                int durationMicros = buffer.getInt();
+                long bytes = buffer.getLong();
+                out.println(json
+                        ? toJson(timestamp, method, endpointId, status, durationMicros, bytes)
+                        : toText(timestamp, method, endpointId, status, durationMicros, bytes));
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static String toText(long timestamp, String method, String endpointId, int status, int durationMicros, long bytes) {
+        return Instant.ofEpochMilli(timestamp) + " " + method + " " + endpointId + " " + status + " "
+                + durationMicros + "us " + bytes + "B";
+    }
+
+    private static String toJson(long timestamp, String method, String endpointId, int status, int durationMicros, long bytes) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(timestamp).toString());
+            generator.writeStringField("method", method);
+            generator.writeStringField("endpointId", endpointId);
+            generator.writeNumberField("status", status);
+            generator.writeNumberField("durationMicros", durationMicros);
+            generator.writeNumberField("bytes", bytes);
+            generator.writeEndObject();
+        }
+        return writer.toString();
+    }
+
+}
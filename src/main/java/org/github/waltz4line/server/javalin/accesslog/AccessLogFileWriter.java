@@ -0,0 +1,137 @@
+package org.github.waltz4line.server.javalin.accesslog;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * memory-mapped 파일에 access log 레코드를 기록한다.
+ * 파일이 maxFileBytes 에 도달하면 새 파일로 rotation 하며, maxFiles 를 초과하는 오래된 파일은 삭제한다.
+ * writer 스레드 하나에서만 사용된다.
+ */
+final class AccessLogFileWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /* 가장 긴 endpointId (Short.MAX_VALUE bytes) 와 레코드 하나가 빈 파일에 들어가는 크기 */
+    private static final long MIN_FILE_BYTES = 64 * 1024;
+
+    private final Path directory;
+
+    private final long maxFileBytes;
+
+    private final int maxFiles;
+
+    private final IntFunction<byte[]> endpointNames;
+
+    private final BitSet writtenEndpoints = new BitSet();
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int fileSequence;
+
+    AccessLogFileWriter(Path directory, long maxFileBytes, int maxFiles, IntFunction<byte[]> endpointNames) throws IOException {
+        this.directory = directory;
+        this.maxFileBytes = Math.max(MIN_FILE_BYTES, Math.min(maxFileBytes, Integer.MAX_VALUE));
+        this.maxFiles = maxFiles;
+        this.endpointNames = endpointNames;
+        Files.createDirectories(directory);
+        rotate();
+    }
+
+    void write(long timestamp, byte method, int endpointId, short status, int durationMicros, long bytes) throws IOException {
+        if (!writtenEndpoints.get(endpointId)) {
+            byte[] name = endpointNames.apply(endpointId);
+            ensureCapacity(AccessLogFormat.endpointRecordSize(name) + AccessLogFormat.RECORD_SIZE);
+            buffer.put(AccessLogFormat.TYPE_ENDPOINT)
+                    .putInt(endpointId)
+                    .putShort((short) name.length)
+                    .put(name);
+            writtenEndpoints.set(endpointId);
+        } else {
+            ensureCapacity(AccessLogFormat.RECORD_SIZE);
+        }
+        buffer.put(AccessLogFormat.TYPE_RECORD)
+                .putLong(timestamp)
+                .put(method)
+                .putInt(endpointId)
+                .putShort(status)
+                .putInt(durationMicros)
+                .putLong(bytes);
+    }
+
+    void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    private void ensureCapacity(int size) throws IOException {
+        // 파일 끝을 구분하기 위해 TYPE_END 1 byte 를 항상 남겨둔다.
+        if (buffer.remaining() < size + 1) {
+            rotate();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeCurrent();
+        String name = String.format("%s%s-%06d%s", AccessLogFormat.FILE_PREFIX,
+                LocalDateTime.now().format(FILE_TIME_FORMAT), fileSequence++, AccessLogFormat.FILE_SUFFIX);
+        channel = FileChannel.open(directory.resolve(name),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, maxFileBytes);
+        buffer.putInt(AccessLogFormat.MAGIC).putShort(AccessLogFormat.VERSION);
+        writtenEndpoints.clear();
+        deleteOldFiles();
+    }
+
+    private void closeCurrent() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        int written = buffer.position();
+        buffer = null;
+        channel.truncate(written + 1L);
+        channel.close();
+        channel = null;
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(AccessLogFileWriter::isAccessLogFile).sorted().forEach(files::add);
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    static boolean isAccessLogFile(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(AccessLogFormat.FILE_PREFIX) && fileName.endsWith(AccessLogFormat.FILE_SUFFIX);
+    }
+
+    static byte[] encode(String endpointId) {
+        return endpointId.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeCurrent();
+    }
+
+}
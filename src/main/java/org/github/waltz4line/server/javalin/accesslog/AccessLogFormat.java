@@ -0,0 +1,64 @@
+package org.github.waltz4line.server.javalin.accesslog;
+
+import io.javalin.http.HandlerType;
+
+/**
+ * binary access log 파일 포맷 정의.
+ *
+ * <pre>
+ * file header   : magic(int) version(short)
+ * endpoint      : type(1) id(int) length(short) utf-8 endpointId
+ * access record : type(2) epochMillis(long) method(byte) endpointId(int) status(short) durationMicros(int) bytes(long)
+ * end of data   : type(0)  (mmap 으로 미리 확보된 영역은 0 으로 채워져 있음)
+ * </pre>
+ * endpoint 레코드는 파일마다 해당 endpoint 가 처음 기록될 때 한 번만 기록된다.
+ */
+public final class AccessLogFormat {
+
+    public static final int MAGIC = 0x4A414C47; // "JALG"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    public static final byte TYPE_END = 0;
+    public static final byte TYPE_ENDPOINT = 1;
+    public static final byte TYPE_RECORD = 2;
+
+    public static final int RECORD_SIZE = 1 + Long.BYTES + 1 + Integer.BYTES + Short.BYTES + Integer.BYTES + Long.BYTES;
+
+    public static final String FILE_PREFIX = "access-";
+    public static final String FILE_SUFFIX = ".alog";
+
+    public static final int UNKNOWN_ENDPOINT_ID = 0;
+    public static final String UNKNOWN_ENDPOINT = "-";
+
+    private static final String[] METHODS = {
+            "OTHER", "GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", "TRACE", "CONNECT"
+    };
+
+    private AccessLogFormat() {
+    }
+
+    public static byte methodCode(HandlerType handlerType) {
+        return switch (handlerType) {
+            case GET -> 1;
+            case POST -> 2;
+            case PUT -> 3;
+            case PATCH -> 4;
+            case DELETE -> 5;
+            case HEAD -> 6;
+            case OPTIONS -> 7;
+            case TRACE -> 8;
+            case CONNECT -> 9;
+            default -> 0;
+        };
+    }
+
+    public static String methodName(byte code) {
+        return code >= 0 && code < METHODS.length ? METHODS[code] : METHODS[0];
+    }
+
+    public static int endpointRecordSize(byte[] endpointId) {
+        return 1 + Integer.BYTES + Short.BYTES + endpointId.length;
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.github.waltz4line.server.javalin.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * access log 레코드를 담는 고정 크기 ring buffer. (multi producer / single consumer)
+ *
+ * 레코드 필드는 미리 할당된 primitive 배열에 복사되므로 요청 스레드에서 객체를 생성하지 않는다.
+ * 각 slot 의 sequence 로 publish 여부를 판단하며 (bounded MPMC queue, D. Vyukov),
+ * 버퍼가 가득 찬 경우 대기하지 않고 false 를 반환한다.
+ */
+final class AccessLogRingBuffer {
+
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private long head;
+
+    private final long[] timestamps;
+    private final byte[] methods;
+    private final int[] endpointIds;
+    private final short[] statuses;
+    private final int[] durations;
+    private final long[] bytes;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(requestedCapacity, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.timestamps = new long[capacity];
+        this.methods = new byte[capacity];
+        this.endpointIds = new int[capacity];
+        this.statuses = new short[capacity];
+        this.durations = new int[capacity];
+        this.bytes = new long[capacity];
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    boolean offer(long timestamp, byte method, int endpointId, int status, int durationMicros, long writtenBytes) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    timestamps[index] = timestamp;
+                    methods[index] = method;
+                    endpointIds[index] = endpointId;
+                    statuses[index] = (short) status;
+                    durations[index] = durationMicros;
+                    bytes[index] = writtenBytes;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * consumer 스레드에서만 호출한다.
+     *
+     * @return 꺼낸 레코드 수
+     */
+    int drainTo(RecordConsumer consumer, int maxRecords) {
+        int drained = 0;
+        while (drained < maxRecords) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            consumer.accept(timestamps[index], methods[index], endpointIds[index], statuses[index],
+                    durations[index], bytes[index]);
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long timestamp, byte method, int endpointId, short status, int durationMicros, long bytes);
+    }
+
+}
@@ -0,0 +1,211 @@
+package org.github.waltz4line.server.javalin.accesslog;
+
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.RequestLogger;
+import org.eclipse.jetty.server.Response;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 요청 스레드에서는 고정 필드만 {@link AccessLogRingBuffer} 에 복사하고,
+ * 별도 writer 스레드가 batch 단위로 꺼내 binary 파일에 기록하는 {@link RequestLogger}.
+ *
+ * 버퍼가 가득 찬 경우 요청 스레드를 block 하지 않고 레코드를 버린 뒤 dropped count 만 증가시킨다.
+ * writer 스레드가 실패하면 이후 레코드는 모두 버리며 dropped count 에 포함한다.
+ * 기록된 파일은 {@link AccessLogDecoder} 로 text / json 으로 변환할 수 있다.
+ */
+public final class BinaryAccessLogger implements RequestLogger, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryAccessLogger.class);
+
+    private static final int DRAIN_BATCH_SIZE = 1024;
+
+    private final JavalinContextConfig.JavalinAccessLog config;
+
+    private final AccessLogRingBuffer ringBuffer;
+
+    private final Map<HandlerType, Map<String, Endpoint>> endpoints = new EnumMap<>(HandlerType.class);
+
+    private final List<byte[]> endpointNames = new ArrayList<>();
+
+    private final Endpoint unknownEndpoint;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder written = new LongAdder();
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    private volatile boolean writerFailed;
+
+    public BinaryAccessLogger(JavalinContextConfig.JavalinAccessLog config) {
+        this.config = Objects.requireNonNull(config, "config must not be null");
+        this.ringBuffer = new AccessLogRingBuffer(config.bufferSize());
+        this.unknownEndpoint = new Endpoint(AccessLogFormat.UNKNOWN_ENDPOINT_ID, config.sampleRate());
+        this.endpointNames.add(AccessLogFileWriter.encode(AccessLogFormat.UNKNOWN_ENDPOINT));
+        // 구동 중에도 endpoint 가 등록될 수 있으므로 요청 스레드가 읽는 EnumMap 은 미리 채워두고 변경하지 않는다.
+        for (HandlerType method : HandlerType.values()) {
+            this.endpoints.put(method, new ConcurrentHashMap<>());
+        }
+        this.writerThread = new Thread(this::runWriter, "access-log-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * endpoint 를 등록하여 endpointId 와 sampling rate 를 지정한다.
+     * 등록되지 않은 path 의 요청은 {@link AccessLogFormat#UNKNOWN_ENDPOINT} 로 기록된다.
+     */
+    public synchronized void registerEndpoint(HandlerType method, String path, String endpointId) {
+        int id = endpointNames.size();
+        endpointNames.add(AccessLogFileWriter.encode(endpointId));
+        double sampleRate = config.endpointSampleRates() == null
+                ? config.sampleRate() : config.endpointSampleRates().getOrDefault(endpointId, config.sampleRate());
+        endpoints.get(method).put(path, new Endpoint(id, sampleRate));
+    }
+
+    /**
+     * 이후 요청은 {@link AccessLogFormat#UNKNOWN_ENDPOINT} 로 기록된다.
+     * 이미 기록된 레코드를 해석할 수 있도록 endpointId 이름은 유지한다.
+     */
+    public void unregisterEndpoint(HandlerType method, String path) {
+        endpoints.get(method).remove(path);
+    }
+
+    @Override
+    public void handle(Context ctx, Float executionTimeMs) {
+        HandlerType method = ctx.method();
+        Endpoint endpoint = findEndpoint(ctx, method);
+        if (endpoint.sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= endpoint.sampleRate) {
+            return;
+        }
+        if (writerFailed) {
+            dropped.increment();
+            return;
+        }
+        int durationMicros = executionTimeMs == null ? -1 : (int) (executionTimeMs * 1000);
+        if (!ringBuffer.offer(System.currentTimeMillis(), AccessLogFormat.methodCode(method), endpoint.id,
+                ctx.statusCode(), durationMicros, writtenBytes(ctx))) {
+            dropped.increment();
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    private Endpoint findEndpoint(Context ctx, HandlerType method) {
+        Map<String, Endpoint> byPath = endpoints.get(method);
+        if (byPath == null) {
+            return unknownEndpoint;
+        }
+        String path;
+        try {
+            path = ctx.endpointHandlerPath();
+        } catch (IllegalStateException e) {
+            return unknownEndpoint;
+        }
+        Endpoint endpoint = path == null ? null : byPath.get(path);
+        return endpoint == null ? unknownEndpoint : endpoint;
+    }
+
+    private static long writtenBytes(Context ctx) {
+        if (ctx.res() instanceof Response response) {
+            return response.getHttpChannel().getBytesWritten();
+        }
+        return -1;
+    }
+
+    private synchronized byte[] endpointName(int id) {
+        return endpointNames.get(id);
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.flushIntervalMillis());
+        try (AccessLogFileWriter fileWriter = new AccessLogFileWriter(Path.of(config.directory()),
+                config.maxFileBytes(), config.maxFiles(), this::endpointName)) {
+            long lastFlush = System.nanoTime();
+            while (running) {
+                int drained = drain(fileWriter);
+                if (System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    fileWriter.flush();
+                    lastFlush = System.nanoTime();
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+            while (drain(fileWriter) > 0) {
+                // 종료 전에 남은 레코드를 모두 기록한다.
+            }
+        } catch (IOException | RuntimeException e) {
+            // 요청 스레드는 실패를 알 수 없으므로 이후 레코드는 버리고 dropped count 로 남긴다.
+            writerFailed = true;
+            LOGGER.error("Access log writer stopped. Subsequent records are dropped.", e);
+            discardBuffered();
+        }
+    }
+
+    /*
+     * 기록에 실패한 레코드는 ring buffer 에 남아 discardBuffered 에서 dropped 로 집계된다.
+     */
+    private int drain(AccessLogFileWriter fileWriter) {
+        return ringBuffer.drainTo((timestamp, method, endpointId, status, durationMicros, bytes) -> {
+            try {
+                fileWriter.write(timestamp, method, endpointId, status, durationMicros, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written.increment();
+        }, DRAIN_BATCH_SIZE);
+    }
+
+    private void discardBuffered() {
+        dropped.add(ringBuffer.drainTo((timestamp, method, endpointId, status, durationMicros, bytes) -> {
+        }, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerFailed && !writerThread.isAlive()) {
+            // writer 가 멈춘 뒤 버퍼에 들어간 레코드
+            discardBuffered();
+        }
+        LOGGER.info("Access log closed. written: {}, dropped: {}", writtenCount(), droppedCount());
+    }
+
+    private record Endpoint(int id, double sampleRate) {
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.github.waltz4line.server.javalin.auth;
+
+/**
+ * 인증 처리 통계
+ *
+ * @param cacheHits        캐시된 검증 결과로 인증한 요청 수
+ * @param cacheMisses      {@link CredentialVerifier} 를 호출한 요청 수
+ * @param rejections       credential 이 없거나 유효하지 않아 401 을 응답한 요청 수
+ * @param verifyNanosTotal {@link CredentialVerifier} 호출에 걸린 시간 합계
+ * @param verifyNanosMax   {@link CredentialVerifier} 호출에 걸린 최대 시간
+ * @param cacheSize        현재 캐시된 credential 수
+ */
+public record AuthStats(long cacheHits, long cacheMisses, long rejections,
+                        long verifyNanosTotal, long verifyNanosMax, int cacheSize) {
+
+    public double hitRate() {
+        long requests = cacheHits + cacheMisses;
+        return requests == 0 ? 0.0 : (double) cacheHits / requests;
+    }
+
+    public double verifyNanosMean() {
+        return cacheMisses == 0 ? 0.0 : (double) verifyNanosTotal / cacheMisses;
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.github.waltz4line.server.javalin.auth;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.cache.ExpiringCache;
+import org.github.waltz4line.server.javalin.error.ErrorResponseBody;
+import org.github.waltz4line.server.javalin.event.AuthenticationHandler;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+import org.github.waltz4line.server.router.annotation.AuthMode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * endpoint 별 {@link AuthMode} 에 따라 인증을 수행한다.
+ *
+ * endpoint 등록 시점에 인증 방식을 결정하여 {@link AuthMode#NONE} endpoint 에는 interceptor 를 만들지 않는다.
+ * (문서, readiness, 404 등 annotation endpoint 가 아닌 요청도 인증을 거치지 않는다.)
+ * {@link CredentialVerifier} 의 검증 결과는 credential 의 SHA-256 hash 를 key 로 ttl 동안 캐시하며,
+ * credential 의 만료 시각을 넘겨 캐시하지 않는다. 유효하지 않은 credential 및 검증 실패 (예외) 는 캐시하지 않는다.
+ *
+ * {@link AuthenticationHandler} 가 등록되어 있다면 credential 검증 이후 호출된다.
+ */
+public final class Authenticator implements EndpointInterceptorFactory {
+
+    public static final String PRINCIPAL_ATTRIBUTE = Authenticator.class.getName() + ".principal";
+
+    private static final ErrorResponseBody UNAUTHORIZED =
+            ErrorResponseBody.of(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "Authentication required");
+
+    private static final ErrorResponseBody INVALID_CREDENTIAL =
+            ErrorResponseBody.of(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "Invalid credential");
+
+    private final String header;
+
+    private final AuthMode defaultMode;
+
+    private final long ttlNanos;
+
+    private final CredentialVerifier verifier;
+
+    private final AuthenticationHandler authenticationHandler;
+
+    private final ExpiringCache<CredentialHash, Object> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    private final LongAdder verifyNanosTotal = new LongAdder();
+
+    private final LongAccumulator verifyNanosMax = new LongAccumulator(Math::max, 0);
+
+    public Authenticator(JavalinContextConfig.JavalinAuth auth, CredentialVerifier verifier, AuthenticationHandler authenticationHandler) {
+        this.header = auth.header();
+        this.defaultMode = auth.defaultMode();
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(auth.cacheTtlMillis());
+        this.verifier = verifier;
+        this.authenticationHandler = authenticationHandler == AuthenticationHandler.NOOP ? null : authenticationHandler;
+        this.cache = verifier != null && ttlNanos > 0 && auth.cacheMaxEntries() > 0 ? new ExpiringCache<>(auth.cacheMaxEntries()) : null;
+    }
+
+    /**
+     * @return 인증된 요청의 principal. 인증하지 않은 요청 (NONE, 또는 credential 없는 OPTIONAL) 이라면 null
+     */
+    public static <T> T principal(Context ctx) {
+        return ctx.attribute(PRINCIPAL_ATTRIBUTE);
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        AuthMode mode = resolve(requestMapping.getAuth());
+        if (mode == AuthMode.NONE) {
+            return null;
+        }
+        return (ctx, next) -> {
+            if (authenticate(ctx, mode)) {
+                next.handle(ctx);
+            }
+        };
+    }
+
+    /**
+     * WebSocket upgrade / SSE 구독 요청처럼 interceptor 를 적용할 수 없는 endpoint 에 before filter 로 등록할 handler
+     *
+     * @return 인증이 필요 없다면 null
+     */
+    public Handler beforeHandler(AuthMode declared) {
+        AuthMode mode = resolve(declared);
+        if (mode == AuthMode.NONE) {
+            return null;
+        }
+        return ctx -> {
+            if (!authenticate(ctx, mode)) {
+                ctx.skipRemainingHandlers();
+            }
+        };
+    }
+
+    public AuthStats stats() {
+        return new AuthStats(hits.sum(), misses.sum(), rejections.sum(),
+                verifyNanosTotal.sum(), verifyNanosMax.get(), cache == null ? 0 : cache.size());
+    }
+
+    private AuthMode resolve(AuthMode declared) {
+        if (verifier == null && authenticationHandler == null) {
+            return AuthMode.NONE;
+        }
+        return declared == null ? defaultMode : declared;
+    }
+
+    /*
+     * @return 인증에 실패하여 401 을 응답했다면 false
+     */
+    private boolean authenticate(Context ctx, AuthMode mode) throws Exception {
+        if (verifier != null) {
+            String credential = ctx.header(header);
+            if (credential == null || credential.isBlank()) {
+                if (mode == AuthMode.REQUIRED) {
+                    return reject(ctx, UNAUTHORIZED);
+                }
+            } else {
+                Object principal = verify(credential);
+                if (principal == null) {
+                    return reject(ctx, INVALID_CREDENTIAL);
+                }
+                ctx.attribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        }
+        if (authenticationHandler != null) {
+            authenticationHandler.handle(ctx);
+        }
+        return true;
+    }
+
+    private Object verify(String credential) throws Exception {
+        CredentialHash key = cache == null ? null : CredentialHash.of(credential);
+        if (key != null) {
+            Object cached = cache.getIfPresent(key, System.nanoTime());
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        long start = System.nanoTime();
+        VerifiedCredential verified;
+        try {
+            verified = verifier.verify(credential);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            verifyNanosTotal.add(elapsed);
+            verifyNanosMax.accumulate(elapsed);
+        }
+        if (verified == null) {
+            return null;
+        }
+
+        long remainingMillis = verified.expiresAtMillis() - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return null;
+        }
+        if (key != null) {
+            long now = System.nanoTime();
+            cache.put(key, verified.principal(), now + Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+        return verified.principal();
+    }
+
+    private boolean reject(Context ctx, ErrorResponseBody errorResponse) {
+        rejections.increment();
+        errorResponse.writeTo(ctx);
+        return false;
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.github.waltz4line.server.javalin.auth;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * credential 의 SHA-256 hash. 원본 credential 을 메모리에 보관하지 않기 위한 cache key 로 사용한다.
+ * (64bit hash 는 충돌 시 다른 사용자의 principal 로 인증될 수 있으므로 사용하지 않는다.)
+ */
+record CredentialHash(long h0, long h1, long h2, long h3) {
+
+    static CredentialHash of(String credential) {
+        ByteBuffer digest = ByteBuffer.wrap(sha256().digest(credential.getBytes(StandardCharsets.UTF_8)));
+        return new CredentialHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.github.waltz4line.server.javalin.auth;
+
+/**
+ * 요청의 credential (e.g. Authorization header 값) 을 검증한다.
+ * JWT 서명 확인, token introspection 등 비용이 큰 검증을 구현하며, 결과는 {@link Authenticator} 가 캐시한다.
+ */
+@FunctionalInterface
+public interface CredentialVerifier {
+
+    /**
+     * @param credential 요청 header 값 (scheme 포함, e.g. "Bearer xxx")
+     * @return 검증된 principal, 유효하지 않은 credential 이라면 null
+     * @throws Exception 검증 자체를 수행할 수 없는 경우 (e.g. introspection 서버 장애). 결과는 캐시하지 않는다.
+     */
+    VerifiedCredential verify(String credential) throws Exception;
+
+}
@@ -0,0 +1,26 @@
+package org.github.waltz4line.server.javalin.auth;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * {@link CredentialVerifier} 의 검증 결과
+ *
+ * @param principal       endpoint 에서 {@link Authenticator#principal(io.javalin.http.Context)} 로 조회할 인증 주체
+ * @param expiresAtMillis credential 만료 시각 (epoch millis). 캐시 유지 시간은 이 시각을 넘지 않는다.
+ */
+public record VerifiedCredential(Object principal, long expiresAtMillis) {
+
+    public VerifiedCredential {
+        Objects.requireNonNull(principal, "principal must not be null");
+    }
+
+    public static VerifiedCredential of(Object principal) {
+        return new VerifiedCredential(principal, Long.MAX_VALUE);
+    }
+
+    public static VerifiedCredential of(Object principal, Instant expiresAt) {
+        return new VerifiedCredential(principal, expiresAt.toEpochMilli());
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.github.waltz4line.server.javalin.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * batch 요청 하나의 하위 요청들이 공유하는 값.
+ *
+ * 하위 요청이 사용하는 batch 요청의 연결 정보와 header 는 생성 시점에 복사한다.
+ * timeout 된 하위 요청은 batch 응답 이후에도 실행될 수 있고, Jetty 는 응답이 끝난 request / response 객체를 다음 요청에 재사용하므로
+ * 하위 요청의 wrapper 에는 batch 요청의 request / response 대신 {@link #close()} 이후 접근을 거부하는 proxy 를 전달한다.
+ */
+final class BatchExchange implements AutoCloseable {
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private final Connection connection;
+
+    private final Map<String, List<String>> headers;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /* lock 으로 보호한다. */
+    private boolean closed;
+
+    /**
+     * @param headers 하위 요청에 전달할 header. case-insensitive map
+     */
+    BatchExchange(HttpServletRequest request, HttpServletResponse response, Map<String, List<String>> headers) {
+        this.request = guard(HttpServletRequest.class, request);
+        this.response = guard(HttpServletResponse.class, response);
+        this.connection = Connection.of(request);
+        this.headers = headers;
+    }
+
+    /**
+     * @return close 이후 접근하면 IllegalStateException 이 발생하는 batch 요청의 request
+     */
+    HttpServletRequest request() {
+        return request;
+    }
+
+    /**
+     * @return close 이후 접근하면 IllegalStateException 이 발생하는 batch 요청의 response
+     */
+    HttpServletResponse response() {
+        return response;
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    /**
+     * batch 요청의 request / response 에 대한 접근을 막는다. 진행 중인 접근이 끝날 때까지 기다린다.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T guard(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " of batch request";
+                };
+            }
+            lock.readLock().lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Batch request has already completed");
+                }
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }));
+    }
+
+    /**
+     * 하위 요청이 사용하는 batch 요청의 연결 정보
+     */
+    record Connection(String contextPath, String protocol, String scheme, boolean secure,
+                      String serverName, int serverPort, String remoteAddr, String remoteHost, int remotePort,
+                      String localAddr, String localName, int localPort) {
+
+        static Connection of(HttpServletRequest request) {
+            return new Connection(request.getContextPath(), request.getProtocol(), request.getScheme(), request.isSecure(),
+                    request.getServerName(), request.getServerPort(), request.getRemoteAddr(), request.getRemoteHost(),
+                    request.getRemotePort(), request.getLocalAddr(), request.getLocalName(), request.getLocalPort());
+        }
+
+    }
+
+}
@@ -0,0 +1,314 @@
+package org.github.waltz4line.server.javalin.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletRequestWrapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.error.ErrorResponseBody;
+import org.github.waltz4line.server.schedule.thread.NamedThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 요청을 한 번의 HTTP 요청으로 실행하는 batch endpoint.
+ *
+ * 하위 요청은 socket 을 거치지 않고 Javalin servlet 으로 직접 전달되므로, 일반 요청과 같은 route table, 인증, filter,
+ * rate limit, 예외 처리를 거친다. header 는 batch 요청의 header (Content-Type, Accept-Encoding, 조건부 요청 header 제외) 에
+ * 하위 요청의 header 를 덮어써서 사용한다.
+ *
+ * 하위 요청은 크기가 정해진 thread pool 에서 병렬로 실행되며 (queue 가 가득 차면 batch 요청 thread 에서 실행),
+ * {@link BatchRequest#sequential()} 이거나 parallelism 이 1 이하라면 이전 요청이 끝난 뒤 다음 요청을 pool 에 전달해 순서대로 실행한다.
+ * 어느 쪽이든 timeout 까지 끝나지 않은 하위 요청은 504 로 응답하고 실행 중인 thread 를 interrupt 한다.
+ * (순서대로 실행하는 경우 이후 요청도 실행하지 않고 504 로 응답한다)
+ * JSON 응답은 JSON 값 그대로, text 응답은 문자열로, 그 외 (CBOR, octet-stream 등) 는 base64 로 인코딩하여 포함한다.
+ * batch 응답 이후에도 실행 중인 하위 요청은 batch 요청의 Jetty request / response 에 접근할 수 없다. ({@link BatchExchange})
+ * batch 요청은 다시 batch 로 실행할 수 없다.
+ */
+public final class BatchHandler implements Handler, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchHandler.class);
+
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "content-type", "content-length", "content-encoding", "transfer-encoding", "accept-encoding",
+            "connection", "expect", "if-none-match", "if-modified-since", "if-match", "if-unmodified-since");
+
+    /*
+     * 보안 header 는 batch 응답에 적용되므로 하위 응답마다 반복하지 않는다.
+     */
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(
+            "content-length", "transfer-encoding", "connection", "server", "date",
+            "x-content-type-options", "x-frame-options", "x-xss-protection");
+
+    private static final Set<String> TEXT_MEDIA_TYPES = Set.of(
+            "application/xml", "application/javascript", "application/x-www-form-urlencoded", "application/x-yaml");
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    private static final ErrorResponseBody INVALID_BATCH =
+            ErrorResponseBody.of(HttpStatus.BAD_REQUEST, "INVALID_BATCH", "Invalid batch request");
+
+    private static final ErrorResponseBody TOO_MANY_REQUESTS =
+            ErrorResponseBody.of(HttpStatus.CONTENT_TOO_LARGE, "BATCH_TOO_LARGE", "Too many requests in a batch");
+
+    private static final ErrorResponseBody NESTED_BATCH =
+            ErrorResponseBody.of(HttpStatus.BAD_REQUEST, "NESTED_BATCH", "Batch request can not be nested");
+
+    private static final ErrorResponseBody TIMEOUT =
+            ErrorResponseBody.of(HttpStatus.GATEWAY_TIMEOUT, "BATCH_TIMEOUT", "Batch timed out");
+
+    private static final ErrorResponseBody FAILED =
+            ErrorResponseBody.of(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", "Internal server error");
+
+    private final Servlet servlet;
+
+    private final ObjectMapper mapper;
+
+    private final int maxRequests;
+
+    private final long timeoutNanos;
+
+    private final boolean parallel;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder subRequests = new LongAdder();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    public BatchHandler(Servlet servlet, ObjectMapper mapper, JavalinContextConfig.JavalinBatch batch) {
+        this.servlet = servlet;
+        this.mapper = mapper;
+        this.maxRequests = batch.maxRequests();
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(batch.timeoutMillis());
+        this.parallel = batch.parallelism() > 1;
+        int threads = Math.max(1, batch.parallelism());
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, threads * batch.maxRequests())),
+                new NamedThreadFactory("batch"), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void handle(@NotNull Context ctx) throws Exception {
+        if (ctx.req() instanceof ServletRequestWrapper wrapper && wrapper.isWrapperFor(BatchServletRequest.class)) {
+            NESTED_BATCH.writeTo(ctx);
+            return;
+        }
+        BatchRequest batch;
+        try {
+            batch = mapper.readValue(ctx.bodyAsBytes(), BatchRequest.class);
+        } catch (JsonProcessingException e) {
+            INVALID_BATCH.writeTo(ctx);
+            return;
+        }
+        if (batch == null || batch.requests() == null || batch.requests().stream().anyMatch(BatchHandler::isInvalid)) {
+            INVALID_BATCH.writeTo(ctx);
+            return;
+        }
+        if (batch.requests().size() > maxRequests) {
+            TOO_MANY_REQUESTS.writeTo(ctx);
+            return;
+        }
+        batches.increment();
+        subRequests.add(batch.requests().size());
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<BatchResponse.Item> responses;
+        try (BatchExchange exchange = new BatchExchange(ctx.req(), ctx.res(), inheritedHeaders(ctx.req()))) {
+            responses = !parallel || batch.sequential()
+                    ? executeSequentially(exchange, batch.requests(), deadline)
+                    : executeInParallel(exchange, batch.requests(), deadline);
+        }
+        ctx.contentType(ContentType.APPLICATION_JSON).result(mapper.writeValueAsBytes(new BatchResponse(responses)));
+    }
+
+    public BatchStats stats() {
+        return new BatchStats(batches.sum(), subRequests.sum(), timeouts.sum());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private List<BatchResponse.Item> executeSequentially(BatchExchange exchange, List<BatchRequest.Item> items,
+                                                         long deadline) throws InterruptedException {
+        List<BatchResponse.Item> responses = new ArrayList<>(items.size());
+        for (BatchRequest.Item item : items) {
+            if (System.nanoTime() - deadline >= 0) {
+                timeouts.increment();
+                responses.add(error(item, TIMEOUT));
+            } else {
+                responses.add(await(executor.submit(() -> execute(exchange, item)), item, deadline));
+            }
+        }
+        return responses;
+    }
+
+    private List<BatchResponse.Item> executeInParallel(BatchExchange exchange, List<BatchRequest.Item> items,
+                                                       long deadline) throws InterruptedException {
+        List<Future<BatchResponse.Item>> futures = new ArrayList<>(items.size());
+        for (BatchRequest.Item item : items) {
+            futures.add(executor.submit(() -> execute(exchange, item)));
+        }
+        List<BatchResponse.Item> responses = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            responses.add(await(futures.get(i), items.get(i), deadline));
+        }
+        return responses;
+    }
+
+    private BatchResponse.Item await(Future<BatchResponse.Item> future, BatchRequest.Item item, long deadline) throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            return error(item, TIMEOUT);
+        } catch (ExecutionException e) {
+            LOGGER.warn("Batch request failed. {} {}", item.method(), item.path(), e.getCause());
+            return error(item, FAILED);
+        }
+    }
+
+    private BatchResponse.Item execute(BatchExchange exchange, BatchRequest.Item item) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(exchange.headers());
+        if (item.headers() != null) {
+            item.headers().forEach((name, value) -> headers.put(name, List.of(value)));
+        }
+        byte[] body = body(item.body(), headers);
+        String method = item.method() == null ? "GET" : item.method().toUpperCase(Locale.ROOT);
+
+        BatchServletRequest subRequest = new BatchServletRequest(exchange, method, item.path(), item.query(),
+                Collections.unmodifiableMap(headers), body);
+        BatchServletResponse subResponse = new BatchServletResponse(exchange.response());
+        try {
+            servlet.service(subRequest, subResponse);
+        } catch (Exception e) {
+            LOGGER.warn("Batch request failed. {} {}", method, item.path(), e);
+            return error(item, FAILED);
+        }
+        return response(item.id(), subResponse.getStatus(), responseHeaders(subResponse),
+                subResponse.getContentType(), subResponse.body());
+    }
+
+    private byte[] body(JsonNode body, Map<String, List<String>> headers) {
+        if (body == null || body.isNull() || body.isMissingNode()) {
+            return new byte[0];
+        }
+        if (body.isTextual() && headers.containsKey("Content-Type")) {
+            return body.textValue().getBytes(StandardCharsets.UTF_8);
+        }
+        headers.putIfAbsent("Content-Type", List.of(ContentType.JSON));
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write batch request body", e);
+        }
+    }
+
+    private static Map<String, String> responseHeaders(BatchServletResponse response) {
+        Map<String, String> headers = response.headerValues();
+        headers.keySet().removeIf(name -> EXCLUDED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT)));
+        return headers;
+    }
+
+    /*
+     * JSON 응답은 다시 parsing 하지 않고 그대로 포함한다. text 가 아닌 응답은 byte[] 로 전달하며 Jackson 이 base64 로 쓴다.
+     */
+    private static BatchResponse.Item response(String id, int status, Map<String, String> headers, String contentType, byte[] body) {
+        if (body.length == 0) {
+            return new BatchResponse.Item(id, status, headers, null, null);
+        }
+        String mediaType = mediaType(contentType);
+        if (mediaType.equals(ContentType.JSON) || mediaType.endsWith("+json")) {
+            return new BatchResponse.Item(id, status, headers, new RawValue(new String(body, StandardCharsets.UTF_8)), null);
+        }
+        if (isText(mediaType)) {
+            return new BatchResponse.Item(id, status, headers, new String(body, charset(contentType)), null);
+        }
+        return new BatchResponse.Item(id, status, headers, body, BatchResponse.BASE64);
+    }
+
+    private static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int parameters = contentType.indexOf(';');
+        return (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isText(String mediaType) {
+        return mediaType.startsWith("text/") || mediaType.endsWith("+xml") || TEXT_MEDIA_TYPES.contains(mediaType);
+    }
+
+    /*
+     * charset parameter 가 없거나 지원하지 않는 charset 이라면 UTF-8
+     */
+    private static Charset charset(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, CHARSET_PARAMETER, 0, CHARSET_PARAMETER.length())) {
+                String name = trimmed.substring(CHARSET_PARAMETER.length()).replace("\"", "").trim();
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static BatchResponse.Item error(BatchRequest.Item item, ErrorResponseBody error) {
+        return new BatchResponse.Item(item.id(), error.status(), Map.of("Content-Type", ContentType.JSON),
+                new RawValue(new String(error.bytes(), StandardCharsets.UTF_8)), null);
+    }
+
+    private static Map<String, List<String>> inheritedHeaders(HttpServletRequest request) {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, Collections.list(request.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static boolean isInvalid(BatchRequest.Item item) {
+        return item == null || item.path() == null || !item.path().startsWith("/")
+                || item.path().indexOf('?') >= 0 || item.path().indexOf('#') >= 0;
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.github.waltz4line.server.javalin.batch;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * batch 요청 body
+ *
+ * @param requests   실행할 요청 목록. 응답은 같은 순서로 반환된다.
+ * @param sequential true 라면 요청을 순서대로 하나씩 실행한다. (이전 요청의 결과에 의존하는 쓰기 요청 등)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BatchRequest(List<Item> requests, boolean sequential) {
+
+    /**
+     * @param id      응답과 요청을 대응시키기 위한 식별자 (선택)
+     * @param method  HTTP method. 생략하면 GET
+     * @param path    context path 를 제외한 요청 path (e.g. "/users/1")
+     * @param query   query string ('?' 제외)
+     * @param headers batch 요청의 header 에 추가 / 대체할 header
+     * @param body    요청 body. 문자열이 아니라면 JSON 으로 전송된다.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(String id,
+                       String method,
+                       String path,
+                       String query,
+                       Map<String, String> headers,
+                       JsonNode body) {
+    }
+
+}
@@ -0,0 +1,31 @@
+package org.github.waltz4line.server.javalin.batch;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * batch 응답 body. {@link BatchRequest#requests()} 와 같은 순서로 응답한다.
+ */
+public record BatchResponse(List<Item> responses) {
+
+    /**
+     * {@link Item#bodyEncoding()} 값. body 가 base64 로 인코딩된 문자열이다.
+     */
+    public static final String BASE64 = "base64";
+
+    /**
+     * @param id           요청의 id
+     * @param status       HTTP status
+     * @param headers      응답 header (Content-Length 등 connection 단위 header 제외)
+     * @param body         JSON 응답이라면 JSON 값 그대로, text 응답이라면 문자열, 그 외에는 base64 로 인코딩한 문자열.
+     *                     body 가 없다면 생략
+     * @param bodyEncoding body 를 base64 로 인코딩했다면 {@link #BASE64}, 그 외에는 생략
+     */
+    public record Item(String id,
+                       int status,
+                       Map<String, String> headers,
+                       Object body,
+                       String bodyEncoding) {
+    }
+
+}
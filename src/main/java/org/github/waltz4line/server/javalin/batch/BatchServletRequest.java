@@ -0,0 +1,341 @@
+package org.github.waltz4line.server.javalin.batch;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * batch 의 하위 요청. method, path, query string, header, body 는 하위 요청의 값을 사용하고,
+ * 연결 정보 (remote address, scheme 등) 는 batch 요청의 값을 사용한다.
+ *
+ * 하위 요청은 batch 요청과 다른 thread 에서 실행될 수 있으므로 Jetty request 의 변경 가능한 상태 (attribute, body, async) 에 접근하지 않는다.
+ * 연결 정보는 {@link BatchExchange} 에 복사한 값을 사용하며, 그 외 Jetty request 에 위임하는 호출은 batch 요청이 끝난 뒤에는 거부된다.
+ * async 처리 및 multipart 요청은 지원하지 않는다.
+ */
+final class BatchServletRequest extends HttpServletRequestWrapper {
+
+    private final BatchExchange.Connection connection;
+
+    private final String method;
+
+    private final String requestUri;
+
+    private final String pathInfo;
+
+    private final String queryString;
+
+    private final Map<String, List<String>> headers;
+
+    private final byte[] body;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    /**
+     * @param headers case-insensitive map
+     */
+    BatchServletRequest(BatchExchange exchange, String method, String path, String queryString,
+                        Map<String, List<String>> headers, byte[] body) {
+        super(exchange.request());
+        this.connection = exchange.connection();
+        this.method = method;
+        this.requestUri = connection.contextPath() + path;
+        this.pathInfo = path;
+        this.queryString = queryString;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(64).append(getScheme()).append("://").append(getServerName());
+        int port = getServerPort();
+        if (port > 0 && !("http".equals(getScheme()) && port == 80) && !("https".equals(getScheme()) && port == 443)) {
+            url.append(':').append(port);
+        }
+        return url.append(requestUri);
+    }
+
+    @Override
+    public String getContextPath() {
+        return connection.contextPath();
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getProtocol() {
+        return connection.protocol();
+    }
+
+    @Override
+    public String getScheme() {
+        return connection.scheme();
+    }
+
+    @Override
+    public boolean isSecure() {
+        return connection.secure();
+    }
+
+    @Override
+    public String getServerName() {
+        return connection.serverName();
+    }
+
+    @Override
+    public int getServerPort() {
+        return connection.serverPort();
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return connection.remoteAddr();
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return connection.remoteHost();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return connection.remotePort();
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return connection.localAddr();
+    }
+
+    @Override
+    public String getLocalName() {
+        return connection.localName();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return connection.localPort();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.getFirst();
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return Collections.enumeration(values == null ? List.of() : values);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date header " + name + ": " + value, e);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        String contentType = getContentType();
+        if (contentType == null) {
+            return null;
+        }
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        return index < 0 ? null : contentType.substring(index + "charset=".length()).trim();
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) {
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new BodyInputStream(body);
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+    }
+
+    @Override
+    public Collection<Part> getParts() throws ServletException {
+        throw new ServletException("multipart is not supported in batch requests");
+    }
+
+    @Override
+    public Part getPart(String name) throws ServletException {
+        throw new ServletException("multipart is not supported in batch requests");
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("async is not supported in batch requests");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        throw new IllegalStateException("async is not supported in batch requests");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("async is not supported in batch requests");
+    }
+
+    private static final class BodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream in;
+
+        private BodyInputStream(byte[] body) {
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException("async is not supported in batch requests");
+        }
+
+    }
+
+}
@@ -0,0 +1,11 @@
+package org.github.waltz4line.server.javalin.batch;
+
+/**
+ * batch endpoint 처리 통계
+ *
+ * @param batches     처리한 batch 요청 수
+ * @param subRequests batch 로 실행된 하위 요청 수
+ * @param timeouts    timeout 으로 504 응답한 하위 요청 수
+ */
+public record BatchStats(long batches, long subRequests, long timeouts) {
+}
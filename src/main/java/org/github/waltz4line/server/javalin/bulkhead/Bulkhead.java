@@ -0,0 +1,102 @@
+package org.github.waltz4line.server.javalin.bulkhead;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.error.ErrorResponseBody;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 동시 실행 수를 제한하는 interceptor. 같은 bulkhead 를 사용하는 endpoint 가 permit 을 공유한다.
+ *
+ * permit 이 없다면 maxWaiting 개까지 maxWaitMillis 동안 기다리며, 대기 자리가 없거나 대기 시간이 지나면 503 을 응답한다.
+ * 대기하는 요청도 Jetty thread 를 점유하므로 대기 수를 제한해 느려진 bulkhead 가 다른 endpoint 의 thread 를 가져가지 않도록 한다.
+ * 대기 시간과 거절 여부는 {@link Bulkheads#WAIT_NANOS_ATTRIBUTE} 로 남긴다.
+ */
+final class Bulkhead implements EndpointInterceptor {
+
+    private static final ErrorResponseBody SERVICE_UNAVAILABLE =
+            ErrorResponseBody.of(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE", "Too many concurrent requests");
+
+    private final int maxConcurrent;
+
+    private final int maxWaiting;
+
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    Bulkhead(JavalinContextConfig.JavalinBulkhead.Limit limit) {
+        if (limit.maxConcurrent() < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be greater than 0: " + limit.maxConcurrent());
+        }
+        this.maxConcurrent = limit.maxConcurrent();
+        this.maxWaiting = Math.max(0, limit.maxWaiting());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, limit.maxWaitMillis()));
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        if (!acquire(ctx)) {
+            ctx.attribute(Bulkheads.WAIT_NANOS_ATTRIBUTE, Bulkheads.REJECTED);
+            SERVICE_UNAVAILABLE.writeTo(ctx);
+            return;
+        }
+        accepted.increment();
+        try {
+            next.handle(ctx);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire(Context ctx) throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (maxWaitNanos == 0 || !enterWaiting()) {
+            rejected.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                ctx.attribute(Bulkheads.WAIT_NANOS_ATTRIBUTE, System.nanoTime() - start);
+                return true;
+            }
+            timedOut.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private boolean enterWaiting() {
+        if (waiting.incrementAndGet() <= maxWaiting) {
+            return true;
+        }
+        waiting.decrementAndGet();
+        return false;
+    }
+
+    BulkheadStats stats() {
+        return new BulkheadStats(maxConcurrent, maxWaiting, maxConcurrent - permits.availablePermits(), waiting.get(),
+                accepted.sum(), rejected.sum(), timedOut.sum());
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.github.waltz4line.server.javalin.bulkhead;
+
+/**
+ * bulkhead 사용 현황
+ *
+ * @param maxConcurrent 동시에 실행할 수 있는 최대 요청 수
+ * @param maxWaiting    실행을 기다릴 수 있는 최대 요청 수
+ * @param active        현재 실행 중인 요청 수
+ * @param waiting       현재 실행을 기다리는 요청 수
+ * @param accepted      실행된 요청 수
+ * @param rejected      대기 요청 수 초과로 거절된 요청 수
+ * @param timedOut      대기 시간 초과로 거절된 요청 수
+ */
+public record BulkheadStats(int maxConcurrent, int maxWaiting, int active, int waiting,
+                            long accepted, long rejected, long timedOut) {
+}
@@ -0,0 +1,64 @@
+package org.github.waltz4line.server.javalin.bulkhead;
+
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 설정된 bulkhead 를 endpoint 에 적용한다. endpointId 로 설정된 bulkhead 가 {@link org.github.waltz4line.server.router.annotation.Router}
+ * tag 로 설정된 bulkhead 보다 우선하며, 둘 다 없다면 interceptor 를 만들지 않는다.
+ *
+ * bulkhead 는 설정 시점에 모두 만들어 두므로 router 가 다시 등록되어도 같은 bulkhead 를 사용한다.
+ */
+public final class Bulkheads implements EndpointInterceptorFactory {
+
+    public static final String TAG_PREFIX = "tag:";
+
+    public static final String ENDPOINT_PREFIX = "endpoint:";
+
+    /**
+     * permit 을 기다린 시간 (ns, Long). 바로 permit 을 얻었다면 설정하지 않으며, permit 을 얻지 못해 503 으로 응답했다면 {@value #REJECTED}
+     */
+    public static final String WAIT_NANOS_ATTRIBUTE = Bulkheads.class.getName() + ".waitNanos";
+
+    public static final long REJECTED = -1L;
+
+    private final Map<String, Bulkhead> tags = new LinkedHashMap<>();
+
+    private final Map<String, Bulkhead> endpoints = new LinkedHashMap<>();
+
+    public Bulkheads(JavalinContextConfig.JavalinBulkhead bulkhead) {
+        if (bulkhead == null) {
+            return;
+        }
+        if (bulkhead.tags() != null) {
+            bulkhead.tags().forEach((tag, limit) -> tags.put(tag, new Bulkhead(limit)));
+        }
+        if (bulkhead.endpoints() != null) {
+            bulkhead.endpoints().forEach((endpointId, limit) -> endpoints.put(endpointId, new Bulkhead(limit)));
+        }
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        RequestMapperAttr.EndpointDocument document = requestMapping.getEndpointDocument();
+        Bulkhead bulkhead = endpoints.get(document.getEndpointId());
+        return bulkhead != null ? bulkhead : tags.get(document.getTag());
+    }
+
+    /**
+     * @return tag 또는 endpointId 별 bulkhead 사용 현황. key 는 {@value #TAG_PREFIX}tag 또는 {@value #ENDPOINT_PREFIX}endpointId
+     */
+    public Map<String, BulkheadStats> stats() {
+        Map<String, BulkheadStats> stats = new LinkedHashMap<>();
+        tags.forEach((tag, bulkhead) -> stats.put(TAG_PREFIX + tag, bulkhead.stats()));
+        endpoints.forEach((endpointId, bulkhead) -> stats.put(ENDPOINT_PREFIX + endpointId, bulkhead.stats()));
+        return stats;
+    }
+
+}
@@ -0,0 +1,13 @@
+package org.github.waltz4line.server.javalin.cache;
+
+/**
+ * endpoint 응답 캐시 통계
+ */
+public record CacheStats(long hits, long misses, long evictions, int size) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+}
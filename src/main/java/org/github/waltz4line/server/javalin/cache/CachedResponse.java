@@ -0,0 +1,92 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.etag.ETags;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 직렬화가 끝난 응답. endpoint 호출 없이 그대로 응답하기 위해 status, content type, endpoint 가 설정한 header, body bytes 를 보관한다.
+ * handler 가 버전 정보로 ETag 를 설정했다면 ({@link org.github.waltz4line.server.javalin.etag.Versioned} 등) 응답 시 If-None-Match 를 다시 비교한다.
+ */
+public record CachedResponse(int status, String contentType, Map<String, List<String>> headers, String version,
+                             byte[] body, long expiresAtNanos) {
+
+    /* 연결 / 요청마다 달라지거나 다른 사용자에게 전달하면 안 되는 header */
+    private static final Set<String> EXCLUDED_HEADERS = headerNames(List.of(
+            "Content-Type", "Content-Length", "Transfer-Encoding", "Connection", "Date", "Set-Cookie"));
+
+    private static final byte[] EMPTY = new byte[0];
+
+    public boolean isFresh(long nowNanos) {
+        return expiresAtNanos - nowNanos > 0;
+    }
+
+    public void writeTo(Context ctx) {
+        headers.forEach((name, values) -> {
+            ctx.res().setHeader(name, values.get(0));
+            for (int i = 1; i < values.size(); i++) {
+                ctx.res().addHeader(name, values.get(i));
+            }
+        });
+        if (version != null) {
+            ctx.attribute(ETags.VERSION_ATTRIBUTE, version);
+            if (ETags.matches(ctx.header(ETags.HEADER_IF_NONE_MATCH), version)) {
+                ctx.status(HttpStatus.NOT_MODIFIED).result(EMPTY);
+                return;
+            }
+        }
+        ctx.status(status);
+        if (contentType != null) {
+            ctx.contentType(contentType);
+        }
+        ctx.result(body);
+    }
+
+    /**
+     * endpoint 호출 전에 이미 설정된 header 이름. {@link #capture(Context, Set, long)} 에서 이 header 는 보관하지 않는다.
+     * (앞선 interceptor 가 요청마다 설정하는 header)
+     */
+    public static Set<String> headerNames(Context ctx) {
+        return headerNames(ctx.res().getHeaderNames());
+    }
+
+    /**
+     * endpoint 처리 후 Context 에 설정된 결과를 읽어 {@link CachedResponse} 로 만든다.
+     * 결과를 읽은 뒤에는 같은 bytes 로 Context 의 결과를 다시 설정한다.
+     *
+     * @param headersBefore endpoint 호출 전에 {@link #headerNames(Context)} 로 읽은 header 이름
+     * @return 결과가 stream 으로 직접 쓰여 읽을 수 없는 경우 null
+     */
+    public static CachedResponse capture(Context ctx, Set<String> headersBefore, long expiresAtNanos) throws IOException {
+        InputStream result = ctx.resultInputStream();
+        if (result == null) {
+            return null;
+        }
+        byte[] body = result.readAllBytes();
+        ctx.result(body);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : ctx.res().getHeaderNames()) {
+            if (!headersBefore.contains(name) && !EXCLUDED_HEADERS.contains(name)) {
+                headers.put(name, List.copyOf(ctx.res().getHeaders(name)));
+            }
+        }
+        String version = ctx.attribute(ETags.VERSION_ATTRIBUTE);
+        return new CachedResponse(ctx.statusCode(), ctx.res().getContentType(), headers, version, body, expiresAtNanos);
+    }
+
+    private static Set<String> headerNames(Collection<String> names) {
+        Set<String> headerNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headerNames.addAll(names);
+        return headerNames;
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.router.CoalesceAttr;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.Coalesced} endpoint 로 동시에 들어온 같은 요청을 하나로 합친다.
+ * 처리 중인 요청 (leader) 의 응답을 bytes 로 읽어 endpoint 가 설정한 header 와 함께 대기 중인 요청들에게 그대로 전달하며, 결과는 보관하지 않는다.
+ * leader 가 예외로 끝나거나 결과를 읽을 수 없는 경우 (stream 응답 등) 대기 중인 요청은 각자 endpoint 를 호출한다.
+ */
+public final class CoalescingInterceptor implements EndpointInterceptor {
+
+    private final List<String> keyHeaders;
+
+    private final long maxWaitMillis;
+
+    private final SingleFlight<RequestKey, CachedResponse> flights = new SingleFlight<>();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder fallbacks = new LongAdder();
+
+    public CoalescingInterceptor(CoalesceAttr coalesceAttr) {
+        this.keyHeaders = coalesceAttr.keyHeaders();
+        this.maxWaitMillis = coalesceAttr.maxWaitMillis();
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        SingleFlight.Flight<RequestKey, CachedResponse> flight = flights.begin(RequestKey.of(ctx, keyHeaders));
+        if (!flight.isLeader()) {
+            CachedResponse shared = flight.await(maxWaitMillis);
+            if (shared != null) {
+                coalesced.increment();
+                shared.writeTo(ctx);
+                return;
+            }
+            fallbacks.increment();
+            executions.increment();
+            next.handle(ctx);
+            return;
+        }
+
+        CachedResponse result = null;
+        try {
+            executions.increment();
+            Set<String> headersBefore = CachedResponse.headerNames(ctx);
+            next.handle(ctx);
+            result = CachedResponse.capture(ctx, headersBefore, 0);
+        } finally {
+            flight.complete(result);
+        }
+    }
+
+    public CoalescingStats stats() {
+        return new CoalescingStats(executions.sum(), coalesced.sum(), fallbacks.sum());
+    }
+
+}
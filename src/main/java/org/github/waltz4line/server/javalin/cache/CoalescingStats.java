@@ -0,0 +1,11 @@
+package org.github.waltz4line.server.javalin.cache;
+
+/**
+ * endpoint 동일 요청 병합 통계
+ *
+ * @param executions endpoint 를 직접 호출한 요청 수 (fallbacks 포함)
+ * @param coalesced  다른 요청의 결과를 받아 응답한 요청 수
+ * @param fallbacks  대기 시간 초과 또는 leader 실패로 직접 호출한 요청 수
+ */
+public record CoalescingStats(long executions, long coalesced, long fallbacks) {
+}
@@ -0,0 +1,48 @@
+package org.github.waltz4line.server.javalin.cache;
+
+/**
+ * 항목마다 만료 시각을 가지는 bounded cache. 크기 초과 시 {@link TinyLfuCache} 정책으로 제거되며,
+ * 만료된 항목은 조회 시점에 제거한다.
+ */
+public final class ExpiringCache<K, V> {
+
+    private final TinyLfuCache<K, Entry<V>> cache;
+
+    public ExpiringCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.cache = new TinyLfuCache<>(maximumSize);
+    }
+
+    /**
+     * @return 만료되지 않은 값, 없다면 null
+     */
+    public V getIfPresent(K key, long nowNanos) {
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nowNanos - entry.expiresAtNanos >= 0) {
+            cache.invalidate(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtNanos) {
+        cache.put(key, new Entry<>(value, expiresAtNanos));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.github.waltz4line.server.javalin.cache;
+
+/**
+ * TinyLFU 의 접근 빈도 추정을 위한 4-bit count-min sketch.
+ * long 하나에 16개의 counter 를 담으며, 증가 횟수가 sampleSize 에 도달하면 모든 counter 를 절반으로 줄여
+ * 오래된 접근 이력의 영향을 줄인다 (aging). 외부 lock 하에서만 사용한다.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+
+    private final int counterMask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+        int tableSize = Integer.highestOneBit(Math.max(maximumSize, 4) - 1) << 1;
+        this.table = new long[tableSize];
+        this.counterMask = (tableSize << 4) - 1;
+        this.sampleSize = 10 * Math.max(maximumSize, 1);
+    }
+
+    int frequency(Object element) {
+        int hash = spread(element.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int counter = indexOf(hash, i);
+            int count = (int) ((table[counter >>> 4] >>> ((counter & 15) << 2)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object element) {
+        int hash = spread(element.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i));
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int counter) {
+        int index = counter >>> 4;
+        int offset = (counter & 15) << 2;
+        long mask = 0xFL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return (int) value & counterMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.Coalesced} GET endpoint 마다 요청 병합 interceptor 를 생성하고
+ * endpointId 별 통계를 제공한다.
+ */
+public final class RequestCoalescers implements EndpointInterceptorFactory {
+
+    private final Map<String, CoalescingInterceptor> coalescers = new ConcurrentHashMap<>();
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (handlerType != HandlerType.GET || requestMapping.getCoalesce() == null) {
+            return null;
+        }
+        CoalescingInterceptor interceptor = new CoalescingInterceptor(requestMapping.getCoalesce());
+        coalescers.put(requestMapping.getEndpointDocument().getEndpointId(), interceptor);
+        return interceptor;
+    }
+
+    @Override
+    public void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (handlerType == HandlerType.GET && requestMapping.getCoalesce() != null) {
+            coalescers.remove(requestMapping.getEndpointDocument().getEndpointId());
+        }
+    }
+
+    /**
+     * @return endpointId 별 요청 병합 통계
+     */
+    public Map<String, CoalescingStats> stats() {
+        Map<String, CoalescingStats> stats = new LinkedHashMap<>();
+        coalescers.forEach((endpointId, coalescer) -> stats.put(endpointId, coalescer.stats()));
+        return stats;
+    }
+
+}
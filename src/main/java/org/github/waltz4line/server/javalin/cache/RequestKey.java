@@ -0,0 +1,40 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.Context;
+import org.github.waltz4line.server.javalin.auth.Authenticator;
+import org.github.waltz4line.server.javalin.format.BinaryFormat;
+import org.github.waltz4line.server.javalin.format.ContentNegotiation;
+
+import java.util.List;
+
+/**
+ * method + path + query string + 지정한 header 값 + negotiation 된 응답 format 과 인증된 principal 로 요청 key 를 만든다.
+ * principal 은 equals 로 비교하므로 principal 이 다르면 응답을 공유하지 않는다.
+ */
+record RequestKey(String request, Object principal) {
+
+    private static final char SEPARATOR = '\u0000';
+
+    static RequestKey of(Context ctx, List<String> keyHeaders) {
+        StringBuilder key = new StringBuilder(64)
+                .append(ctx.method().name()).append(' ')
+                .append(ctx.path());
+        String queryString = ctx.queryString();
+        if (queryString != null) {
+            key.append('?').append(queryString);
+        }
+        for (String header : keyHeaders) {
+            String value = ctx.header(header);
+            key.append(SEPARATOR);
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        BinaryFormat format = ContentNegotiation.responseFormat(ctx);
+        if (format != null) {
+            key.append(SEPARATOR).append(format.mediaType());
+        }
+        return new RequestKey(key.toString(), Authenticator.principal(ctx));
+    }
+
+}
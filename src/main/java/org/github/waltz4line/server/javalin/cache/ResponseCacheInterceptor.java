@@ -0,0 +1,104 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.router.CacheAttr;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.Cached} endpoint 의 응답을 {@link TinyLfuCache} 에 캐시한다.
+ *
+ * 같은 key 로 동시에 miss 가 발생하면 첫 요청만 endpoint 를 호출하고 나머지는 그 결과를 기다려 함께 사용한다.
+ * (만료 시점의 stampede 방지) 대기 중인 요청은 최대 {@link CacheAttr#maxWaitMillis()} 까지만 기다린 뒤 직접 호출한다.
+ * 인증된 요청은 principal 별로 캐시하며, endpoint 가 설정한 header (Set-Cookie 제외) 도 함께 캐시한다.
+ */
+public final class ResponseCacheInterceptor implements EndpointInterceptor {
+
+    private final long ttlNanos;
+
+    private final long maxWaitMillis;
+
+    private final List<String> keyHeaders;
+
+    private final TinyLfuCache<RequestKey, CachedResponse> cache;
+
+    private final SingleFlight<RequestKey, CachedResponse> loading = new SingleFlight<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCacheInterceptor(CacheAttr cacheAttr) {
+        this.ttlNanos = cacheAttr.ttlNanos();
+        this.maxWaitMillis = cacheAttr.maxWaitMillis();
+        this.keyHeaders = cacheAttr.keyHeaders();
+        this.cache = new TinyLfuCache<>(cacheAttr.maxEntries());
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        RequestKey key = RequestKey.of(ctx, keyHeaders);
+        CachedResponse cached = freshOrNull(key, System.nanoTime());
+        if (cached != null) {
+            hits.increment();
+            cached.writeTo(ctx);
+            return;
+        }
+
+        SingleFlight.Flight<RequestKey, CachedResponse> flight = loading.begin(key);
+        if (!flight.isLeader()) {
+            CachedResponse shared = flight.await(maxWaitMillis);
+            if (shared != null) {
+                hits.increment();
+                shared.writeTo(ctx);
+            } else {
+                misses.increment();
+                next.handle(ctx);
+            }
+            return;
+        }
+
+        CachedResponse loaded = null;
+        try {
+            loaded = freshOrNull(key, System.nanoTime());
+            if (loaded != null) {
+                hits.increment();
+                loaded.writeTo(ctx);
+                return;
+            }
+            misses.increment();
+            Set<String> headersBefore = CachedResponse.headerNames(ctx);
+            next.handle(ctx);
+            if (ctx.statusCode() == HttpStatus.OK.getCode()) {
+                loaded = CachedResponse.capture(ctx, headersBefore, System.nanoTime() + ttlNanos);
+            }
+            if (loaded != null) {
+                cache.put(key, loaded);
+            }
+        } finally {
+            flight.complete(loaded);
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), cache.evictionCount(), cache.size());
+    }
+
+    private CachedResponse freshOrNull(RequestKey key, long nowNanos) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.isFresh(nowNanos)) {
+            cache.invalidate(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+}
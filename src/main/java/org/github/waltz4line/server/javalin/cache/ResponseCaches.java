@@ -0,0 +1,45 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.Cached} GET endpoint 마다 응답 캐시를 생성하고 endpointId 별 통계를 제공한다.
+ */
+public final class ResponseCaches implements EndpointInterceptorFactory {
+
+    private final Map<String, ResponseCacheInterceptor> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (handlerType != HandlerType.GET || requestMapping.getCache() == null) {
+            return null;
+        }
+        ResponseCacheInterceptor interceptor = new ResponseCacheInterceptor(requestMapping.getCache());
+        caches.put(requestMapping.getEndpointDocument().getEndpointId(), interceptor);
+        return interceptor;
+    }
+
+    @Override
+    public void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (handlerType == HandlerType.GET && requestMapping.getCache() != null) {
+            caches.remove(requestMapping.getEndpointDocument().getEndpointId());
+        }
+    }
+
+    /**
+     * @return endpointId 별 캐시 통계
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        caches.forEach((endpointId, cache) -> stats.put(endpointId, cache.stats()));
+        return stats;
+    }
+
+}
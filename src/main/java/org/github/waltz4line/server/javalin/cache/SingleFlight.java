@@ -0,0 +1,68 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 같은 key 로 동시에 수행되는 작업을 하나로 합친다.
+ * 먼저 {@link #begin(Object)} 한 요청이 leader 가 되어 작업을 수행하고, 이후 요청 (follower) 은 leader 의 결과를 기다린다.
+ * leader 는 성공/실패와 관계없이 반드시 {@link Flight#complete(Object)} 를 호출해야 한다.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+    Flight<K, V> begin(K key) {
+        CompletableFuture<V> candidate = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, candidate);
+        return inFlight == null
+                ? new Flight<>(this, key, candidate, true)
+                : new Flight<>(this, key, inFlight, false);
+    }
+
+    static final class Flight<K, V> {
+
+        private final SingleFlight<K, V> owner;
+
+        private final K key;
+
+        private final CompletableFuture<V> result;
+
+        private final boolean leader;
+
+        private Flight(SingleFlight<K, V> owner, K key, CompletableFuture<V> result, boolean leader) {
+            this.owner = owner;
+            this.key = key;
+            this.result = result;
+            this.leader = leader;
+        }
+
+        boolean isLeader() {
+            return leader;
+        }
+
+        /**
+         * leader 의 결과를 follower 에게 전달한다. 공유할 결과가 없다면 null 을 전달한다.
+         */
+        void complete(V value) {
+            result.complete(value);
+            owner.flights.remove(key, result);
+        }
+
+        /**
+         * @return leader 의 결과. timeout 이 지나거나 leader 가 공유할 결과를 만들지 못했다면 null
+         */
+        V await(long timeoutMillis) throws InterruptedException {
+            try {
+                return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                return null;
+            }
+        }
+
+    }
+
+}
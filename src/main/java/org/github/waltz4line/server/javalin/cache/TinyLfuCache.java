@@ -0,0 +1,223 @@
+package org.github.waltz4line.server.javalin.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * W-TinyLFU 정책의 bounded cache.
+ *
+ * <pre>
+ * window (LRU, 1%)  -&gt;  main: probation (SLRU, 20%) / protected (SLRU, 80%)
+ * </pre>
+ * 새 항목은 window 에 들어가고, window 에서 밀려난 후보는 probation 의 LRU victim 과
+ * {@link FrequencySketch} 로 추정한 접근 빈도를 비교해 더 자주 쓰인 쪽만 남긴다.
+ *
+ * 조회는 {@link ConcurrentHashMap} 에서 lock 없이 수행하며, 접근 순서/빈도 갱신은 tryLock 에 성공한 경우에만 반영한다.
+ * (경합 시 일부 접근 기록은 유실될 수 있음) 추가/삭제는 lock 하에서 수행한다.
+ */
+final class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final FrequencySketch sketch;
+
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+    private final int maxWindow;
+    private final int maxProtected;
+    private final int maxMain;
+
+    private final LongAdder evictions = new LongAdder();
+
+    TinyLfuCache(int maximumSize) {
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxMain = Math.max(1, maximumSize - maxWindow);
+        this.maxProtected = Math.max(1, maxMain * 4 / 5);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (lock.tryLock()) {
+            try {
+                if (node.queue >= 0) {
+                    sketch.increment(key);
+                    onAccess(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    void put(K key, V value) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                onAccess(node);
+                return;
+            }
+            node = new Node<>(key, value);
+            data.put(key, node);
+            node.queue = WINDOW;
+            window.addLast(node);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(K key, V expected) {
+        lock.lock();
+        try {
+            Node<K, V> node = data.get(key);
+            if (node != null && node.value == expected) {
+                data.remove(key);
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return data.size();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                if (protectedQueue.size > maxProtected) {
+                    Node<K, V> demoted = protectedQueue.pollFirst();
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+            case PROTECTED -> protectedQueue.moveToLast(node);
+            default -> {
+                // 이미 제거된 항목
+            }
+        }
+    }
+
+    private void evict() {
+        while (window.size > maxWindow) {
+            Node<K, V> candidate = window.pollFirst();
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            if (probation.size + protectedQueue.size > maxMain) {
+                Node<K, V> victim = probation.peekFirst();
+                if (victim == candidate || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                    victim = candidate;
+                }
+                probation.remove(victim);
+                victim.queue = -1;
+                data.remove(victim.key, victim);
+                evictions.increment();
+            }
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> window.remove(node);
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> protectedQueue.remove(node);
+            default -> {
+                return;
+            }
+        }
+        node.queue = -1;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private int queue = -1;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class AccessQueue<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private int size;
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        Node<K, V> peekFirst() {
+            return head;
+        }
+
+        Node<K, V> pollFirst() {
+            Node<K, V> first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.github.waltz4line.server.javalin.concurrency;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.javalin.bulkhead.Bulkheads;
+import org.github.waltz4line.server.javalin.error.ErrorResponseBody;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * annotation endpoint 전체의 동시 실행 수를 {@link GradientLimit} 이 추정한 limit 으로 제한한다.
+ * limit 을 넘는 요청은 endpoint 를 호출하지 않고 503 과 Retry-After (초) 로 응답하므로, 과부하 시 queue 가 쌓이기 전에 요청을 덜어낸다.
+ *
+ * exempt 로 지정한 tag / endpointId 는 제한하지 않으며 응답 시간도 limit 계산에 포함하지 않는다.
+ * bulkhead 는 이 interceptor 안쪽에서 실행되므로, bulkhead 에서 permit 을 기다린 시간은 응답 시간에서 빼고
+ * bulkhead 가 거절한 요청은 limit 계산에 포함하지 않는다. (endpoint 가 느려진 것이 아니라 bulkhead 가 가득 찬 것이므로)
+ * OpenAPI 문서, readiness 등 annotation endpoint 가 아닌 endpoint 는 대상이 아니다.
+ */
+public final class AdaptiveConcurrencyLimit implements EndpointInterceptorFactory, EndpointInterceptor {
+
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    private static final ErrorResponseBody SERVICE_UNAVAILABLE =
+            ErrorResponseBody.of(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE", "Server is overloaded");
+
+    private final GradientLimit gradientLimit;
+
+    private final Set<String> exempt;
+
+    private final String retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+
+    private final LongAdder shed = new LongAdder();
+
+    private AdaptiveConcurrencyLimit(JavalinContextConfig.JavalinConcurrencyLimit config) {
+        this.gradientLimit = new GradientLimit(config);
+        this.exempt = Set.copyOf(config.exempt());
+        this.retryAfter = String.valueOf(config.retryAfterSeconds());
+    }
+
+    /**
+     * @return 사용하지 않는다면 null
+     */
+    public static AdaptiveConcurrencyLimit of(JavalinContextConfig.JavalinConcurrencyLimit config) {
+        return config != null && config.enable() ? new AdaptiveConcurrencyLimit(config) : null;
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        RequestMapperAttr.EndpointDocument document = requestMapping.getEndpointDocument();
+        return exempt.contains(document.getTag()) || exempt.contains(document.getEndpointId()) ? null : this;
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        int current = inFlight.incrementAndGet();
+        if (current > gradientLimit.limit()) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            gradientLimit.shed();
+            ctx.header(HEADER_RETRY_AFTER, retryAfter);
+            SERVICE_UNAVAILABLE.writeTo(ctx);
+            return;
+        }
+        accepted.increment();
+        long start = System.nanoTime();
+        try {
+            next.handle(ctx);
+        } finally {
+            long now = System.nanoTime();
+            inFlight.decrementAndGet();
+            Long bulkheadWaitNanos = ctx.attribute(Bulkheads.WAIT_NANOS_ATTRIBUTE);
+            if (bulkheadWaitNanos == null) {
+                gradientLimit.sample(start, now, 0, current);
+            } else if (bulkheadWaitNanos != Bulkheads.REJECTED) {
+                gradientLimit.sample(start, now, bulkheadWaitNanos, current);
+            }
+        }
+    }
+
+    public ConcurrencyLimitStats stats() {
+        return new ConcurrencyLimitStats(gradientLimit.limit(), inFlight.get(), accepted.sum(), shed.sum(),
+                gradientLimit.lastShedRatio(), millis(gradientLimit.sampleRttNanos()), millis(gradientLimit.minRttNanos()));
+    }
+
+    private static double millis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,16 @@
+package org.github.waltz4line.server.javalin.concurrency;
+
+/**
+ * 적응형 동시 실행 수 제한 현황
+ *
+ * @param limit           현재 limit. minRtt 측정 중에는 minLimit
+ * @param inFlight        limit 대상 endpoint 에서 처리 중인 요청 수
+ * @param accepted        처리한 요청 수
+ * @param shed            limit 초과로 거절한 요청 수
+ * @param recentShedRatio 마지막 window 에서 거절한 요청 비율 (0.0 ~ 1.0)
+ * @param recentRttMillis 마지막 window 의 응답 시간 중앙값
+ * @param minRttMillis    낮은 동시 실행 수에서 측정한 응답 시간 중앙값. recentRttMillis 가 이 값보다 커지면 limit 을 줄인다.
+ */
+public record ConcurrencyLimitStats(int limit, int inFlight, long accepted, long shed,
+                                    double recentShedRatio, double recentRttMillis, double minRttMillis) {
+}
@@ -0,0 +1,219 @@
+package org.github.waltz4line.server.javalin.concurrency;
+
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 관측한 응답 시간으로 동시 실행 수 limit 을 추정한다.
+ *
+ * 주기적으로 limit 을 minLimit 으로 낮춘 채 {@value #MIN_RTT_SAMPLES} 건의 응답 시간 중앙값을 부하가 없을 때의 응답 시간 (minRtt) 으로 측정하고,
+ * 이후 window 마다 응답 시간 중앙값 (sampleRtt) 과 비교해 limit 을 조정한다.
+ * <pre>
+ * gradient = minRtt * (1 + {@value #RTT_BUFFER}) / sampleRtt   ({@value #MIN_GRADIENT} ~ {@value #MAX_GRADIENT})
+ * limit    = gradient * limit + sqrt(gradient * limit)
+ * </pre>
+ * 응답 시간이 늘어나면 (queue 가 쌓이기 시작하면) 그 비율만큼 limit 을 줄이고, 그렇지 않다면 sqrt(limit) 만큼 여유를 두고 늘린다.
+ * 처리 중인 요청이 limit 의 절반도 안 된다면 limit 을 늘리지 않는다.
+ *
+ * 장기 이동 평균을 기준으로 삼으면 과부하 상태에서 시작하거나 과부하가 이어질 때 기준이 함께 올라가므로, 기준은 낮은 동시 실행 수에서 다시 측정한다.
+ *
+ * 요청 처리 thread 는 lock 없이 현재 {@link Window} 에 응답 시간을 기록한다. window 가 끝나면 window 를 닫는 데 성공한 (CAS) thread 하나만
+ * 중앙값과 limit 을 계산하고 다음 window 를 시작하며, 나머지 thread 는 기다리지 않는다.
+ */
+final class GradientLimit {
+
+    private static final double RTT_BUFFER = 0.25;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private static final double MAX_GRADIENT = 2.0;
+
+    private static final int MIN_RTT_SAMPLES = 50;
+
+    private static final int MAX_WINDOW_SAMPLES = 1024;
+
+    /* minRtt 측정 주기에 더하는 임의 지연 비율. 여러 instance 가 동시에 limit 을 낮추지 않도록 한다. */
+    private static final double MIN_RTT_JITTER = 0.15;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long windowNanos;
+
+    private final long minRttIntervalNanos;
+
+    /* window 를 닫은 thread 만 접근하며, 다음 window 를 publish 하기 전에 기록한다. */
+    private long nextMinRttAt;
+
+    private volatile Window window;
+
+    private volatile int limit;
+
+    private volatile long minRttNanos;
+
+    private volatile long sampleRttNanos;
+
+    private volatile double lastShedRatio;
+
+    GradientLimit(JavalinContextConfig.JavalinConcurrencyLimit config) {
+        if (config.minLimit() < 1 || config.maxLimit() < config.minLimit()) {
+            throw new IllegalArgumentException("Invalid concurrency limit range: " + config.minLimit() + " ~ " + config.maxLimit());
+        }
+        this.minLimit = config.minLimit();
+        this.maxLimit = config.maxLimit();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.windowMillis()));
+        this.minRttIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, config.minRttIntervalMillis()));
+        this.limit = Math.max(minLimit, Math.min(maxLimit, config.initialLimit()));
+        this.window = new Window(System.nanoTime(), true);
+    }
+
+    int limit() {
+        return window.measuringMinRtt ? minLimit : limit;
+    }
+
+    void shed() {
+        window.shed.increment();
+    }
+
+    /**
+     * @param start     요청 처리 시작 시각
+     * @param waitNanos 응답 시간에서 제외할 대기 시간
+     * @param inFlight  요청을 받은 시점에 처리 중이던 요청 수 (자신 포함)
+     */
+    void sample(long start, long now, long waitNanos, int inFlight) {
+        Window current = window;
+        if (start < current.start) {
+            // 이전 window 의 limit 으로 실행된 요청
+            return;
+        }
+        current.add(now - start - waitNanos, inFlight);
+        boolean completed = current.measuringMinRtt
+                ? current.seen.get() >= MIN_RTT_SAMPLES
+                : now - current.start >= windowNanos;
+        if (completed && current.close()) {
+            window = complete(current, now);
+        }
+    }
+
+    /*
+     * window 를 닫은 thread 에서만 호출된다.
+     * @return 다음 window
+     */
+    private Window complete(Window completed, long now) {
+        long median = completed.median();
+        if (completed.measuringMinRtt) {
+            minRttNanos = median;
+            long jitter = (long) (minRttIntervalNanos * MIN_RTT_JITTER * ThreadLocalRandom.current().nextDouble());
+            nextMinRttAt = now + minRttIntervalNanos + jitter;
+            return new Window(now, false);
+        }
+        update(completed, median);
+        return new Window(now, now - nextMinRttAt >= 0);
+    }
+
+    private void update(Window completed, long sampleRtt) {
+        long shed = completed.shed.sum();
+        sampleRttNanos = sampleRtt;
+        lastShedRatio = (double) shed / (shed + completed.seen.get());
+        int current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(MAX_GRADIENT,
+                minRttNanos * (1 + RTT_BUFFER) / Math.max(1, sampleRtt)));
+        double newLimit = gradient * current + Math.sqrt(gradient * current);
+        if (newLimit > current && completed.maxInFlight.get() < current / 2.0) {
+            return;
+        }
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(newLimit)));
+    }
+
+    long minRttNanos() {
+        return minRttNanos;
+    }
+
+    long sampleRttNanos() {
+        return sampleRttNanos;
+    }
+
+    double lastShedRatio() {
+        return lastShedRatio;
+    }
+
+    /**
+     * limit 을 계산하는 구간 하나의 응답 시간. 여러 요청 처리 thread 가 동시에 기록한다.
+     */
+    private static final class Window {
+
+        private final long start;
+
+        private final boolean measuringMinRtt;
+
+        /* 0 은 자리를 차지했지만 아직 기록되지 않은 sample 이다. */
+        private final AtomicLongArray samples = new AtomicLongArray(MAX_WINDOW_SAMPLES);
+
+        private final AtomicLong seen = new AtomicLong();
+
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private final LongAdder shed = new LongAdder();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Window(long start, boolean measuringMinRtt) {
+            this.start = start;
+            this.measuringMinRtt = measuringMinRtt;
+        }
+
+        /*
+         * 응답 시간을 최대 MAX_WINDOW_SAMPLES 개까지 균일하게 보관한다. (reservoir sampling)
+         */
+        private void add(long rtt, int inFlight) {
+            long sequence = seen.getAndIncrement();
+            long value = Math.max(1, rtt);
+            if (sequence < MAX_WINDOW_SAMPLES) {
+                samples.set((int) sequence, value);
+            } else {
+                long index = ThreadLocalRandom.current().nextLong(sequence + 1);
+                if (index < MAX_WINDOW_SAMPLES) {
+                    samples.set((int) index, value);
+                }
+            }
+            if (inFlight > maxInFlight.get()) {
+                maxInFlight.accumulateAndGet(inFlight, Math::max);
+            }
+        }
+
+        /**
+         * @return window 를 닫았다면 true. 이미 다른 thread 가 닫았다면 false
+         */
+        private boolean close() {
+            return !closed.get() && closed.compareAndSet(false, true);
+        }
+
+        private long median() {
+            int size = (int) Math.min(seen.get(), MAX_WINDOW_SAMPLES);
+            long[] sorted = new long[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                long value = samples.get(i);
+                if (value > 0) {
+                    sorted[count++] = value;
+                }
+            }
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(sorted, 0, count);
+            return sorted[count / 2];
+        }
+
+    }
+
+}
@@ -1,7 +1,64 @@
 package org.github.waltz4line.server.javalin.error;
 
+import io.javalin.http.HttpStatus;
+
+/**
+ * status 와 errorCode 를 가지는 예외. {@link ErrorMappings} 에 의해 {@link ErrorResponse} 로 응답된다.
+ *
+ * 요청 처리 흐름에서 자주 발생하는 예외이므로 기본적으로 stack trace 를 만들지 않는다.
+ * 자주 사용하는 예외는 상수로 선언해 재사용할 수 있으며, 이 경우 응답 body 도 한 번만 직렬화된다.
+ */
 public class ErrorCodeException extends RuntimeException {
+
+    private static final String INTERNAL_SERVER_ERROR = "INTERNAL_SERVER_ERROR";
+
+    private final int status;
+
+    private final String errorCode;
+
+    /* 직렬화하지 않는다. 역직렬화 후 처음 사용할 때 다시 만든다. */
+    private transient volatile ErrorResponseBody body;
+
     public ErrorCodeException(String message) {
-        super(message);
+        this(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR, message);
     }
+
+    public ErrorCodeException(HttpStatus status, String errorCode, String message) {
+        this(status, errorCode, message, null, false);
+    }
+
+    public ErrorCodeException(HttpStatus status, String errorCode, String message, Throwable cause) {
+        this(status, errorCode, message, cause, false);
+    }
+
+    /**
+     * @param writableStackTrace stack trace 가 필요한 경우 (e.g. 예상하지 못한 오류를 감싸는 경우) true
+     */
+    protected ErrorCodeException(HttpStatus status, String errorCode, String message, Throwable cause, boolean writableStackTrace) {
+        super(message, cause, false, writableStackTrace);
+        this.status = status.getCode();
+        this.errorCode = errorCode;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public String errorCode() {
+        return errorCode;
+    }
+
+    public ErrorResponse toErrorResponse() {
+        return new ErrorResponse(errorCode, getMessage());
+    }
+
+    ErrorResponseBody body() {
+        ErrorResponseBody current = body;
+        if (current == null) {
+            current = ErrorResponseBody.of(status, toErrorResponse());
+            body = current;
+        }
+        return current;
+    }
+
 }
@@ -0,0 +1,97 @@
+package org.github.waltz4line.server.javalin.error;
+
+import io.javalin.http.Context;
+import io.javalin.http.ExceptionHandler;
+import io.javalin.http.HttpResponseException;
+import io.javalin.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 예외 class 별 {@link ErrorResponse} mapping table. Javalin 의 exception handler 로 등록된다.
+ *
+ * 예외 class 마다 등록된 mapping 을 (상위 class 를 따라가며) 한 번만 찾아 {@link ClassValue} 에 보관하고,
+ * 응답 body 는 미리 직렬화한 bytes 를 그대로 쓴다.
+ * {@link ErrorCodeException} 은 예외가 가진 status / errorCode 로 응답한다.
+ *
+ * mapping 되지 않은 예외는 500 으로 응답하며, 예외 class 별로 처음 한 번만 stack trace 를 warn 으로 남기고 이후에는 debug 로 남긴다.
+ * {@link io.javalin.http.HttpResponseException} 은 Javalin 기본 handler 가 처리한다.
+ */
+public final class ErrorMappings implements ExceptionHandler<Exception> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorMappings.class);
+
+    private static final ErrorResponseBody INTERNAL_SERVER_ERROR =
+            ErrorResponseBody.of(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", "Internal server error");
+
+    private final Map<Class<? extends Exception>, ErrorResponseBody> registered = new ConcurrentHashMap<>();
+
+    private final ClassValue<Mapping> resolved = new ClassValue<>() {
+        @Override
+        protected Mapping computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                ErrorResponseBody body = registered.get(current);
+                if (body != null) {
+                    return new Mapping(body, false);
+                }
+            }
+            return new Mapping(INTERNAL_SERVER_ERROR, true);
+        }
+    };
+
+    /**
+     * 예외 class (및 하위 class) 를 고정된 에러 응답으로 mapping 한다. 서버 시작 전에 등록해야 한다.
+     */
+    public void register(Class<? extends Exception> type, HttpStatus status, String errorCode, String errorDescription) {
+        Objects.requireNonNull(type, "type must not be null");
+        registered.put(type, ErrorResponseBody.of(status, errorCode, errorDescription));
+    }
+
+    /**
+     * @return 예외를 응답할 때 사용하는 status
+     */
+    public int status(Exception exception) {
+        if (exception instanceof ErrorCodeException errorCodeException) {
+            return errorCodeException.body().status();
+        }
+        if (exception instanceof HttpResponseException httpResponseException) {
+            return httpResponseException.getStatus();
+        }
+        return resolved.get(exception.getClass()).body.status();
+    }
+
+    @Override
+    public void handle(Exception exception, Context ctx) {
+        if (exception instanceof ErrorCodeException errorCodeException) {
+            errorCodeException.body().writeTo(ctx);
+            return;
+        }
+        Mapping mapping = resolved.get(exception.getClass());
+        if (mapping.unhandled) {
+            logUnhandled(mapping, exception, ctx);
+        }
+        mapping.body.writeTo(ctx);
+    }
+
+    private static void logUnhandled(Mapping mapping, Exception exception, Context ctx) {
+        if (mapping.logged.compareAndSet(false, true)) {
+            LOGGER.warn("Unhandled exception. {} {}", ctx.method(), ctx.path(), exception);
+        } else if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Unhandled exception. {} {}", ctx.method(), ctx.path(), exception);
+        }
+    }
+
+    private record Mapping(ErrorResponseBody body, boolean unhandled, AtomicBoolean logged) {
+
+        private Mapping(ErrorResponseBody body, boolean unhandled) {
+            this(body, unhandled, new AtomicBoolean());
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.github.waltz4line.server.javalin.error;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+/**
+ * status 와 미리 직렬화해 둔 {@link ErrorResponse} JSON bytes.
+ * 고정된 에러 응답은 상수로 만들어 두고 요청마다 직렬화하지 않는다.
+ */
+public final class ErrorResponseBody {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int status;
+
+    private final byte[] bytes;
+
+    private ErrorResponseBody(int status, byte[] bytes) {
+        this.status = status;
+        this.bytes = bytes;
+    }
+
+    public static ErrorResponseBody of(HttpStatus status, String errorCode, String errorDescription) {
+        return of(status.getCode(), new ErrorResponse(errorCode, errorDescription));
+    }
+
+    public static ErrorResponseBody of(int status, ErrorResponse errorResponse) {
+        try {
+            return new ErrorResponseBody(status, MAPPER.writeValueAsBytes(errorResponse));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize error response: " + errorResponse, e);
+        }
+    }
+
+    public int status() {
+        return status;
+    }
+
+    /**
+     * @return 직렬화된 JSON. 공유되는 배열이므로 수정하지 않는다.
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public void writeTo(Context ctx) {
+        ctx.status(status).contentType(ContentType.APPLICATION_JSON).result(bytes);
+    }
+
+}
@@ -3,15 +3,31 @@ package org.github.waltz4line.server.javalin.error;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.MimeTypes;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.handler.ErrorHandler;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Javalin 에 도달하기 전에 Jetty 가 응답하는 에러 (잘못된 요청, header 크기 초과 등) 를 {@link ErrorResponse} JSON 으로 응답한다.
+ * HTTP parsing 단계의 에러 ({@link #badMessageError}) 와 sendError 로 발생한 에러 모두 같은 body 를 사용한다.
+ * status 별 응답 body 는 처음 사용할 때 한 번만 직렬화한다. (Jetty 가 전달하는 상세 message 는 응답하지 않는다.)
+ */
 public class JettyErrorHandler extends ErrorHandler {
 
+    private static final int MAX_STATUS = 600;
+
+    private static final HttpField CONTENT_TYPE_JSON = new HttpField(HttpHeader.CONTENT_TYPE, MimeTypes.Type.APPLICATION_JSON.asString());
+
+    private final AtomicReferenceArray<ErrorResponseBody> bodies = new AtomicReferenceArray<>(MAX_STATUS);
+
     @Override
     public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
         response.setHeader("Server", "");
@@ -19,15 +35,37 @@ public class JettyErrorHandler extends ErrorHandler {
     }
 
     @Override
-    protected void handleErrorPage(HttpServletRequest request, Writer writer, int code, String message) throws IOException {
-        writer.write("<html>\n<head>\n");
-        super.writeErrorPageHead(request, writer, code, message);
-        writer.write("</head>\n<body><h1>");
-        message = message == null ? HttpStatus.getMessage(code) : message;
-        writer.write(String.valueOf(code));
-        writer.write("</h1>\n<pre>");
-        writer.write(message);
-        writer.write("\n</pre>\n</body>\n</html>\n");
+    protected void generateAcceptableResponse(Request baseRequest, HttpServletRequest request, HttpServletResponse response,
+                                              int code, String message) throws IOException {
+        byte[] bytes = body(code).bytes();
+        baseRequest.getResponse().setContentType(MimeTypes.Type.APPLICATION_JSON.asString());
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        baseRequest.setHandled(true);
+    }
+
+    @Override
+    public ByteBuffer badMessageError(int status, String reason, HttpFields.Mutable fields) {
+        fields.put(CONTENT_TYPE_JSON);
+        return ByteBuffer.wrap(body(status).bytes());
+    }
+
+    private ErrorResponseBody body(int code) {
+        if (code < 0 || code >= MAX_STATUS) {
+            return newBody(code);
+        }
+        ErrorResponseBody body = bodies.get(code);
+        if (body == null) {
+            body = newBody(code);
+            bodies.compareAndSet(code, null, body);
+        }
+        return body;
+    }
+
+    private static ErrorResponseBody newBody(int code) {
+        HttpStatus.Code status = HttpStatus.getCode(code);
+        String errorCode = status == null ? String.valueOf(code) : status.name();
+        return ErrorResponseBody.of(code, new ErrorResponse(errorCode, HttpStatus.getMessage(code)));
     }
 
 }
@@ -0,0 +1,58 @@
+package org.github.waltz4line.server.javalin.etag;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+
+import java.io.InputStream;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.ConditionalGet} endpoint 의 응답 body 로 ETag 를 만들고
+ * If-None-Match 가 일치하면 body 없이 304 를 응답한다.
+ * handler 가 버전 정보를 직접 제공한 경우에는 body 를 읽지 않는다.
+ */
+public final class ETagInterceptor implements EndpointInterceptor {
+
+    private static final ETagInterceptor INSTANCE = new ETagInterceptor();
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private ETagInterceptor() {
+    }
+
+    public static EndpointInterceptorFactory factory() {
+        return (handlerType, requestMapping) -> handlerType == HandlerType.GET && requestMapping.isConditionalGet()
+                ? INSTANCE
+                : null;
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        next.handle(ctx);
+        if (ctx.attribute(ETags.VERSION_ATTRIBUTE) != null) {
+            if (ctx.status() == HttpStatus.NOT_MODIFIED) {
+                ctx.result(EMPTY);
+            }
+            return;
+        }
+        if (ctx.statusCode() != HttpStatus.OK.getCode()) {
+            return;
+        }
+        InputStream result = ctx.resultInputStream();
+        if (result == null) {
+            return;
+        }
+        byte[] body = result.readAllBytes();
+        String etag = ETags.of(body);
+        ctx.header(ETags.HEADER_ETAG, etag);
+        if (ETags.matches(ctx.header(ETags.HEADER_IF_NONE_MATCH), etag)) {
+            ctx.status(HttpStatus.NOT_MODIFIED).result(EMPTY);
+        } else {
+            ctx.result(body);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.github.waltz4line.server.javalin.etag;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+
+/**
+ * ETag 생성 및 If-None-Match 비교.
+ */
+public final class ETags {
+
+    public static final String HEADER_ETAG = "ETag";
+
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    /**
+     * handler 가 버전 정보를 제공했음을 표시하는 context attribute.
+     * 설정되어 있다면 {@link ETagInterceptor} 는 body hash 를 계산하지 않는다.
+     */
+    public static final String VERSION_ATTRIBUTE = ETags.class.getName() + ".version";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ETags() {
+    }
+
+    /**
+     * handler 에서 body 를 만들기 전에 호출한다. ETag 를 설정하고 If-None-Match 와 일치하면 304 를 설정한다.
+     *
+     * <pre>
+     * if (ETags.notModified(ctx, Long.toString(revision))) {
+     *     return;
+     * }
+     * </pre>
+     *
+     * @return If-None-Match 가 일치하여 body 를 응답할 필요가 없다면 true
+     */
+    public static boolean notModified(Context ctx, String version) {
+        String etag = quote(version);
+        ctx.attribute(VERSION_ATTRIBUTE, etag);
+        ctx.header(HEADER_ETAG, etag);
+        if (matches(ctx.header(HEADER_IF_NONE_MATCH), etag)) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return body bytes 의 XXH64 hash 로 만든 strong ETag
+     */
+    public static String of(byte[] body) {
+        long hash = XxHash64.hash(body);
+        char[] etag = new char[18];
+        etag[0] = '"';
+        for (int i = 16; i >= 1; i--) {
+            etag[i] = HEX[(int) (hash & 0xF)];
+            hash >>>= 4;
+        }
+        etag[17] = '"';
+        return new String(etag);
+    }
+
+    static String quote(String version) {
+        if (version.length() >= 2 && version.charAt(0) == '"' && version.charAt(version.length() - 1) == '"') {
+            return version;
+        }
+        return '"' + version + '"';
+    }
+
+    /**
+     * If-None-Match 는 weak comparison 을 사용한다. (RFC 9110 13.1.2)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int start = 0;
+        while (start < length) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            String candidate = ifNoneMatch.substring(start, end).trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(etag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+}
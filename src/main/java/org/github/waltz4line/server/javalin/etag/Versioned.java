@@ -0,0 +1,32 @@
+package org.github.waltz4line.server.javalin.etag;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * endpoint 반환 값으로 사용하면 body 를 만들기 전에 버전 정보로 조건부 요청을 처리한다.
+ * If-None-Match 가 version 과 일치하면 body supplier 를 호출하지 않고 304 를 응답하며,
+ * 그렇지 않으면 ETag 를 설정하고 supplier 의 결과를 JSON 으로 응답한다.
+ *
+ * <pre>
+ * public Versioned&lt;Item&gt; item(Context ctx) {
+ *     long revision = repository.revision(id);
+ *     return Versioned.of(Long.toString(revision), () -&gt; repository.load(id));
+ * }
+ * </pre>
+ *
+ * @param version 응답 body 가 바뀌면 함께 바뀌는 값 (revision, 수정 시각 등)
+ * @param body    응답 body 를 만드는 supplier
+ */
+public record Versioned<T>(String version, Supplier<T> body) {
+
+    public Versioned {
+        Objects.requireNonNull(version, "version");
+        Objects.requireNonNull(body, "body");
+    }
+
+    public static <T> Versioned<T> of(String version, Supplier<T> body) {
+        return new Versioned<>(version, body);
+    }
+
+}
@@ -3,6 +3,10 @@ package org.github.waltz4line.server.javalin.event;
 
 import io.javalin.http.Context;
 
+/**
+ * 인증이 필요한 endpoint ({@link org.github.waltz4line.server.router.annotation.AuthMode#NONE} 이 아닌 endpoint) 에서만 호출된다.
+ * credential 검증 결과를 캐시하려면 {@link org.github.waltz4line.server.javalin.auth.CredentialVerifier} 를 사용한다.
+ */
 @FunctionalInterface
 public interface AuthenticationHandler {
 
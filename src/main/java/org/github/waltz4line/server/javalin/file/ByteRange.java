@@ -0,0 +1,56 @@
+package org.github.waltz4line.server.javalin.file;
+
+/**
+ * Range 요청 헤더의 단일 byte range. (multipart/byteranges 는 지원하지 않음)
+ *
+ * @param start 시작 위치 (포함)
+ * @param end   끝 위치 (포함)
+ */
+record ByteRange(long start, long end) {
+
+    /**
+     * 범위를 만족할 수 없는 Range 요청
+     */
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return 처리할 range. Range 헤더가 없거나, 형식이 잘못되었거나, 여러 range 를 요청한 경우 null (전체 응답)
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
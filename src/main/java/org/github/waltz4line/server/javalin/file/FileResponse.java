@@ -0,0 +1,59 @@
+package org.github.waltz4line.server.javalin.file;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * endpoint 반환 값으로 사용하면 파일 (또는 파일의 일부 구간) 을 복사 없이 응답한다.
+ * Range 요청, Content-Length, Last-Modified / ETag 기반 조건부 요청을 처리한다.
+ *
+ * <pre>
+ * public FileResponse report(Context ctx) {
+ *     return FileResponse.of(reportPath).asAttachment("report.csv").withMaxAge(Duration.ofMinutes(10));
+ * }
+ * </pre>
+ *
+ * @param path        응답할 파일
+ * @param offset      파일 내 응답 시작 위치
+ * @param length      응답할 길이. -1 이면 파일 끝까지
+ * @param contentType Content-Type. null 이면 파일 이름으로 추정한다.
+ * @param fileName    null 이 아니면 Content-Disposition: attachment 로 응답한다.
+ * @param maxAge      null 이 아니면 Cache-Control: max-age 로 응답한다.
+ */
+public record FileResponse(Path path, long offset, long length, String contentType, String fileName, Duration maxAge) {
+
+    public FileResponse {
+        Objects.requireNonNull(path, "path");
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (length < -1) {
+            throw new IllegalArgumentException("length must be -1 or positive");
+        }
+    }
+
+    public static FileResponse of(Path path) {
+        return new FileResponse(path, 0, -1, null, null, null);
+    }
+
+    /**
+     * 파일의 일부 구간을 하나의 리소스로 응답한다. (e.g. 여러 blob 이 저장된 파일)
+     */
+    public static FileResponse of(Path path, long offset, long length) {
+        return new FileResponse(path, offset, length, null, null, null);
+    }
+
+    public FileResponse withContentType(String contentType) {
+        return new FileResponse(path, offset, length, contentType, fileName, maxAge);
+    }
+
+    public FileResponse asAttachment(String fileName) {
+        return new FileResponse(path, offset, length, contentType, fileName, maxAge);
+    }
+
+    public FileResponse withMaxAge(Duration maxAge) {
+        return new FileResponse(path, offset, length, contentType, fileName, maxAge);
+    }
+
+}
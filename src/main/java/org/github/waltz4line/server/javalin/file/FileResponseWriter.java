@@ -0,0 +1,245 @@
+package org.github.waltz4line.server.javalin.file;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import io.javalin.http.NotFoundResponse;
+import org.eclipse.jetty.server.HttpOutput;
+import org.github.waltz4line.server.javalin.etag.ETags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link FileResponse} 를 응답한다.
+ *
+ * 파일 내용은 heap 으로 복사하지 않는다. Jetty {@link HttpOutput} 이고 구간이 {@link #MAX_MAPPED_BYTES} 이하라면
+ * 구간을 memory-map 하여 {@link HttpOutput#write(ByteBuffer)} 로 전달하고 (큰 buffer 는 aggregate 없이 socket 으로 바로 쓰여진다),
+ * 그 외에는 {@link FileChannel#transferTo} 를 사용한다.
+ * ({@link HttpOutput#sendContent(ByteBuffer)} 는 응답을 완료시키므로 chunk 단위 전송에 사용할 수 없다)
+ *
+ * mapping 은 GC 가 buffer 를 회수할 때 해제되므로 동시에 유지되는 mapping 수를 {@link #MAX_LIVE_MAPPINGS} 로 제한하고,
+ * 초과하면 transferTo 를 사용한다.
+ * 전송 중 파일이 잘리면 (잘린 mapping 을 읽으면 SIGBUS 로 {@link InternalError} 가 발생한다) 전송을 중단한다.
+ * Content-Length 만큼 쓰여지지 않은 응답은 Jetty 가 연결을 닫으므로 client 는 잘린 응답을 받게 된다.
+ */
+public final class FileResponseWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileResponseWriter.class);
+
+    private static final long MAX_MAPPED_BYTES = 8L * 1024 * 1024;
+
+    private static final int MAX_LIVE_MAPPINGS = 64;
+
+    private static final long SMALL_FILE_BYTES = 16 * 1024;
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+
+    private static final Semaphore LIVE_MAPPINGS = new Semaphore(MAX_LIVE_MAPPINGS);
+
+    private static final Cleaner MAPPING_CLEANER = Cleaner.create();
+
+    private FileResponseWriter() {
+    }
+
+    public static void write(Context ctx, FileResponse file) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file.path(), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            throw new NotFoundResponse();
+        }
+        if (!attributes.isRegularFile()) {
+            throw new NotFoundResponse();
+        }
+        long fileSize = attributes.size();
+        long offset = Math.min(file.offset(), fileSize);
+        long size = file.length() < 0 ? fileSize - offset : Math.min(file.length(), fileSize - offset);
+        long lastModifiedSeconds = attributes.lastModifiedTime().toInstant().getEpochSecond();
+        String etag = etag(size, offset, attributes.lastModifiedTime().toMillis());
+        String lastModified = HTTP_DATE.format(ZonedDateTime.ofInstant(Instant.ofEpochSecond(lastModifiedSeconds), ZoneOffset.UTC));
+
+        ctx.header(Header.ETAG, etag);
+        ctx.header(Header.LAST_MODIFIED, lastModified);
+        ctx.header(Header.ACCEPT_RANGES, "bytes");
+        if (file.maxAge() != null) {
+            ctx.header(Header.CACHE_CONTROL, "max-age=" + file.maxAge().toSeconds());
+        }
+        if (notModified(ctx, etag, lastModifiedSeconds)) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = rangeOf(ctx, size, etag, lastModified);
+        if (range == ByteRange.UNSATISFIABLE) {
+            ctx.status(HttpStatus.RANGE_NOT_SATISFIABLE).header(Header.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+        long start = offset;
+        long length = size;
+        if (range != null) {
+            start = offset + range.start();
+            length = range.length();
+            ctx.status(HttpStatus.PARTIAL_CONTENT)
+                    .header(Header.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        ctx.contentType(file.contentType() != null ? file.contentType() : contentType(file));
+        if (file.fileName() != null) {
+            ctx.header(Header.CONTENT_DISPOSITION, "attachment; filename=\"" + file.fileName().replace("\"", "") + "\"");
+        }
+        ctx.res().setContentLengthLong(length);
+        if ("HEAD".equals(ctx.req().getMethod())) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            OutputStream out = ctx.res().getOutputStream();
+            if (out instanceof HttpOutput httpOutput && length > SMALL_FILE_BYTES && length <= MAX_MAPPED_BYTES
+                    && LIVE_MAPPINGS.tryAcquire()) {
+                sendMapped(channel, httpOutput, start, length);
+            } else {
+                transfer(channel, out, start, length);
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("{} was truncated while sending: {}", file.path(), e.getMessage());
+        } catch (IOException e) {
+            LOGGER.debug("Client disconnected while sending {}", file.path());
+        }
+    }
+
+    /**
+     * 호출 전에 {@link #LIVE_MAPPINGS} 의 permit 을 획득해야 한다. permit 은 mapping 이 해제될 때 반환된다.
+     */
+    private static void sendMapped(FileChannel channel, HttpOutput out, long start, long length) throws IOException {
+        MappedByteBuffer mapped;
+        try {
+            if (channel.size() < start + length) {
+                throw new EOFException((start + length - channel.size()) + " bytes are missing");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        } catch (IOException | RuntimeException e) {
+            LIVE_MAPPINGS.release();
+            throw e;
+        }
+        MAPPING_CLEANER.register(mapped, LIVE_MAPPINGS::release);
+        try {
+            out.write(mapped);
+        } catch (IOException | InternalError e) {
+            // 큰 buffer 는 socket 으로 바로 쓰여지므로 잘린 구간은 InternalError 대신 IOException (EFAULT) 으로 실패할 수 있다.
+            long size = channel.size();
+            if (size < start + length) {
+                throw new EOFException((start + length - size) + " bytes are missing");
+            }
+            throw e;
+        }
+    }
+
+    private static void transfer(FileChannel channel, OutputStream out, long start, long length) throws IOException {
+        WritableByteChannel target = out instanceof HttpOutput httpOutput ? new HttpOutputChannel(httpOutput) : Channels.newChannel(out);
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new EOFException(remaining + " bytes are missing");
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+        out.flush();
+    }
+
+    private static boolean notModified(Context ctx, String etag, long lastModifiedSeconds) {
+        String ifNoneMatch = ctx.header(Header.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return ETags.matches(ifNoneMatch, etag);
+        }
+        Long ifModifiedSince = parseHttpDate(ctx.header(Header.IF_MODIFIED_SINCE));
+        return ifModifiedSince != null && lastModifiedSeconds <= ifModifiedSince;
+    }
+
+    /**
+     * If-Range 가 현재 ETag 또는 Last-Modified 와 다르면 Range 를 무시하고 전체를 응답한다.
+     */
+    private static ByteRange rangeOf(Context ctx, long size, String etag, String lastModified) {
+        String rangeHeader = ctx.header(Header.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = ctx.header(Header.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag) && !ifRange.equals(lastModified)) {
+            return null;
+        }
+        return ByteRange.parse(rangeHeader, size);
+    }
+
+    private static String etag(long size, long offset, long lastModifiedMillis) {
+        return '"' + Long.toHexString(lastModifiedMillis) + '-' + Long.toHexString(offset) + '-' + Long.toHexString(size) + '"';
+    }
+
+    private static String contentType(FileResponse file) {
+        try {
+            String probed = Files.probeContentType(file.path());
+            return probed != null ? probed : DEFAULT_CONTENT_TYPE;
+        } catch (IOException e) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+
+    private static Long parseHttpDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value, HTTP_DATE).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@link HttpOutput} 에 ByteBuffer 를 그대로 전달한다. ({@link Channels#newChannel(OutputStream)} 은 byte[] 로 복사한다)
+     */
+    private record HttpOutputChannel(HttpOutput out) implements WritableByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int written = src.remaining();
+            out.write(src);
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !out.isClosed();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+    }
+
+}
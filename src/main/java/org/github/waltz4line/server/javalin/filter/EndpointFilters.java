@@ -0,0 +1,210 @@
+package org.github.waltz4line.server.javalin.filter;
+
+import io.javalin.config.RouterConfig;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.router.matcher.PathParser;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.BeforeFilter} / {@link org.github.waltz4line.server.router.annotation.AfterFilter}
+ * 를 endpoint 별 filter chain 으로 합성한다.
+ *
+ * Javalin 의 beforeMatched / afterMatched 는 요청마다 등록된 모든 filter 의 path 를 비교하지만,
+ * 여기서는 filter 와 endpoint 가 등록되는 시점에 filter path 를 endpoint path 와 비교하여 적용할 filter 만 endpoint 에 묶어둔다.
+ * 요청 처리 비용은 해당 endpoint 에 적용되는 filter 수에만 비례한다.
+ *
+ * filter path 가 endpoint 의 일부 요청에만 일치할 수 있는 경우 (e.g. filter "/users/admin", endpoint "/users/{id}")
+ * 에는 해당 filter 만 요청 시점에 path 를 비교한다.
+ * filter 는 등록 순서대로 실행되며, after filter 는 endpoint 또는 before filter 에서 예외가 발생해도 실행된다.
+ * 단, 예외가 Javalin exception handler 에 의해 응답에 반영되기 전에 실행되므로 after filter 에서 보는 status 는 예외 처리 이전의 값이다.
+ *
+ * filter 는 annotation endpoint 에만 적용된다. (OpenAPI 문서, readiness, push endpoint 등에는 적용되지 않는다.)
+ */
+public final class EndpointFilters implements EndpointInterceptorFactory {
+
+    private final RouterConfig routerConfig;
+
+    private final List<Filter> filters = new ArrayList<>();
+
+    private final Map<String, FilteredEndpoint> endpoints = new LinkedHashMap<>();
+
+    public EndpointFilters(RouterConfig routerConfig) {
+        this.routerConfig = routerConfig;
+    }
+
+    public synchronized void addBefore(String path, Handler handler) {
+        add(new Filter(path, new PathParser(path, routerConfig), handler, true));
+    }
+
+    public synchronized void addAfter(String path, Handler handler) {
+        add(new Filter(path, new PathParser(path, routerConfig), handler, false));
+    }
+
+    /*
+     * filter 는 endpoint 이후에 등록될 수 있으므로 filter 가 없는 endpoint 에도 interceptor 를 만들어 둔다.
+     */
+    @Override
+    public synchronized EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        FilteredEndpoint endpoint = new FilteredEndpoint(requestMapping.getPath());
+        endpoint.chain = compile(endpoint.path);
+        endpoints.put(endpointKey(handlerType, requestMapping), endpoint);
+        return endpoint;
+    }
+
+    @Override
+    public synchronized void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        endpoints.remove(endpointKey(handlerType, requestMapping));
+    }
+
+    /**
+     * 등록된 filter 를 제거하고 endpoint 의 filter chain 을 다시 만든다.
+     *
+     * @param handler addBefore / addAfter 로 등록한 handler
+     */
+    public synchronized void remove(Handler handler) {
+        if (filters.removeIf(filter -> filter.handler == handler)) {
+            recompile();
+        }
+    }
+
+    private void add(Filter filter) {
+        filters.add(filter);
+        recompile();
+    }
+
+    private void recompile() {
+        for (FilteredEndpoint endpoint : endpoints.values()) {
+            endpoint.chain = compile(endpoint.path);
+        }
+    }
+
+    private static String endpointKey(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        return handlerType.name() + ' ' + requestMapping.getPath();
+    }
+
+    private Chain compile(String endpointPath) {
+        List<Handler> before = new ArrayList<>();
+        List<Handler> after = new ArrayList<>();
+        for (Filter filter : filters) {
+            Handler handler = switch (match(filter, endpointPath)) {
+                case ALWAYS -> filter.handler;
+                case SOMETIMES -> guarded(filter);
+                case NEVER -> null;
+            };
+            if (handler != null) {
+                (filter.before ? before : after).add(handler);
+            }
+        }
+        if (before.isEmpty() && after.isEmpty()) {
+            return Chain.EMPTY;
+        }
+        return new Chain(before.toArray(Handler[]::new), after.toArray(Handler[]::new));
+    }
+
+    private static Handler guarded(Filter filter) {
+        return ctx -> {
+            if (filter.parser.matches(relativePath(ctx))) {
+                filter.handler.handle(ctx);
+            }
+        };
+    }
+
+    private static String relativePath(Context ctx) {
+        String path = ctx.path();
+        String contextPath = ctx.contextPath();
+        return path.startsWith(contextPath) ? path.substring(contextPath.length()) : path;
+    }
+
+    /*
+     * endpoint path 에 path parameter / wildcard 가 없다면 filter 일치 여부가 확정된다.
+     * 있다면 endpoint path 를 그대로 (e.g. "/users/{id}") filter 에 비교하여 일치하면 모든 요청에 적용하고,
+     * 일치하지 않더라도 고정된 앞 segment 가 모두 같다면 요청 시점에 비교한다.
+     */
+    private Match match(Filter filter, String endpointPath) {
+        boolean literal = filter.parser.matches(endpointPath);
+        if (!isDynamic(endpointPath)) {
+            return literal ? Match.ALWAYS : Match.NEVER;
+        }
+        if (literal && endpointPath.indexOf('<') < 0 && endpointPath.indexOf('*') < 0) {
+            return Match.ALWAYS;
+        }
+        return staticPrefixDiffers(filter.path, endpointPath) ? Match.NEVER : Match.SOMETIMES;
+    }
+
+    private boolean staticPrefixDiffers(String filterPath, String endpointPath) {
+        String[] filterSegments = filterPath.split("/");
+        String[] endpointSegments = endpointPath.split("/");
+        int length = Math.min(filterSegments.length, endpointSegments.length);
+        for (int i = 0; i < length; i++) {
+            String filterSegment = filterSegments[i];
+            String endpointSegment = endpointSegments[i];
+            if (isDynamic(filterSegment) || isDynamic(endpointSegment)) {
+                return false;
+            }
+            boolean equals = routerConfig.caseInsensitiveRoutes
+                    ? filterSegment.equalsIgnoreCase(endpointSegment) : filterSegment.equals(endpointSegment);
+            if (!equals) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDynamic(String path) {
+        return path.indexOf('{') >= 0 || path.indexOf('<') >= 0 || path.indexOf('*') >= 0;
+    }
+
+    private enum Match {
+        ALWAYS, SOMETIMES, NEVER
+    }
+
+    private record Filter(String path, PathParser parser, Handler handler, boolean before) {
+    }
+
+    private record Chain(Handler[] before, Handler[] after) {
+
+        private static final Chain EMPTY = new Chain(new Handler[0], new Handler[0]);
+
+    }
+
+    private static final class FilteredEndpoint implements EndpointInterceptor {
+
+        private final String path;
+
+        private volatile Chain chain;
+
+        private FilteredEndpoint(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void intercept(Context ctx, Handler next) throws Exception {
+            Chain current = chain;
+            if (current == Chain.EMPTY) {
+                next.handle(ctx);
+                return;
+            }
+            try {
+                for (Handler before : current.before) {
+                    before.handle(ctx);
+                }
+                next.handle(ctx);
+            } finally {
+                for (Handler after : current.after) {
+                    after.handle(ctx);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.github.waltz4line.server.javalin.filter;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.github.waltz4line.server.javalin.RouterInvokeHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * filter 메소드를 {@link Handler} 로 변환한다.
+ *
+ * {@code void method(Context)} 형태의 instance 메소드는 {@link LambdaMetafactory} 로 메소드를 직접 호출하는 Handler 를 만들어
+ * 요청마다 reflection 을 거치지 않는다. 그 외의 형태이거나 변환에 실패하면 {@link RouterInvokeHandler} 로 호출한다.
+ */
+public final class FilterHandlers {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilterHandlers.class);
+
+    private static final MethodType HANDLE_TYPE = MethodType.methodType(void.class, Context.class);
+
+    private FilterHandlers() {
+    }
+
+    public static Handler of(Object instance, Method method) {
+        if (isDirectlyInvocable(method)) {
+            try {
+                return compile(instance, method);
+            } catch (Throwable e) {
+                LOGGER.debug("Failed to compile filter {}. falling back to reflection.", method, e);
+            }
+        }
+        return ctx -> RouterInvokeHandler.handle(ctx, instance, method);
+    }
+
+    private static boolean isDirectlyInvocable(Method method) {
+        return !Modifier.isStatic(method.getModifiers())
+                && method.getReturnType() == void.class
+                && method.getParameterCount() == 1
+                && method.getParameterTypes()[0] == Context.class;
+    }
+
+    private static Handler compile(Object instance, Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle target = lookup.unreflect(method);
+        MethodHandle factory = LambdaMetafactory.metafactory(lookup, "handle",
+                        MethodType.methodType(Handler.class, method.getDeclaringClass()),
+                        HANDLE_TYPE, target, HANDLE_TYPE)
+                .getTarget();
+        return (Handler) factory.invoke(instance);
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.github.waltz4line.server.javalin.format;
+
+import io.javalin.json.JsonMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.stream.Stream;
+
+/**
+ * binary format 요청을 처리하는 동안 ({@link ContentNegotiation}) {@code ctx.bodyAsClass} / {@code ctx.bodyStreamAsClass} 가
+ * JSON 문자열 대신 요청 body bytes 를 binary format 으로 읽도록 한다. 그 외에는 delegate 에 위임한다.
+ */
+public final class BinaryBodyJsonMapper implements JsonMapper {
+
+    private final JsonMapper delegate;
+
+    public BinaryBodyJsonMapper(JsonMapper delegate) {
+        this.delegate = delegate;
+    }
+
+    public JsonMapper getDelegate() {
+        return delegate;
+    }
+
+    @NotNull
+    @Override
+    public String toJsonString(@NotNull Object obj, @NotNull Type type) {
+        return delegate.toJsonString(obj, type);
+    }
+
+    @NotNull
+    @Override
+    public InputStream toJsonStream(@NotNull Object obj, @NotNull Type type) {
+        return delegate.toJsonStream(obj, type);
+    }
+
+    @Override
+    public void writeToOutputStream(@NotNull Stream<?> stream, @NotNull OutputStream outputStream) {
+        delegate.writeToOutputStream(stream, outputStream);
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonString(@NotNull String json, @NotNull Type targetType) {
+        ContentNegotiation.BinaryBody body = ContentNegotiation.requestBody();
+        return body == null ? delegate.fromJsonString(json, targetType) : read(body, targetType);
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonStream(@NotNull InputStream json, @NotNull Type targetType) {
+        ContentNegotiation.BinaryBody body = ContentNegotiation.requestBody();
+        return body == null ? delegate.fromJsonStream(json, targetType) : read(body, targetType);
+    }
+
+    private static <T> T read(ContentNegotiation.BinaryBody body, Type targetType) {
+        try {
+            return body.read(targetType);
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    /*
+     * JSON 요청과 같은 예외 타입으로 exception mapping 되도록 Jackson 예외를 감싸지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.github.waltz4line.server.javalin.format;
+
+/**
+ * JSON 대신 응답 / 요청 body 에 사용할 수 있는 Jackson binary format.
+ * format module (jackson-dataformat-cbor, jackson-dataformat-smile) 은 필수 의존성이 아니므로 classpath 에 있을 때만 사용된다.
+ */
+public enum BinaryFormat {
+
+    CBOR("application/cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory"),
+
+    SMILE("application/x-jackson-smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory");
+
+    private final String mediaType;
+
+    private final String factoryClassName;
+
+    BinaryFormat(String mediaType, String factoryClassName) {
+        this.mediaType = mediaType;
+        this.factoryClassName = factoryClassName;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    String factoryClassName() {
+        return factoryClassName;
+    }
+
+}
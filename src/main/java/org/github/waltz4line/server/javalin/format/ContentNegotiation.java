@@ -0,0 +1,253 @@
+package org.github.waltz4line.server.javalin.format;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.http.Header;
+import org.apache.commons.lang3.StringUtils;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * annotation endpoint 의 응답 / 요청 body format 을 Accept / Content-Type 에 따라 JSON 또는 {@link BinaryFormat} 으로 선택한다.
+ *
+ * format 별 mapper 는 공유 {@link ObjectMapper} 의 설정 (module, codec 포함) 을 복사하여 만들고,
+ * 응답 / 요청 class 별 ObjectWriter / ObjectReader 를 캐시한다.
+ * 요청 body 는 endpoint 처리 동안 {@link BinaryBodyJsonMapper} 가 {@code ctx.bodyAsClass} 요청을 binary format 으로 읽는다.
+ * (endpoint 를 호출한 thread 에서만 적용된다.)
+ *
+ * 에러 응답, streaming 요청 / 응답, push endpoint 는 JSON 을 유지한다.
+ */
+public final class ContentNegotiation implements EndpointInterceptorFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentNegotiation.class);
+
+    private static final String FORMAT_ATTRIBUTE = ContentNegotiation.class.getName() + ".format";
+
+    private static final String MEDIA_TYPE_JSON = "application/json";
+
+    private static final ThreadLocal<BinaryBody> REQUEST_BODY = new ThreadLocal<>();
+
+    private final Format[] formats;
+
+    private final EndpointInterceptor interceptor = this::intercept;
+
+    public ContentNegotiation(ObjectMapper mapper, Collection<BinaryFormat> binaryFormats) {
+        List<Format> available = new ArrayList<>();
+        for (BinaryFormat binaryFormat : binaryFormats) {
+            JsonFactory factory = loadFactory(binaryFormat);
+            if (factory != null) {
+                available.add(new Format(binaryFormat, mapper.copyWith(factory)));
+            }
+        }
+        this.formats = available.toArray(Format[]::new);
+    }
+
+    /**
+     * @return 사용 가능한 (format module 이 classpath 에 있는) binary format 의 media type
+     */
+    public List<String> mediaTypes() {
+        List<String> mediaTypes = new ArrayList<>(formats.length);
+        for (Format format : formats) {
+            mediaTypes.add(format.binaryFormat.mediaType());
+        }
+        return mediaTypes;
+    }
+
+    public boolean isEnabled() {
+        return formats.length > 0;
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        return isEnabled() ? interceptor : null;
+    }
+
+    /**
+     * endpoint 결과를 negotiation 된 format 으로 응답한다. binary format 이 선택되지 않았다면 JSON 으로 응답한다.
+     */
+    public static void writeBody(Context ctx, Object body) throws IOException {
+        Format format = ctx.attribute(FORMAT_ATTRIBUTE);
+        if (format == null) {
+            ctx.json(body);
+        } else {
+            format.write(ctx, body);
+        }
+    }
+
+    /**
+     * @return negotiation 된 응답 format. JSON 이라면 null
+     */
+    public static BinaryFormat responseFormat(Context ctx) {
+        Format format = ctx.attribute(FORMAT_ATTRIBUTE);
+        return format == null ? null : format.binaryFormat;
+    }
+
+    static BinaryBody requestBody() {
+        return REQUEST_BODY.get();
+    }
+
+    private void intercept(Context ctx, Handler next) throws Exception {
+        ctx.res().addHeader(Header.VARY, Header.ACCEPT);
+        Format response = select(ctx.header(Header.ACCEPT));
+        if (response != null) {
+            ctx.attribute(FORMAT_ATTRIBUTE, response);
+        }
+        Format request = find(ctx.contentType());
+        if (request == null) {
+            next.handle(ctx);
+            return;
+        }
+        REQUEST_BODY.set(new BinaryBody(ctx, request));
+        try {
+            next.handle(ctx);
+        } finally {
+            REQUEST_BODY.remove();
+        }
+    }
+
+    /*
+     * Accept 에 binary media type 이 없다면 parsing 하지 않는다.
+     * 있다면 q 값이 가장 큰 media type 을 선택하며, 같은 q 값이라면 먼저 나온 media type 을 선택한다. (JSON, wildcard 포함)
+     */
+    private Format select(String accept) {
+        if (accept == null || !mentionsBinary(accept)) {
+            return null;
+        }
+        Format selected = null;
+        double selectedQuality = 0;
+        for (String range : StringUtils.split(accept, ',')) {
+            int parameters = range.indexOf(';');
+            String mediaType = (parameters < 0 ? range : range.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+            double quality = parameters < 0 ? 1.0 : quality(range.substring(parameters + 1));
+            if (quality <= selectedQuality) {
+                continue;
+            }
+            if (mediaType.equals(MEDIA_TYPE_JSON) || mediaType.equals("*/*") || mediaType.equals("application/*")) {
+                selected = null;
+                selectedQuality = quality;
+            } else {
+                Format format = find(mediaType);
+                if (format != null) {
+                    selected = format;
+                    selectedQuality = quality;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private boolean mentionsBinary(String accept) {
+        for (Format format : formats) {
+            if (StringUtils.containsIgnoreCase(accept, format.binaryFormat.mediaType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String parameters) {
+        for (String parameter : StringUtils.split(parameters, ';')) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1.0;
+    }
+
+    private Format find(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (Format format : formats) {
+            String mediaType = format.binaryFormat.mediaType();
+            if (contentType.regionMatches(true, 0, mediaType, 0, mediaType.length())
+                    && (contentType.length() == mediaType.length() || contentType.charAt(mediaType.length()) == ';')) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static JsonFactory loadFactory(BinaryFormat binaryFormat) {
+        try {
+            Class<?> factoryClass = Class.forName(binaryFormat.factoryClassName(), true, ContentNegotiation.class.getClassLoader());
+            return (JsonFactory) factoryClass.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            LOGGER.warn("{} is not available. add the Jackson {} data format module to the classpath.",
+                    binaryFormat.mediaType(), binaryFormat.name().toLowerCase(Locale.ROOT));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Failed to create {} for {}", binaryFormat.factoryClassName(), binaryFormat.mediaType(), e);
+        }
+        return null;
+    }
+
+    private static final class Format {
+
+        private final BinaryFormat binaryFormat;
+
+        private final ObjectMapper mapper;
+
+        private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return mapper.writerFor(type);
+            }
+        };
+
+        private final ClassValue<ObjectReader> readers = new ClassValue<>() {
+            @Override
+            protected ObjectReader computeValue(Class<?> type) {
+                return mapper.readerFor(type);
+            }
+        };
+
+        private Format(BinaryFormat binaryFormat, ObjectMapper mapper) {
+            this.binaryFormat = binaryFormat;
+            this.mapper = mapper;
+        }
+
+        private void write(Context ctx, Object body) throws IOException {
+            ctx.contentType(binaryFormat.mediaType()).result(writers.get(body.getClass()).writeValueAsBytes(body));
+        }
+
+        private <T> T read(byte[] body, Type type) throws IOException {
+            ObjectReader reader = type instanceof Class<?> cls
+                    ? readers.get(cls)
+                    : mapper.readerFor(mapper.getTypeFactory().constructType(type));
+            return reader.readValue(body);
+        }
+
+    }
+
+    /**
+     * binary format 으로 전송된 요청 body
+     */
+    record BinaryBody(Context ctx, Format format) {
+
+        <T> T read(Type type) throws IOException {
+            return format.read(ctx.bodyAsBytes(), type);
+        }
+
+    }
+
+}
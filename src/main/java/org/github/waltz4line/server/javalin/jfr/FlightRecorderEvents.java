@@ -0,0 +1,89 @@
+package org.github.waltz4line.server.javalin.jfr;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.error.ErrorMappings;
+import org.github.waltz4line.server.jfr.EndpointEvent;
+import org.github.waltz4line.server.jfr.FilterEvent;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+/**
+ * annotation endpoint 와 filter 실행을 JFR event ({@link EndpointEvent}, {@link FilterEvent}) 로 기록한다.
+ *
+ * 비활성화되어 있다면 interceptor 를 만들지 않고 filter 도 감싸지 않는다.
+ * 활성화되어 있더라도 JFR 기록 중이 아니거나 threshold 미만이라면 event 는 commit 되지 않으며 (field 도 채우지 않는다),
+ * threshold 는 JFR 설정 (e.g. {@code jfr configure org.github.waltz4line.Endpoint#threshold=50ms}) 으로 변경한다.
+ *
+ * 예외로 끝난 요청의 status 는 {@link ErrorMappings} 가 응답할 status 로 기록한다.
+ */
+public final class FlightRecorderEvents implements EndpointInterceptorFactory {
+
+    private final boolean enabled;
+
+    private final ErrorMappings errorMappings;
+
+    public FlightRecorderEvents(boolean enabled, ErrorMappings errorMappings) {
+        this.enabled = enabled;
+        this.errorMappings = errorMappings;
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (!enabled) {
+            return null;
+        }
+        String endpointId = requestMapping.getEndpointDocument().getEndpointId();
+        String method = handlerType.name();
+        String path = requestMapping.getPath();
+        return (ctx, next) -> {
+            EndpointEvent event = new EndpointEvent();
+            event.begin();
+            Exception failure = null;
+            try {
+                next.handle(ctx);
+            } catch (Exception e) {
+                failure = e;
+                throw e;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.endpointId = endpointId;
+                    event.method = method;
+                    event.path = path;
+                    event.status = failure == null ? ctx.statusCode() : errorMappings.status(failure);
+                    event.exception = failure == null ? null : failure.getClass().getName();
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * @param filter filter 이름 (e.g. 선언된 class / 메소드)
+     */
+    public Handler filter(Handler handler, String filter, String filterPath, boolean before) {
+        if (!enabled) {
+            return handler;
+        }
+        return ctx -> {
+            FilterEvent event = new FilterEvent();
+            event.begin();
+            try {
+                handler.handle(ctx);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.filter = filter;
+                    event.filterPath = filterPath;
+                    event.before = before;
+                    event.requestPath = ctx.path();
+                    event.commit();
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,35 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+
+/**
+ * JSON parser / generator 의 buffer 재사용 방식
+ */
+public enum BufferRecycling {
+
+    /**
+     * thread 별 buffer 재사용 (Jackson 기본값). platform thread pool 에 적합하다.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * 모든 thread 가 공유하는 pool. virtual thread 처럼 thread 가 재사용되지 않는 경우에 적합하다.
+     */
+    SHARED,
+
+    /**
+     * 재사용하지 않는다.
+     */
+    NONE;
+
+    RecyclerPool<BufferRecycler> pool() {
+        return switch (this) {
+            case THREAD_LOCAL -> JsonRecyclerPools.threadLocalPool();
+            case SHARED -> JsonRecyclerPools.sharedConcurrentDequePool();
+            case NONE -> JsonRecyclerPools.nonRecyclingPool();
+        };
+    }
+
+}
@@ -0,0 +1,122 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.SegmentedStringWriter;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.stream.Stream;
+
+/**
+ * 응답 / 요청 body 의 class 에 {@link JsonCodec} 이 등록되어 있다면 {@link ObjectMapper} 를 거치지 않고 codec 으로 읽고 쓴다.
+ * codec 이 없는 class 는 {@link JavalinJackson} 에 위임한다.
+ *
+ * generator / parser 는 공유 mapper 로 만들기 때문에 codec 안에서 Jackson 으로 위임한 값도 같은 설정으로 처리된다.
+ * Jackson 예외 (e.g. {@link com.fasterxml.jackson.core.JsonProcessingException}) 는 {@link JavalinJackson} 과 같이 감싸지 않고 던진다.
+ */
+public final class CodecJsonMapper implements JsonMapper {
+
+    private final JavalinJackson delegate;
+
+    private final JsonCodecs codecs;
+
+    public CodecJsonMapper(JavalinJackson delegate, JsonCodecs codecs) {
+        this.delegate = delegate;
+        this.codecs = codecs;
+    }
+
+    public ObjectMapper getMapper() {
+        return delegate.getMapper();
+    }
+
+    @NotNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public String toJsonString(@NotNull Object obj, @NotNull Type type) {
+        JsonCodec<Object> codec = (JsonCodec<Object>) codecs.find(obj.getClass());
+        if (codec == null) {
+            return delegate.toJsonString(obj, type);
+        }
+        ObjectMapper mapper = delegate.getMapper();
+        BufferRecycler recycler = mapper.getFactory()._getBufferRecycler();
+        try (SegmentedStringWriter writer = new SegmentedStringWriter(recycler)) {
+            try (JsonGenerator generator = mapper.createGenerator(writer)) {
+                codec.write(obj, generator);
+            }
+            return writer.getAndClear();
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        } finally {
+            recycler.releaseToPool();
+        }
+    }
+
+    @NotNull
+    @Override
+    public InputStream toJsonStream(@NotNull Object obj, @NotNull Type type) {
+        return delegate.toJsonStream(obj, type);
+    }
+
+    @Override
+    public void writeToOutputStream(@NotNull Stream<?> stream, @NotNull OutputStream outputStream) {
+        delegate.writeToOutputStream(stream, outputStream);
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonString(@NotNull String json, @NotNull Type targetType) {
+        JsonCodec<T> codec = codec(targetType);
+        if (codec == null) {
+            return delegate.fromJsonString(json, targetType);
+        }
+        try (JsonParser parser = delegate.getMapper().createParser(json)) {
+            return read(parser, codec);
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonStream(@NotNull InputStream json, @NotNull Type targetType) {
+        JsonCodec<T> codec = codec(targetType);
+        if (codec == null) {
+            return delegate.fromJsonStream(json, targetType);
+        }
+        try (JsonParser parser = delegate.getMapper().createParser(json)) {
+            return read(parser, codec);
+        } catch (IOException e) {
+            throw sneakyThrow(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> JsonCodec<T> codec(Type targetType) {
+        return targetType instanceof Class<?> type ? (JsonCodec<T>) codecs.find(type) : null;
+    }
+
+    private static <T> T read(JsonParser parser, JsonCodec<T> codec) throws IOException {
+        if (parser.nextToken() == null) {
+            throw MismatchedInputException.from(parser, codec.type(), "No content to map due to end-of-input");
+        }
+        return codec.read(parser);
+    }
+
+    /*
+     * JavalinJackson (Kotlin) 은 Jackson 의 checked 예외를 그대로 던지므로 exception mapping 이 같은 예외 타입을 보도록 감싸지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.github.waltz4line.server.javalin.json;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * record 에 선언하면 compile 시점에 {@link JsonCodec} 구현 ({@code <Record>JsonCodec}) 을 생성한다.
+ * 생성된 codec 은 ServiceLoader 로 등록되어 Jackson bean serializer 대신 사용된다.
+ *
+ * 생성된 codec 은 record component 의 accessor 와 canonical constructor 를 직접 호출하며, null 인 component 는 쓰지 않는다. (NON_NULL)
+ * primitive, boxed 숫자 / boolean, String, {@link GenerateJsonCodec} record 이외의 타입은 Jackson 으로 읽고 쓴다.
+ * Jackson annotation 은 {@code @JsonProperty} (이름 변경), {@code @JsonIgnoreProperties(ignoreUnknown)},
+ * {@code @JsonInclude(NON_NULL)} 만 지원하며 그 외 annotation 이 선언되어 있다면 compile 에러가 발생한다.
+ *
+ * annotation processor ({@code org.github.waltz4line.server.javalin.json.processor.JsonCodecProcessor}) 가
+ * compile 시 annotation processor path 에 포함되어 있어야 한다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateJsonCodec {
+}
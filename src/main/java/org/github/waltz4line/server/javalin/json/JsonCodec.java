@@ -0,0 +1,29 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * 특정 class 의 JSON 직렬화 / 역직렬화 구현.
+ * 등록된 codec 은 Javalin JSON mapper 및 공유 {@link com.fasterxml.jackson.databind.ObjectMapper} 에서 Jackson bean serializer 보다 먼저 사용된다.
+ *
+ * @see GenerateJsonCodec
+ */
+public interface JsonCodec<T> {
+
+    Class<T> type();
+
+    /**
+     * value 를 JSON object 로 쓴다. value 는 null 이 아니다.
+     */
+    void write(T value, JsonGenerator generator) throws IOException;
+
+    /**
+     * parser 의 현재 token (START_OBJECT, FIELD_NAME 또는 VALUE_NULL) 부터 값을 읽는다.
+     * 반환 시 parser 의 현재 token 은 읽은 값의 마지막 token (END_OBJECT) 이어야 한다.
+     */
+    T read(JsonParser parser) throws IOException;
+
+}
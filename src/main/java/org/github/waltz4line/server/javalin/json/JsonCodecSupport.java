@@ -0,0 +1,160 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import java.io.IOException;
+
+/**
+ * {@link GenerateJsonCodec} 로 생성된 codec 이 사용하는 읽기 / 쓰기 함수.
+ * 현재 token 이 기대한 타입이라면 parser 에서 바로 읽고, 그 외 (문자열로 된 숫자, null 등) 에는 Jackson 에 위임하여 Jackson 과 같은 규칙으로 변환한다.
+ */
+public final class JsonCodecSupport {
+
+    private JsonCodecSupport() {
+    }
+
+    /**
+     * @return object 의 첫 field 이름. 빈 object 라면 null
+     */
+    public static String firstFieldName(JsonParser parser, Class<?> type) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            return parser.nextFieldName();
+        }
+        if (token == JsonToken.FIELD_NAME) {
+            return parser.currentName();
+        }
+        throw MismatchedInputException.from(parser, type,
+                "Cannot deserialize value of type " + type.getName() + " from " + token + " (expected JSON object)");
+    }
+
+    /**
+     * 알 수 없는 field 는 mapper 의 {@link DeserializationFeature#FAIL_ON_UNKNOWN_PROPERTIES} 설정에 따라 무시하거나 예외를 던진다.
+     */
+    public static void unknownProperty(JsonParser parser, Class<?> type, String name) throws IOException {
+        ObjectCodec codec = parser.getCodec();
+        if (codec instanceof ObjectMapper mapper && !mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)) {
+            parser.skipChildren();
+            return;
+        }
+        throw UnrecognizedPropertyException.from(parser, type, name, null);
+    }
+
+    public static boolean readBoolean(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        Boolean value = parser.readValueAs(Boolean.class);
+        return value != null && value;
+    }
+
+    public static Boolean readBooleanObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Boolean.class);
+    }
+
+    public static int readInt(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        Integer value = parser.readValueAs(Integer.class);
+        return value == null ? 0 : value;
+    }
+
+    public static Integer readIntObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Integer.class);
+    }
+
+    public static long readLong(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        Long value = parser.readValueAs(Long.class);
+        return value == null ? 0L : value;
+    }
+
+    public static Long readLongObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Long.class);
+    }
+
+    public static float readFloat(JsonParser parser) throws IOException {
+        if (parser.currentToken().isNumeric()) {
+            return parser.getFloatValue();
+        }
+        Float value = parser.readValueAs(Float.class);
+        return value == null ? 0.0f : value;
+    }
+
+    public static Float readFloatObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getFloatValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Float.class);
+    }
+
+    public static double readDouble(JsonParser parser) throws IOException {
+        if (parser.currentToken().isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        Double value = parser.readValueAs(Double.class);
+        return value == null ? 0.0d : value;
+    }
+
+    public static Double readDoubleObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Double.class);
+    }
+
+    public static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(String.class);
+    }
+
+    public static <T> T readValue(JsonParser parser, Class<T> type) throws IOException {
+        return parser.readValueAs(type);
+    }
+
+    public static <T> T readValue(JsonParser parser, TypeReference<T> type) throws IOException {
+        return parser.readValueAs(type);
+    }
+
+    /**
+     * codec 이 없는 값을 Jackson 으로 쓴다.
+     * {@link JsonGenerator#writeObject} 는 값마다 root 직렬화 (FLUSH_AFTER_WRITE_VALUE 에 의한 flush 포함) 를 수행하므로 serializer 만 찾아 쓴다.
+     */
+    public static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (generator.getCodec() instanceof ObjectMapper mapper) {
+            mapper.getSerializerProviderInstance().defaultSerializeValue(value, generator);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+}
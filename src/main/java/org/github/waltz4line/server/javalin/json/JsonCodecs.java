@@ -0,0 +1,115 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * class 별로 등록된 {@link JsonCodec}.
+ * ServiceLoader 로 등록된 codec ({@link GenerateJsonCodec} 로 생성된 codec 포함) 과 직접 등록한 codec 을 합쳐 만들며, 이후 변경되지 않는다.
+ */
+public final class JsonCodecs {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonCodecs.class);
+
+    private final Map<Class<?>, JsonCodec<?>> codecs;
+
+    private JsonCodecs(Map<Class<?>, JsonCodec<?>> codecs) {
+        this.codecs = Map.copyOf(codecs);
+    }
+
+    /**
+     * @param registered 직접 등록한 codec. 같은 class 의 ServiceLoader codec 보다 우선한다.
+     */
+    public static JsonCodecs load(ClassLoader classLoader, Collection<JsonCodec<?>> registered) {
+        Map<Class<?>, JsonCodec<?>> codecs = new HashMap<>();
+        for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class, classLoader)) {
+            codecs.put(codec.type(), codec);
+        }
+        for (JsonCodec<?> codec : registered) {
+            codecs.put(codec.type(), codec);
+        }
+        if (!codecs.isEmpty()) {
+            LOGGER.debug("Registered JSON codecs: {}", codecs.keySet());
+        }
+        return new JsonCodecs(codecs);
+    }
+
+    /**
+     * @return 해당 class 의 codec. 없다면 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> JsonCodec<T> find(Class<T> type) {
+        return (JsonCodec<T>) codecs.get(type);
+    }
+
+    public boolean isEmpty() {
+        return codecs.isEmpty();
+    }
+
+    /**
+     * @return codec 을 Jackson serializer / deserializer 로 등록하는 module. 다른 객체의 field, 배열, collection 안의 값에도 codec 이 사용된다.
+     */
+    public Module module() {
+        SimpleModule module = new SimpleModule(JsonCodecs.class.getSimpleName());
+        for (JsonCodec<?> codec : codecs.values()) {
+            register(module, codec);
+        }
+        return module;
+    }
+
+    private static <T> void register(SimpleModule module, JsonCodec<T> codec) {
+        module.addSerializer(codec.type(), new CodecSerializer<>(codec));
+        module.addDeserializer(codec.type(), new CodecDeserializer<>(codec));
+    }
+
+    private static final class CodecSerializer<T> extends StdSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient JsonCodec<T> codec;
+
+        private CodecSerializer(JsonCodec<T> codec) {
+            super(codec.type());
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            codec.write(value, generator);
+        }
+
+    }
+
+    private static final class CodecDeserializer<T> extends StdDeserializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient JsonCodec<T> codec;
+
+        private CodecDeserializer(JsonCodec<T> codec) {
+            super(codec.type());
+            this.codec = codec;
+        }
+
+        @Override
+        public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return codec.read(parser);
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.javalin.json.JavalinJackson;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+
+/**
+ * 서버 전체에서 공유하는 {@link ObjectMapper} 를 설정에 따라 생성한다.
+ *
+ * Javalin 기본 mapper 의 module 구성 (jdk8, java time 등) 을 유지하고, JSON factory 의 field 이름 canonicalization 및
+ * buffer 재사용 방식을 설정한다. blackbird 설정 시 jackson-module-blackbird 를 등록한다.
+ * 등록된 {@link JsonCodec} 은 Jackson module 로 등록되어 다른 객체 안의 값에도 사용된다.
+ */
+public final class JsonMappers {
+
+    private JsonMappers() {
+    }
+
+    public static ObjectMapper create(JavalinContextConfig.JavalinJson json, JsonCodecs codecs) {
+        JsonFactory factory = JsonFactory.builder()
+                .configure(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES, json.canonicalizeFieldNames())
+                .configure(JsonFactory.Feature.INTERN_FIELD_NAMES, json.canonicalizeFieldNames() && json.internFieldNames())
+                .recyclerPool(json.bufferRecycling().pool())
+                .build();
+        ObjectMapper mapper = JavalinJackson.defaultMapper().copyWith(factory);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        if (json.blackbird()) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        if (!codecs.isEmpty()) {
+            mapper.registerModule(codecs.module());
+        }
+        return mapper;
+    }
+
+}
@@ -0,0 +1,58 @@
+package org.github.waltz4line.server.javalin.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * endpoint 의 requestBody / responseBody / error response class 를 모아 구동 시점에 serializer / deserializer 를 생성해둔다.
+ * 생성된 serializer / deserializer 는 {@link ObjectMapper} 에 캐시되므로 endpoint 별 첫 요청에서 생성 비용이 발생하지 않는다.
+ */
+public final class JsonPrewarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonPrewarmer.class);
+
+    private final Set<Class<?>> types = new LinkedHashSet<>();
+
+    public synchronized void register(RequestMapperAttr requestMapping) {
+        RequestMapperAttr.EndpointDocument document = requestMapping.getEndpointDocument();
+        add(document.getRequestBody());
+        add(document.getResponseBody());
+        for (RequestMapperAttr.ErrorDescription errorDescription : document.getErrorDescriptions()) {
+            add(errorDescription.errorResponse());
+        }
+    }
+
+    /**
+     * @return serializer 또는 deserializer 를 생성한 class 수
+     */
+    public synchronized int prewarm(ObjectMapper mapper) {
+        int warmed = 0;
+        for (Class<?> type : types) {
+            JavaType javaType = mapper.constructType(type);
+            // root type 을 지정한 writer / reader 는 생성 시 serializer / deserializer 를 찾아 mapper 에 캐시한다.
+            ObjectWriter writer = mapper.writerFor(javaType);
+            mapper.readerFor(javaType);
+            if (writer.hasPrefetchedSerializer()) {
+                warmed++;
+            } else {
+                LOGGER.debug("No serializer available for {}", type.getName());
+            }
+        }
+        return warmed;
+    }
+
+    private void add(Class<?> type) {
+        if (type == null || type.isPrimitive() || type == String.class || type == Void.class) {
+            return;
+        }
+        types.add(type);
+    }
+
+}
@@ -0,0 +1,558 @@
+package org.github.waltz4line.server.javalin.json.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code @GenerateJsonCodec} record 의 {@code JsonCodec} 구현을 생성하고 META-INF/services 에 등록한다.
+ *
+ * 생성된 codec 은 record accessor / canonical constructor 를 직접 호출하고, field 이름은 {@code SerializedString} 으로 미리 encoding 해둔다.
+ * 읽기는 field 이름 switch 로 처리하며, 기대한 token 이 아닌 값과 지원하지 않는 타입은 Jackson 에 위임한다.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.ANNOTATION)
+public final class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "org.github.waltz4line.server.javalin.json.GenerateJsonCodec";
+
+    private static final String SERVICE_FILE = "META-INF/services/org.github.waltz4line.server.javalin.json.JsonCodec";
+
+    private static final String CODEC_SUFFIX = "JsonCodec";
+
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.";
+
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+
+    private static final String JSON_IGNORE_PROPERTIES = "com.fasterxml.jackson.annotation.JsonIgnoreProperties";
+
+    private static final String JSON_INCLUDE = "com.fasterxml.jackson.annotation.JsonInclude";
+
+    private final Set<String> generated = new TreeSet<>();
+
+    private Elements elements;
+
+    private Filer filer;
+
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!generated.isEmpty()) {
+                writeServiceFile();
+            }
+            return false;
+        }
+        TypeElement annotation = elements.getTypeElement(ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.RECORD) {
+                error(element, "@GenerateJsonCodec can only be declared on a record");
+                continue;
+            }
+            TypeElement record = (TypeElement) element;
+            CodecModel model = model(record);
+            if (model == null) {
+                continue;
+            }
+            try {
+                write(model);
+                generated.add(model.codecName());
+            } catch (IOException e) {
+                error(record, "Failed to generate JSON codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private CodecModel model(TypeElement record) {
+        if (!record.getTypeParameters().isEmpty()) {
+            error(record, "@GenerateJsonCodec does not support generic records");
+            return null;
+        }
+        for (Element e = record; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                error(record, "@GenerateJsonCodec record and its enclosing classes must not be private");
+                return null;
+            }
+        }
+        boolean ignoreUnknown = false;
+        for (AnnotationMirror mirror : record.getAnnotationMirrors()) {
+            String name = annotationName(mirror);
+            if (name.equals(JSON_IGNORE_PROPERTIES)) {
+                Object value = annotationValue(mirror, "value");
+                if (value instanceof List<?> list && !list.isEmpty()) {
+                    error(record, "@GenerateJsonCodec does not support @JsonIgnoreProperties(value)");
+                    return null;
+                }
+                ignoreUnknown = Boolean.TRUE.equals(annotationValue(mirror, "ignoreUnknown"));
+            } else if (name.equals(JSON_INCLUDE)) {
+                Object value = annotationValue(mirror, "value");
+                if (value != null && !value.toString().equals("NON_NULL")) {
+                    error(record, "@GenerateJsonCodec supports only @JsonInclude(NON_NULL)");
+                    return null;
+                }
+            } else if (name.startsWith(JACKSON_PACKAGE)) {
+                error(record, "@GenerateJsonCodec does not support @" + name);
+                return null;
+            }
+        }
+
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponentElement component : record.getRecordComponents()) {
+            String jsonName = jsonName(record, component);
+            if (jsonName == null) {
+                return null;
+            }
+            properties.add(new Property(component.getSimpleName().toString(), jsonName, component.asType(),
+                    kind(component.asType()), properties.size()));
+        }
+        String packageName = elements.getPackageOf(record).getQualifiedName().toString();
+        return new CodecModel(packageName, codecSimpleName(record), record.getQualifiedName().toString(), ignoreUnknown, properties);
+    }
+
+    /*
+     * record component 에 선언한 annotation 은 @Target 에 따라 field / accessor / constructor parameter 로 전파되므로 모두 확인한다.
+     */
+    private String jsonName(TypeElement record, RecordComponentElement component) {
+        String name = component.getSimpleName().toString();
+        List<Element> declarations = new ArrayList<>();
+        declarations.add(component);
+        declarations.add(component.getAccessor());
+        for (VariableElement field : ElementFilter.fieldsIn(record.getEnclosedElements())) {
+            if (field.getSimpleName().contentEquals(name)) {
+                declarations.add(field);
+            }
+        }
+        String jsonName = name;
+        for (Element declaration : declarations) {
+            for (AnnotationMirror mirror : declaration.getAnnotationMirrors()) {
+                String annotationName = annotationName(mirror);
+                if (annotationName.equals(JSON_PROPERTY)) {
+                    Object value = annotationValue(mirror, "value");
+                    if (value instanceof String renamed && !renamed.isEmpty()) {
+                        jsonName = renamed;
+                    }
+                } else if (annotationName.startsWith(JACKSON_PACKAGE)) {
+                    error(component, "@GenerateJsonCodec does not support @" + annotationName);
+                    return null;
+                }
+            }
+        }
+        return jsonName;
+    }
+
+    private Kind kind(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return Kind.BOOLEAN;
+            case INT:
+                return Kind.INT;
+            case LONG:
+                return Kind.LONG;
+            case FLOAT:
+                return Kind.FLOAT;
+            case DOUBLE:
+                return Kind.DOUBLE;
+            case SHORT:
+            case BYTE:
+            case CHAR:
+                return Kind.OTHER_PRIMITIVE;
+            case DECLARED:
+                break;
+            default:
+                return Kind.VALUE;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        TypeElement element = (TypeElement) declared.asElement();
+        if (!declared.getTypeArguments().isEmpty()) {
+            return Kind.GENERIC_VALUE;
+        }
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.Boolean":
+                return Kind.BOOLEAN_OBJECT;
+            case "java.lang.Integer":
+                return Kind.INT_OBJECT;
+            case "java.lang.Long":
+                return Kind.LONG_OBJECT;
+            case "java.lang.Float":
+                return Kind.FLOAT_OBJECT;
+            case "java.lang.Double":
+                return Kind.DOUBLE_OBJECT;
+            case "java.lang.String":
+                return Kind.STRING;
+            default:
+                break;
+        }
+        if (element.getKind() == ElementKind.RECORD && hasCodecAnnotation(element) && element.getTypeParameters().isEmpty()) {
+            return Kind.CODEC;
+        }
+        return Kind.VALUE;
+    }
+
+    private boolean hasCodecAnnotation(TypeElement element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (annotationName(mirror).equals(ANNOTATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(CodecModel model) throws IOException {
+        String qualifiedName = model.packageName().isEmpty() ? model.simpleName() : model.packageName() + "." + model.simpleName();
+        try (Writer writer = filer.createSourceFile(qualifiedName).openWriter()) {
+            writer.write(source(model));
+        }
+    }
+
+    private String source(CodecModel model) {
+        String record = model.recordName();
+        StringBuilder out = new StringBuilder();
+        if (!model.packageName().isEmpty()) {
+            out.append("package ").append(model.packageName()).append(";\n\n");
+        }
+        out.append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import com.fasterxml.jackson.core.io.SerializedString;\n")
+                .append("import org.github.waltz4line.server.javalin.json.JsonCodec;\n")
+                .append("import org.github.waltz4line.server.javalin.json.JsonCodecSupport;\n\n")
+                .append("import java.io.IOException;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(JsonCodecProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(model.simpleName()).append(" implements JsonCodec<").append(record).append("> {\n\n")
+                .append("    public static final ").append(model.simpleName()).append(" INSTANCE = new ").append(model.simpleName()).append("();\n\n");
+        for (Property property : model.properties()) {
+            out.append("    private static final SerializedString NAME_").append(property.index())
+                    .append(" = new SerializedString(").append(literal(property.jsonName())).append(");\n\n");
+            if (property.kind() == Kind.GENERIC_VALUE) {
+                out.append("    private static final com.fasterxml.jackson.core.type.TypeReference<").append(typeName(property.type()))
+                        .append("> TYPE_").append(property.index()).append(" = new com.fasterxml.jackson.core.type.TypeReference<>() {\n    };\n\n");
+            }
+        }
+
+        out.append("    @Override\n")
+                .append("    public Class<").append(record).append("> type() {\n")
+                .append("        return ").append(record).append(".class;\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    public void write(").append(record).append(" value, JsonGenerator generator) throws IOException {\n")
+                .append("        generator.writeStartObject(value);\n");
+        for (Property property : model.properties()) {
+            writeProperty(out, property);
+        }
+        out.append("        generator.writeEndObject();\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    public ").append(record).append(" read(JsonParser parser) throws IOException {\n")
+                .append("        if (parser.currentToken() == JsonToken.VALUE_NULL) {\n")
+                .append("            return null;\n")
+                .append("        }\n");
+        for (Property property : model.properties()) {
+            out.append("        ").append(localType(property)).append(" value").append(property.index())
+                    .append(" = ").append(initialValue(property)).append(";\n");
+        }
+        out.append("        for (String name = JsonCodecSupport.firstFieldName(parser, ").append(record).append(".class); name != null; name = parser.nextFieldName()) {\n")
+                .append("            parser.nextToken();\n")
+                .append("            switch (name) {\n");
+        for (Property property : model.properties()) {
+            out.append("                case ").append(literal(property.jsonName())).append(" -> value").append(property.index())
+                    .append(" = ").append(readExpression(property)).append(";\n");
+        }
+        out.append("                default -> ").append(model.ignoreUnknown()
+                        ? "parser.skipChildren()"
+                        : "JsonCodecSupport.unknownProperty(parser, " + record + ".class, name)").append(";\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return new ").append(record).append("(");
+        for (Property property : model.properties()) {
+            if (property.index() > 0) {
+                out.append(", ");
+            }
+            out.append(constructorArgument(property));
+        }
+        out.append(");\n")
+                .append("    }\n\n")
+                .append("}\n");
+        return out.toString();
+    }
+
+    private void writeProperty(StringBuilder out, Property property) {
+        String name = "NAME_" + property.index();
+        String accessor = "value." + property.name() + "()";
+        switch (property.kind()) {
+            case BOOLEAN -> out.append("        generator.writeFieldName(").append(name).append(");\n")
+                    .append("        generator.writeBoolean(").append(accessor).append(");\n");
+            case INT, LONG, FLOAT, DOUBLE -> out.append("        generator.writeFieldName(").append(name).append(");\n")
+                    .append("        generator.writeNumber(").append(accessor).append(");\n");
+            case OTHER_PRIMITIVE -> out.append("        generator.writeFieldName(").append(name).append(");\n")
+                    .append(property.type().getKind() == TypeKind.CHAR
+                            ? "        generator.writeString(String.valueOf(" + accessor + "));\n"
+                            : "        generator.writeNumber((int) " + accessor + ");\n");
+            default -> {
+                String local = "value" + property.index();
+                out.append("        ").append(typeName(property.type())).append(' ').append(local).append(" = ").append(accessor).append(";\n")
+                        .append("        if (").append(local).append(" != null) {\n")
+                        .append("            generator.writeFieldName(").append(name).append(");\n")
+                        .append("            ").append(writeStatement(property, local)).append('\n')
+                        .append("        }\n");
+            }
+        }
+    }
+
+    private String writeStatement(Property property, String local) {
+        return switch (property.kind()) {
+            case BOOLEAN_OBJECT -> "generator.writeBoolean(" + local + ");";
+            case INT_OBJECT, LONG_OBJECT, FLOAT_OBJECT, DOUBLE_OBJECT -> "generator.writeNumber(" + local + ");";
+            case STRING -> "generator.writeString(" + local + ");";
+            case CODEC -> codecReference(property.type()) + ".INSTANCE.write(" + local + ", generator);";
+            default -> "JsonCodecSupport.writeValue(generator, " + local + ");";
+        };
+    }
+
+    private String readExpression(Property property) {
+        return switch (property.kind()) {
+            case BOOLEAN -> "JsonCodecSupport.readBoolean(parser)";
+            case INT -> "JsonCodecSupport.readInt(parser)";
+            case LONG -> "JsonCodecSupport.readLong(parser)";
+            case FLOAT -> "JsonCodecSupport.readFloat(parser)";
+            case DOUBLE -> "JsonCodecSupport.readDouble(parser)";
+            case BOOLEAN_OBJECT -> "JsonCodecSupport.readBooleanObject(parser)";
+            case INT_OBJECT -> "JsonCodecSupport.readIntObject(parser)";
+            case LONG_OBJECT -> "JsonCodecSupport.readLongObject(parser)";
+            case FLOAT_OBJECT -> "JsonCodecSupport.readFloatObject(parser)";
+            case DOUBLE_OBJECT -> "JsonCodecSupport.readDoubleObject(parser)";
+            case STRING -> "JsonCodecSupport.readString(parser)";
+            case CODEC -> codecReference(property.type()) + ".INSTANCE.read(parser)";
+            case OTHER_PRIMITIVE -> "JsonCodecSupport.readValue(parser, " + boxedName(property.type()) + ".class)";
+            case GENERIC_VALUE -> "JsonCodecSupport.readValue(parser, TYPE_" + property.index() + ")";
+            case VALUE -> "JsonCodecSupport.readValue(parser, " + erasureName(property.type()) + ".class)";
+        };
+    }
+
+    private String localType(Property property) {
+        return property.kind() == Kind.OTHER_PRIMITIVE ? boxedName(property.type()) : typeName(property.type());
+    }
+
+    private String initialValue(Property property) {
+        return switch (property.kind()) {
+            case BOOLEAN -> "false";
+            case INT -> "0";
+            case LONG -> "0L";
+            case FLOAT -> "0.0f";
+            case DOUBLE -> "0.0d";
+            default -> "null";
+        };
+    }
+
+    private String constructorArgument(Property property) {
+        String local = "value" + property.index();
+        if (property.kind() != Kind.OTHER_PRIMITIVE) {
+            return local;
+        }
+        String zero = property.type().getKind() == TypeKind.CHAR ? "'\\0'" : "0";
+        return local + " == null ? (" + property.type() + ") " + zero + " : " + local;
+    }
+
+    private String boxedName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case SHORT -> "Short";
+            case BYTE -> "Byte";
+            case CHAR -> "Character";
+            default -> throw new IllegalArgumentException(type.toString());
+        };
+    }
+
+    private String codecReference(TypeMirror type) {
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        PackageElement packageElement = elements.getPackageOf(element);
+        String simpleName = codecSimpleName(element);
+        return packageElement.isUnnamed() ? simpleName : packageElement.getQualifiedName() + "." + simpleName;
+    }
+
+    /*
+     * nested record 는 enclosing class 이름을 '_' 로 이어 붙인다. (e.g. Outer.Inner -> Outer_InnerJsonCodec)
+     */
+    private static String codecSimpleName(TypeElement record) {
+        StringBuilder name = new StringBuilder(record.getSimpleName());
+        for (Element e = record.getEnclosingElement(); e instanceof TypeElement type; e = e.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, type.getSimpleName());
+        }
+        return name.append(CODEC_SUFFIX).toString();
+    }
+
+    /*
+     * TypeMirror#toString 은 type annotation 을 포함할 수 있으므로 source 에 쓸 이름을 직접 만든다.
+     */
+    private String typeName(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED: {
+                DeclaredType declared = (DeclaredType) type;
+                StringBuilder name = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                List<? extends TypeMirror> arguments = declared.getTypeArguments();
+                if (!arguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < arguments.size(); i++) {
+                        if (i > 0) {
+                            name.append(", ");
+                        }
+                        name.append(typeName(arguments.get(i)));
+                    }
+                    name.append('>');
+                }
+                return name.toString();
+            }
+            case WILDCARD: {
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcard.getExtendsBound());
+                }
+                if (wildcard.getSuperBound() != null) {
+                    return "? super " + typeName(wildcard.getSuperBound());
+                }
+                return "?";
+            }
+            default:
+                return type.getKind().isPrimitive() ? type.getKind().name().toLowerCase() : type.toString();
+        }
+    }
+
+    private String erasureName(TypeMirror type) {
+        return typeName(processingEnv.getTypeUtils().erasure(type));
+    }
+
+    private void writeServiceFile() {
+        Set<String> services = new TreeSet<>(generated);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        services.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // 이전 compile 결과가 없다.
+        }
+        try (Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter()) {
+            for (String service : services) {
+                writer.write(service);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static String annotationName(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private static Object annotationValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum Kind {
+        BOOLEAN, INT, LONG, FLOAT, DOUBLE, OTHER_PRIMITIVE,
+        BOOLEAN_OBJECT, INT_OBJECT, LONG_OBJECT, FLOAT_OBJECT, DOUBLE_OBJECT, STRING,
+        CODEC, VALUE, GENERIC_VALUE
+    }
+
+    private record Property(String name, String jsonName, TypeMirror type, Kind kind, int index) {
+    }
+
+    private record CodecModel(String packageName, String simpleName, String recordName, boolean ignoreUnknown,
+                              List<Property> properties) {
+
+        String codecName() {
+            return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        }
+
+    }
+
+}
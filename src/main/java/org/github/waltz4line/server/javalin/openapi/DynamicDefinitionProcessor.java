@@ -1,7 +1,9 @@
 package org.github.waltz4line.server.javalin.openapi;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.javalin.openapi.plugin.DefinitionProcessor;
 import org.apache.commons.lang3.StringUtils;
@@ -13,6 +15,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
 
+/**
+ * 등록된 endpoint 로 OpenAPI 문서의 paths 를 생성한다.
+ * path 별 문서 node 를 캐시하며, 구동 중 endpoint 가 추가 / 제거되면 해당 path 의 node 만 다시 생성한다.
+ *
+ * OpenApiPlugin 은 첫 문서 요청 시점에 한 번만 processor 를 호출하므로, plugin 이 넘겨준 문서 (annotation processor 결과와
+ * plugin 설정) 를 보관해 두고 이후 endpoint 가 변경되면 {@link #refreshedDocument()} 로 다시 생성한다.
+ * 문서 버전이 여러 개라면 어느 문서를 다시 생성할지 알 수 없으므로 plugin 이 생성한 문서를 그대로 사용한다.
+ */
 public class DynamicDefinitionProcessor implements DefinitionProcessor {
 
     private static final String PARAM_TYPE_PATH = "path";
@@ -44,27 +54,103 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
 
     private final Map<String, List<RequestMapper>> requestMappers = new HashMap<>(Byte.MAX_VALUE);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ObjectNode> pathNodes = new HashMap<>(Byte.MAX_VALUE);
+
+    private volatile long version;
+
+    private volatile long processedVersion = -1;
+
+    private int processedDocuments;
+
+    private ObjectNode baseDocument;
+
+    private RefreshedDocument refreshedDocument;
+
+    private final ObjectMapper mapper;
+
+    private final JsonNodeFactory nodeFactory;
+
+    private final List<String> binaryMediaTypes;
+
+    /**
+     * @param binaryMediaTypes JSON 외에 요청 / 응답 body 로 사용할 수 있는 media type (에러 응답 제외)
+     */
+    public DynamicDefinitionProcessor(ObjectMapper mapper, List<String> binaryMediaTypes) {
+        this.mapper = mapper;
+        this.nodeFactory = mapper.getNodeFactory();
+        this.binaryMediaTypes = List.copyOf(binaryMediaTypes);
+    }
 
     @NotNull
     @Override
-    public String process(@NotNull ObjectNode objectNode) {
-        ObjectNode paths = objectNode.putObject(NODE_PATHS);
-        for (Map.Entry<String, List<RequestMapper>> entry : requestMappers.entrySet()) {
-            List<RequestMapper> docMappers = entry.getValue();
-            ObjectNode path = paths.putObject(entry.getKey());
-            for (RequestMapper docMapper : docMappers) {
-                createEndpointDocument(path, docMapper);
+    public synchronized String process(@NotNull ObjectNode objectNode) {
+        processedDocuments++;
+        baseDocument = processedDocuments == 1 ? objectNode.deepCopy() : null;
+        processedVersion = version;
+        return build(objectNode);
+    }
+
+    /**
+     * @return plugin 이 문서를 생성한 이후 endpoint 가 변경되었다면 다시 생성한 문서, 아니라면 null
+     */
+    public String refreshedDocument() {
+        if (processedVersion == version) {
+            return null;
+        }
+        synchronized (this) {
+            if (baseDocument == null || processedVersion == version) {
+                return null;
+            }
+            if (refreshedDocument == null || refreshedDocument.version() != version) {
+                refreshedDocument = new RefreshedDocument(version, build(baseDocument.deepCopy()));
             }
+            return refreshedDocument.json();
         }
-        return objectNode.toString();
     }
 
-    public void addRequestMapper(String methodType, RequestMapperAttr requestMapperAttr) {
+    private String build(ObjectNode objectNode) {
+        ObjectNode paths = objectNode.putObject(NODE_PATHS);
+        for (String path : requestMappers.keySet()) {
+            paths.set(path, pathNodes.computeIfAbsent(path, this::createPathDocument));
+        }
+        try {
+            return mapper.writeValueAsString(objectNode);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write OpenAPI document", e);
+        }
+    }
+
+    public synchronized void addRequestMapper(String methodType, RequestMapperAttr requestMapperAttr) {
         Objects.requireNonNull(methodType, "methodType must not be null");
         Objects.requireNonNull(requestMapperAttr, "requestMapperAttr must not be null");
         requestMappers.computeIfAbsent(requestMapperAttr.getPath(), k -> new ArrayList<>())
                 .add(new RequestMapper(methodType, requestMapperAttr));
+        changed(requestMapperAttr.getPath());
+    }
+
+    public synchronized void removeRequestMapper(String methodType, RequestMapperAttr requestMapperAttr) {
+        String path = requestMapperAttr.getPath();
+        List<RequestMapper> docMappers = requestMappers.get(path);
+        if (docMappers == null || !docMappers.remove(new RequestMapper(methodType, requestMapperAttr))) {
+            return;
+        }
+        if (docMappers.isEmpty()) {
+            requestMappers.remove(path);
+        }
+        changed(path);
+    }
+
+    private void changed(String path) {
+        pathNodes.remove(path);
+        version++;
+    }
+
+    private ObjectNode createPathDocument(String path) {
+        ObjectNode pathNode = nodeFactory.objectNode();
+        for (RequestMapper docMapper : requestMappers.get(path)) {
+            createEndpointDocument(pathNode, docMapper);
+        }
+        return pathNode;
     }
 
     private void createEndpointDocument(ObjectNode pathNode, RequestMapper docMapper) {
@@ -73,15 +159,15 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
         method.put(NODE_OPERATION_ID, document.getEndpointId());
         method.putArray(NODE_TAGS).add(document.getTag());
         method.put(NODE_SUMMARY, document.getDescription());
-        ArrayNode parameters = objectMapper.createArrayNode();
+        ArrayNode parameters = nodeFactory.arrayNode();
         addParameter(parameters, PARAM_TYPE_PATH, document.getPathParameters());
         addParameter(parameters, PARAM_TYPE_QUERY, document.getQueryParameters());
         if (!parameters.isEmpty()) {
             method.set(NODE_PARAMETERS, parameters);
         }
         addRequestBody(method, document.getRequestBody());
-        ObjectNode responses = objectMapper.createObjectNode();
-        addResponseBody(responses, document.getResponseBody(), HttpStatus.OK_200);
+        ObjectNode responses = nodeFactory.objectNode();
+        addResponseBody(responses, document.getResponseBody(), HttpStatus.OK_200, binaryMediaTypes);
         addErrorBody(responses, document.getErrorDescriptions());
         method.set(NODE_RESPONSES, responses);
     }
@@ -91,7 +177,7 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
             return;
         }
         for (RequestMapperAttr.ParameterDescription parameterDescription : parameterDescriptions) {
-            ObjectNode parameter = objectMapper.createObjectNode();
+            ObjectNode parameter = nodeFactory.objectNode();
             parameter.put(NODE_NAME, parameterDescription.name());
             parameter.put(NODE_IN, paramType);
             parameter.put(NODE_REQUIRED, PARAM_TYPE_PATH.equals(paramType));
@@ -105,31 +191,34 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
             return;
         }
         ObjectNode requestBody = methodNode.putObject(NODE_REQUEST_BODY);
-        putJsonBody(requestBody, bodyClass);
+        putJsonBody(requestBody, bodyClass, binaryMediaTypes);
     }
 
-    private void addResponseBody(ObjectNode responses, Class<?> bodyClass, int statusCode) {
+    private void addResponseBody(ObjectNode responses, Class<?> bodyClass, int statusCode, List<String> extraMediaTypes) {
         if (bodyClass == null) {
             return;
         }
         ObjectNode response = responses.putObject(String.valueOf(statusCode));
-        putJsonBody(response, bodyClass);
+        putJsonBody(response, bodyClass, extraMediaTypes);
     }
 
     private void addErrorBody(ObjectNode responses, List<RequestMapperAttr.ErrorDescription> errorDescriptions) {
         for (RequestMapperAttr.ErrorDescription errorDescription : errorDescriptions) {
-            addResponseBody(responses, errorDescription.errorResponse(), errorDescription.statusCode());
+            addResponseBody(responses, errorDescription.errorResponse(), errorDescription.statusCode(), List.of());
         }
     }
 
-    private void putJsonBody(ObjectNode bodyNode, Class<?> bodyClass) {
-        ObjectNode jsonNode = bodyNode.putObject(NODE_CONTENT)
-                .putObject(NODE_APPLICATION_JSON);
-        jsonNode.set(NODE_SCHEMA, createSchema(bodyClass, bodyClass.getSimpleName()));
+    private void putJsonBody(ObjectNode bodyNode, Class<?> bodyClass, List<String> extraMediaTypes) {
+        ObjectNode content = bodyNode.putObject(NODE_CONTENT);
+        ObjectNode schema = createSchema(bodyClass, bodyClass.getSimpleName());
+        content.putObject(NODE_APPLICATION_JSON).set(NODE_SCHEMA, schema);
+        for (String mediaType : extraMediaTypes) {
+            content.putObject(mediaType).set(NODE_SCHEMA, schema);
+        }
     }
 
     private ObjectNode createSchema(Class<?> type, String description) {
-        ObjectNode schema = objectMapper.createObjectNode();
+        ObjectNode schema = nodeFactory.objectNode();
         String typeVal = parseType(type);
         schema.put(NODE_TYPE, typeVal);
         if (StringUtils.isNotEmpty(description)) {
@@ -145,7 +234,7 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
     }
 
     private ObjectNode createProperties(Class<?> type) {
-        ObjectNode properties = objectMapper.createObjectNode();
+        ObjectNode properties = nodeFactory.objectNode();
         Field[] fields = type.getDeclaredFields();
         for (Field field : fields) {
             if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
@@ -175,4 +264,7 @@ public class DynamicDefinitionProcessor implements DefinitionProcessor {
         return TYPE_VAL_OBJECT;
     }
 
+    private record RefreshedDocument(long version, String json) {
+    }
+
 }
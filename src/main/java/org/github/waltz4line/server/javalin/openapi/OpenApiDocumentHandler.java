@@ -0,0 +1,38 @@
+package org.github.waltz4line.server.javalin.openapi;
+
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * OpenApiPlugin 이 등록한 문서 handler 를 감싼다.
+ * plugin 은 첫 요청 시점에 생성한 문서를 계속 응답하므로, 이후 endpoint 가 추가 / 제거되었다면 {@link DynamicDefinitionProcessor} 가
+ * 다시 생성한 문서로 응답한다. (버전을 지정한 요청은 plugin 이 그대로 처리한다.)
+ */
+public class OpenApiDocumentHandler implements Handler {
+
+    private static final String QUERY_VERSION = "v";
+
+    private final Handler pluginHandler;
+
+    private final DynamicDefinitionProcessor definitionProcessor;
+
+    public OpenApiDocumentHandler(Handler pluginHandler, DynamicDefinitionProcessor definitionProcessor) {
+        this.pluginHandler = pluginHandler;
+        this.definitionProcessor = definitionProcessor;
+    }
+
+    @Override
+    public void handle(@NotNull Context ctx) throws Exception {
+        pluginHandler.handle(ctx);
+        if (ctx.queryParam(QUERY_VERSION) != null) {
+            return;
+        }
+        String refreshed = definitionProcessor.refreshedDocument();
+        if (refreshed != null) {
+            ctx.contentType(ContentType.APPLICATION_JSON).result(refreshed);
+        }
+    }
+
+}
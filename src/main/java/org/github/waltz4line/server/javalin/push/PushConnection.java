@@ -0,0 +1,183 @@
+package org.github.waltz4line.server.javalin.push;
+
+import org.github.waltz4line.server.router.PushMappingAttr;
+import org.github.waltz4line.server.router.annotation.PushOverflow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.WebSocketMapping} /
+ * {@link org.github.waltz4line.server.router.annotation.SseMapping} 연결.
+ *
+ * 연결마다 크기가 제한된 전송 대기열을 가지며 한 번에 하나의 메시지만 전송한다.
+ * 대기열이 가득 차면 {@link PushOverflow} 설정에 따라 메시지를 버리거나 연결을 끊는다.
+ */
+public abstract class PushConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushConnection.class);
+
+    private final PushMappingAttr pushMapping;
+
+    private final Topics topics;
+
+    private final ArrayDeque<PushMessage> queue = new ArrayDeque<>();
+
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final List<Runnable> closeHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<String> messageHandler;
+
+    private boolean sending;
+
+    private boolean closed;
+
+    PushConnection(PushMappingAttr pushMapping, Topics topics) {
+        this.pushMapping = pushMapping;
+        this.topics = topics;
+        topics.connected();
+    }
+
+    public abstract String pathParam(String name);
+
+    public abstract String queryParam(String name);
+
+    public abstract String header(String name);
+
+    public Topics topics() {
+        return topics;
+    }
+
+    public void subscribe(String topic) {
+        if (subscriptions.add(topic)) {
+            topics.subscribe(topic, this);
+        }
+    }
+
+    public void unsubscribe(String topic) {
+        if (subscriptions.remove(topic)) {
+            topics.unsubscribe(topic, this);
+        }
+    }
+
+    /**
+     * 이 연결에만 메시지를 전송한다.
+     *
+     * @return 전송 대기열에 들어갔다면 true
+     */
+    public boolean send(Object message) {
+        return offer(topics.message(null, message));
+    }
+
+    /**
+     * WebSocket 연결에서 text 메시지를 수신했을 때 호출할 handler. SSE 연결에서는 호출되지 않는다.
+     */
+    public void onMessage(Consumer<String> messageHandler) {
+        this.messageHandler = messageHandler;
+    }
+
+    public void onClose(Runnable closeHandler) {
+        closeHandlers.add(closeHandler);
+    }
+
+    public boolean isOpen() {
+        synchronized (queue) {
+            return !closed;
+        }
+    }
+
+    public void close() {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+        }
+        for (String topic : subscriptions) {
+            topics.unsubscribe(topic, this);
+        }
+        subscriptions.clear();
+        topics.disconnected();
+        for (Runnable closeHandler : closeHandlers) {
+            try {
+                closeHandler.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Push connection close handler failed. endpoint: {}", pushMapping.endpointId(), e);
+            }
+        }
+        disconnect();
+    }
+
+    final boolean offer(PushMessage message) {
+        boolean slowConsumer;
+        synchronized (queue) {
+            if (closed) {
+                return false;
+            }
+            slowConsumer = sending && queue.size() >= pushMapping.queueSize();
+            if (slowConsumer) {
+                topics.recordOverflow(pushMapping.overflow() == PushOverflow.DISCONNECT);
+                if (pushMapping.overflow() == PushOverflow.DROP) {
+                    return false;
+                }
+            } else if (sending) {
+                queue.addLast(message);
+                return true;
+            } else {
+                sending = true;
+            }
+        }
+        if (slowConsumer) {
+            LOGGER.debug("Disconnect slow push consumer. endpoint: {}", pushMapping.endpointId());
+            close();
+            return false;
+        }
+        transmit(message);
+        return true;
+    }
+
+    /**
+     * 전송이 끝나면 transport 구현에서 호출한다. 대기 중인 다음 메시지를 전송한다.
+     */
+    final void sent() {
+        PushMessage next;
+        synchronized (queue) {
+            next = queue.pollFirst();
+            if (next == null) {
+                sending = false;
+                return;
+            }
+        }
+        transmit(next);
+    }
+
+    final void received(String message) {
+        Consumer<String> handler = messageHandler;
+        if (handler != null) {
+            handler.accept(message);
+        }
+    }
+
+    final PushMappingAttr pushMapping() {
+        return pushMapping;
+    }
+
+    /**
+     * 메시지를 비동기로 전송한다. 전송이 끝나면 {@link #sent()} 를, 실패하면 {@link #close()} 를 호출해야 한다.
+     */
+    abstract void transmit(PushMessage message);
+
+    /**
+     * transport 연결을 닫는다.
+     */
+    abstract void disconnect();
+
+}
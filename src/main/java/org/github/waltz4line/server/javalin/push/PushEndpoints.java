@@ -0,0 +1,104 @@
+package org.github.waltz4line.server.javalin.push;
+
+import io.javalin.Javalin;
+import io.javalin.http.Handler;
+import io.javalin.http.sse.SseHandler;
+import org.github.waltz4line.server.router.PushMappingAttr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.WebSocketMapping} /
+ * {@link org.github.waltz4line.server.router.annotation.SseMapping} 메소드를 Javalin 에 등록한다.
+ * 연결마다 {@link PushConnection} 을 만들어 mapping 메소드를 한 번 호출한다.
+ */
+public final class PushEndpoints implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PushEndpoints.class);
+
+    private final Topics topics;
+
+    private final ExecutorService sseWriter = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PushEndpoints(Topics topics) {
+        this.topics = topics;
+    }
+
+    public Topics topics() {
+        return topics;
+    }
+
+    public void registerWebSocket(Javalin javalin, Object instance, Method method, PushMappingAttr pushMapping) {
+        validate(method);
+        Map<String, WebSocketPushConnection> connections = new ConcurrentHashMap<>();
+        javalin.ws(pushMapping.path(), ws -> {
+            ws.onConnect(ctx -> {
+                WebSocketPushConnection connection = new WebSocketPushConnection(ctx, pushMapping, topics);
+                connections.put(ctx.sessionId(), connection);
+                invoke(instance, method, connection);
+            });
+            ws.onMessage(ctx -> {
+                WebSocketPushConnection connection = connections.get(ctx.sessionId());
+                if (connection != null) {
+                    connection.received(ctx.message());
+                }
+            });
+            ws.onClose(ctx -> {
+                WebSocketPushConnection connection = connections.remove(ctx.sessionId());
+                if (connection != null) {
+                    connection.close();
+                }
+            });
+            ws.onError(ctx -> {
+                WebSocketPushConnection connection = connections.remove(ctx.sessionId());
+                if (connection != null) {
+                    connection.close();
+                }
+            });
+        });
+    }
+
+    /**
+     * @return 등록한 GET handler. 구독 중인 연결은 handler 를 제거해도 유지된다.
+     */
+    public Handler registerSse(Javalin javalin, Object instance, Method method, PushMappingAttr pushMapping) {
+        validate(method);
+        SseHandler handler = new SseHandler(client -> {
+            client.keepAlive();
+            SsePushConnection connection = new SsePushConnection(client, pushMapping, topics, sseWriter);
+            client.onClose(connection::close);
+            invoke(instance, method, connection);
+        });
+        javalin.sse(pushMapping.path(), handler);
+        return handler;
+    }
+
+    @Override
+    public void close() {
+        sseWriter.shutdownNow();
+    }
+
+    private static void validate(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1 || !parameterTypes[0].isAssignableFrom(PushConnection.class)) {
+            throw new IllegalArgumentException("Push mapping method must take a single PushConnection parameter: " + method);
+        }
+    }
+
+    private static void invoke(Object instance, Method method, PushConnection connection) {
+        try {
+            method.invoke(instance, connection);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOGGER.error("Push endpoint failed. endpoint: {}", connection.pushMapping().endpointId(), e);
+            connection.close();
+        }
+    }
+
+}
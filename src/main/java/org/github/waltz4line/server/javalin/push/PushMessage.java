@@ -0,0 +1,73 @@
+package org.github.waltz4line.server.javalin.push;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 한 번 직렬화된 push 메시지. 모든 구독자에게 같은 bytes 를 전송한다.
+ * WebSocket 용 payload 와 SSE frame 은 처음 사용될 때 한 번만 만든다.
+ */
+public final class PushMessage {
+
+    private final String event;
+
+    private final String text;
+
+    private volatile ByteBuffer webSocketPayload;
+
+    private volatile byte[] sseFrame;
+
+    PushMessage(String event, String text) {
+        this.event = event;
+        this.text = text;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /**
+     * @return UTF-8 text frame payload. 연결마다 {@link ByteBuffer#duplicate()} 하여 사용해야 한다.
+     */
+    ByteBuffer webSocketPayload() {
+        ByteBuffer payload = webSocketPayload;
+        if (payload == null) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            payload = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            webSocketPayload = payload;
+        }
+        return payload;
+    }
+
+    /**
+     * text 가 여러 줄이라면 줄마다 "data: " 를 붙인다. (client 는 data 줄을 다시 줄바꿈으로 합친다)
+     *
+     * @return "event: {topic}\ndata: {json}\n\n" 형식의 SSE frame
+     */
+    byte[] sseFrame() {
+        byte[] frame = sseFrame;
+        if (frame == null) {
+            StringBuilder builder = new StringBuilder(text.length() + 32);
+            if (event != null) {
+                builder.append("event: ").append(event).append('\n');
+            }
+            builder.append("data: ");
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\r' || c == '\n') {
+                    if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    builder.append("\ndata: ");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append("\n\n");
+            frame = builder.toString().getBytes(StandardCharsets.UTF_8);
+            sseFrame = frame;
+        }
+        return frame;
+    }
+
+}
@@ -0,0 +1,14 @@
+package org.github.waltz4line.server.javalin.push;
+
+/**
+ * push 연결 통계
+ *
+ * @param connections  현재 연결 수
+ * @param topics       구독자가 있는 topic 수
+ * @param published    publish 된 메시지 수 (topic 단위)
+ * @param delivered    전송 대기열에 들어간 메시지 수 (연결 단위)
+ * @param dropped      대기열이 가득 차 버려진 메시지 수
+ * @param disconnected 대기열이 가득 차 끊어진 연결 수
+ */
+public record PushStats(long connections, int topics, long published, long delivered, long dropped, long disconnected) {
+}
@@ -0,0 +1,61 @@
+package org.github.waltz4line.server.javalin.push;
+
+import io.javalin.http.sse.SseClient;
+import org.github.waltz4line.server.router.PushMappingAttr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * Server-Sent Events push 연결. 미리 만들어진 SSE frame bytes 를 응답 stream 에 그대로 쓴다.
+ * servlet 응답 쓰기는 blocking 이므로 전송은 별도 executor 에서 수행한다.
+ */
+final class SsePushConnection extends PushConnection {
+
+    private final SseClient client;
+
+    private final Executor writer;
+
+    SsePushConnection(SseClient client, PushMappingAttr pushMapping, Topics topics, Executor writer) {
+        super(pushMapping, topics);
+        this.client = client;
+        this.writer = writer;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return client.ctx().pathParam(name);
+    }
+
+    @Override
+    public String queryParam(String name) {
+        return client.ctx().queryParam(name);
+    }
+
+    @Override
+    public String header(String name) {
+        return client.ctx().header(name);
+    }
+
+    @Override
+    void transmit(PushMessage message) {
+        writer.execute(() -> {
+            try {
+                OutputStream out = client.ctx().res().getOutputStream();
+                out.write(message.sseFrame());
+                out.flush();
+            } catch (IOException | RuntimeException e) {
+                close();
+                return;
+            }
+            sent();
+        });
+    }
+
+    @Override
+    void disconnect() {
+        client.close();
+    }
+
+}
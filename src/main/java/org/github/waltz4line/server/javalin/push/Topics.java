@@ -0,0 +1,103 @@
+package org.github.waltz4line.server.javalin.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * push topic 구독 관리 및 broadcast.
+ * {@link #publish(String, Object)} 는 메시지를 한 번만 직렬화하고 같은 {@link PushMessage} 를 모든 구독자의 대기열에 넣는다.
+ * 전송은 연결마다 비동기로 수행되므로 느린 구독자가 publish 를 막지 않는다.
+ */
+public final class Topics {
+
+    private final ObjectMapper mapper;
+
+    private final ConcurrentHashMap<String, Set<PushConnection>> subscribers = new ConcurrentHashMap<>();
+
+    private final LongAdder connections = new LongAdder();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder delivered = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder disconnected = new LongAdder();
+
+    public Topics(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return 메시지를 대기열에 넣은 구독자 수
+     */
+    public int publish(String topic, Object message) {
+        Set<PushConnection> connections = subscribers.get(topic);
+        if (connections == null || connections.isEmpty()) {
+            return 0;
+        }
+        PushMessage pushMessage = message(topic, message);
+        published.increment();
+        int count = 0;
+        for (PushConnection connection : connections) {
+            if (connection.offer(pushMessage)) {
+                count++;
+            }
+        }
+        delivered.add(count);
+        return count;
+    }
+
+    public int subscriberCount(String topic) {
+        Set<PushConnection> connections = subscribers.get(topic);
+        return connections == null ? 0 : connections.size();
+    }
+
+    public PushStats stats() {
+        return new PushStats(connections.sum(), subscribers.size(), published.sum(), delivered.sum(), dropped.sum(), disconnected.sum());
+    }
+
+    PushMessage message(String event, Object message) {
+        if (message instanceof PushMessage pushMessage) {
+            return pushMessage;
+        }
+        try {
+            String text = message instanceof String string ? string : mapper.writeValueAsString(message);
+            return new PushMessage(event, text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize push message for " + event, e);
+        }
+    }
+
+    void subscribe(String topic, PushConnection connection) {
+        subscribers.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(connection);
+    }
+
+    void unsubscribe(String topic, PushConnection connection) {
+        subscribers.computeIfPresent(topic, (key, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    void connected() {
+        connections.increment();
+    }
+
+    void disconnected() {
+        connections.decrement();
+    }
+
+    void recordOverflow(boolean disconnect) {
+        if (disconnect) {
+            disconnected.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+}
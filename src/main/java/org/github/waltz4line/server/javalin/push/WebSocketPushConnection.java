@@ -0,0 +1,84 @@
+package org.github.waltz4line.server.javalin.push;
+
+import io.javalin.websocket.WsContext;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketSession;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.github.waltz4line.server.router.PushMappingAttr;
+
+/**
+ * WebSocket push 연결. Jetty core session 에 직접 text frame 을 보내 모든 연결이 같은 payload bytes 를 공유한다.
+ * (core session 을 얻을 수 없다면 {@link Session#getRemote()} 로 전송)
+ */
+final class WebSocketPushConnection extends PushConnection implements Callback, WriteCallback {
+
+    private final WsContext ctx;
+
+    private final Session session;
+
+    private final CoreSession coreSession;
+
+    WebSocketPushConnection(WsContext ctx, PushMappingAttr pushMapping, Topics topics) {
+        super(pushMapping, topics);
+        this.ctx = ctx;
+        this.session = ctx.session;
+        this.coreSession = session instanceof WebSocketSession webSocketSession ? webSocketSession.getCoreSession() : null;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return ctx.pathParam(name);
+    }
+
+    @Override
+    public String queryParam(String name) {
+        return ctx.queryParam(name);
+    }
+
+    @Override
+    public String header(String name) {
+        return ctx.header(name);
+    }
+
+    @Override
+    void transmit(PushMessage message) {
+        if (coreSession != null) {
+            coreSession.sendFrame(new Frame(OpCode.TEXT, true, message.webSocketPayload().duplicate()), this, false);
+        } else {
+            session.getRemote().sendString(message.text(), (WriteCallback) this);
+        }
+    }
+
+    @Override
+    void disconnect() {
+        if (session.isOpen()) {
+            session.close(StatusCode.NORMAL, null);
+        }
+    }
+
+    @Override
+    public void succeeded() {
+        sent();
+    }
+
+    @Override
+    public void failed(Throwable x) {
+        close();
+    }
+
+    @Override
+    public void writeSuccess() {
+        sent();
+    }
+
+    @Override
+    public void writeFailed(Throwable x) {
+        close();
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.github.waltz4line.server.javalin.ratelimit;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HttpStatus;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.error.ErrorResponseBody;
+import org.github.waltz4line.server.router.RateLimitAttr;
+import org.github.waltz4line.server.router.annotation.RateLimitKey;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitAttr} 에 따라 요청을 제한한다. 제한 초과 시 429 와 Retry-After (초) 를 응답하고 endpoint 를 호출하지 않는다.
+ */
+public final class RateLimitInterceptor implements EndpointInterceptor {
+
+    private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+    private static final ErrorResponseBody TOO_MANY_REQUESTS =
+            ErrorResponseBody.of(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", "Rate limit exceeded");
+
+    private static final String MISSING_HEADER_KEY = "";
+
+    private final RateLimiter rateLimiter;
+
+    private final RateLimitKey key;
+
+    private final String header;
+
+    public RateLimitInterceptor(RateLimitAttr rateLimit, int maxKeys) {
+        this.rateLimiter = new RateLimiter(rateLimit.permitsPerSecond(), rateLimit.burst(), maxKeys);
+        this.key = rateLimit.key();
+        this.header = rateLimit.header();
+    }
+
+    /**
+     * rate limit 이 설정된 endpoint 에만 interceptor 를 생성하는 factory
+     */
+    public static EndpointInterceptorFactory factory(int maxKeys) {
+        return (handlerType, requestMapping) -> requestMapping.getRateLimit().enabled()
+                ? new RateLimitInterceptor(requestMapping.getRateLimit(), maxKeys)
+                : null;
+    }
+
+    @Override
+    public void intercept(Context ctx, Handler next) throws Exception {
+        long waitNanos = switch (key) {
+            case CLIENT_IP -> rateLimiter.tryAcquire(ctx.ip(), System.nanoTime());
+            case HEADER -> rateLimiter.tryAcquire(headerKey(ctx), System.nanoTime());
+            default -> rateLimiter.tryAcquire(System.nanoTime());
+        };
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            ctx.header(HEADER_RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            TOO_MANY_REQUESTS.writeTo(ctx);
+            return;
+        }
+        next.handle(ctx);
+    }
+
+    private String headerKey(Context ctx) {
+        String value = ctx.header(header);
+        return value == null ? MISSING_HEADER_KEY : value;
+    }
+
+}
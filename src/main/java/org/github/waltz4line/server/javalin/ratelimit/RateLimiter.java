@@ -0,0 +1,141 @@
+package org.github.waltz4line.server.javalin.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GCRA (generic cell rate algorithm) 기반 token bucket.
+ *
+ * bucket 상태는 다음 요청이 허용되는 이론적 도착 시각(TAT) 하나의 long 값이며 CAS 로만 갱신하므로 lock 이 없다.
+ * key 별 bucket 은 {@link ConcurrentHashMap} 에 보관하고 maxKeys 에 도달하면 idle bucket 만 low-water mark (maxKeys 의 3/4) 까지 제거한다.
+ * TAT 가 현재 시각 이전인 bucket 은 새로 만든 bucket 과 동일하므로 제거해도 다른 key 의 limit 에 영향이 없다.
+ * idle bucket 이 없어 공간을 확보하지 못하면 새 key 는 bucket 을 만들지 않고 하나의 overflow bucket 을 함께 사용한다.
+ * 정리는 EVICT_INTERVAL 마다 최대 한 번만 수행하므로 key 가 가득 찬 상태에서도 새 key 마다 전체를 순회하지 않는다.
+ */
+public final class RateLimiter {
+
+    private static final long PERMITTED = 0;
+
+    private static final long EVICT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final int maxKeys;
+
+    private final int lowWaterKeys;
+
+    private final Bucket globalBucket = new Bucket();
+
+    private final Bucket overflowBucket = new Bucket();
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private volatile long nextEvictNanos;
+
+    public RateLimiter(int permitsPerSecond, int burst, int maxKeys) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(burst, 1) - 1);
+        this.maxKeys = Math.max(maxKeys, 1);
+        this.lowWaterKeys = this.maxKeys - this.maxKeys / 4;
+        this.nextEvictNanos = System.nanoTime();
+    }
+
+    /**
+     * @return 허용 시 0, 거절 시 다음 요청이 허용될 때까지 남은 nano seconds
+     */
+    public long tryAcquire(long nowNanos) {
+        return globalBucket.tryAcquire(nowNanos);
+    }
+
+    /**
+     * @return 허용 시 0, 거절 시 다음 요청이 허용될 때까지 남은 nano seconds
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, nowNanos);
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    public int keyCount() {
+        return buckets.size();
+    }
+
+    /*
+     * 동시에 새 key 가 들어오면 maxKeys 를 약간 넘을 수 있다.
+     */
+    private Bucket newBucket(String key, long nowNanos) {
+        if (buckets.size() >= maxKeys) {
+            evictIdle(nowNanos);
+            if (buckets.size() >= maxKeys) {
+                return overflowBucket;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    private void evictIdle(long nowNanos) {
+        if (nowNanos - nextEvictNanos < 0 || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextEvictNanos = nowNanos + EVICT_INTERVAL_NANOS;
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (buckets.size() > lowWaterKeys && iterator.hasNext()) {
+                if (iterator.next().isIdle(nowNanos)) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private final class Bucket {
+
+        private static final VarHandle TAT;
+
+        static {
+            try {
+                TAT = MethodHandles.lookup().findVarHandle(Bucket.class, "theoreticalArrival", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @SuppressWarnings("unused")
+        private volatile long theoreticalArrival = Long.MIN_VALUE;
+
+        long tryAcquire(long nowNanos) {
+            while (true) {
+                long current = (long) TAT.getVolatile(this);
+                long arrival = Math.max(current, nowNanos);
+                long waitNanos = arrival - burstToleranceNanos - nowNanos;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (TAT.compareAndSet(this, current, arrival + emissionIntervalNanos)) {
+                    return PERMITTED;
+                }
+            }
+        }
+
+        boolean isIdle(long nowNanos) {
+            return theoreticalArrival <= nowNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package org.github.waltz4line.server.javalin.route;
+
+import io.javalin.config.JavalinConfig;
+import io.javalin.config.RouterConfig;
+import io.javalin.event.EventManager;
+import io.javalin.event.HandlerMetaInfo;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import io.javalin.router.Endpoint;
+import io.javalin.router.EndpointMetadata;
+import io.javalin.router.InternalRouter;
+import io.javalin.router.ParsedEndpoint;
+import io.javalin.router.matcher.PathMatcher;
+import io.javalin.security.Roles;
+import io.javalin.util.Util;
+import io.javalin.validation.Validation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * HTTP endpoint 를 copy-on-write 배열로 관리하는 Javalin router.
+ *
+ * Javalin 기본 router 는 구동 이후 endpoint 를 추가하는 것이 thread-safe 하지 않고 제거할 수 없다.
+ * 여기서는 변경 시마다 HandlerType 별 endpoint 배열을 새로 만들어 교체하므로 요청 스레드는 lock 없이 조회하며,
+ * 처리 중인 요청은 조회 시점의 endpoint 를 그대로 사용한다. (변경은 드물고 조회는 요청마다 발생한다.)
+ *
+ * radix tree 사용 시 HandlerType 별 {@link RouteTree} 로 요청 path 와 일치하는 endpoint 를 찾는다. (endpoint 마다 정규식을 비교하지 않는다.)
+ * tree 는 endpoint 가 변경된 뒤 처음 조회할 때 다시 만든다.
+ *
+ * 상위 class 의 {@link #allHttpHandlers()} (RouteOverviewPlugin, HttpAllowedMethodsPlugin 등이 사용) 는 final 이며
+ * 상위 class 의 PathMatcher 를 조회하므로, {@link #getHttpPathMatcher()} 는 호출 시점의 endpoint 로 만든 PathMatcher 를 반환한다.
+ * plugin 이 구동 시점에 목록을 한 번만 읽는다면 (e.g. HttpAllowedMethodsPlugin) 이후 변경된 endpoint 는 반영되지 않는다.
+ *
+ * WebSocket endpoint 는 Javalin {@link io.javalin.websocket.WsRouter} 가 관리하므로 대상이 아니다.
+ */
+public final class CopyOnWriteRouter extends InternalRouter {
+
+    private static final ParsedEndpoint[] EMPTY = new ParsedEndpoint[0];
+
+    private final RouterConfig routerConfig;
+
+    private final EventManager eventManager;
+
+    private final boolean radixTree;
+
+    private volatile Map<HandlerType, ParsedEndpoint[]> endpoints = new EnumMap<>(HandlerType.class);
+
+    private volatile Map<HandlerType, RouteTree> routeTrees = new EnumMap<>(HandlerType.class);
+
+    private CopyOnWriteRouter(JavalinConfig config, boolean radixTree) {
+        super(config.pvt.wsRouter, config.pvt.eventManager, config.router);
+        this.routerConfig = config.router;
+        this.eventManager = config.pvt.eventManager;
+        this.radixTree = radixTree;
+    }
+
+    /**
+     * Javalin 기본 router 를 교체한다. Javalin.create 의 config 단계에서 endpoint 를 등록하기 전에 호출해야 한다.
+     *
+     * @param radixTree endpoint 조회에 radix tree 를 사용할지 여부
+     */
+    public static CopyOnWriteRouter install(JavalinConfig config, boolean radixTree) {
+        CopyOnWriteRouter router = new CopyOnWriteRouter(config, radixTree);
+        config.pvt.internalRouter = router;
+        // 교체 전 router 에 등록된 기본 exception handler 를 다시 등록한다.
+        Validation.addValidationExceptionMapper(config);
+        return router;
+    }
+
+    @NotNull
+    @Override
+    public InternalRouter addHttpEndpoint(@NotNull Endpoint endpoint) {
+        ParsedEndpoint parsed = new ParsedEndpoint(endpoint, routerConfig);
+        synchronized (this) {
+            HandlerType method = endpoint.getMethod();
+            ParsedEndpoint[] current = entries(endpoints, method);
+            if (method.isHttpMethod()) {
+                for (ParsedEndpoint existing : current) {
+                    if (existing.getEndpoint().getPath().equals(endpoint.getPath())) {
+                        throw new IllegalArgumentException("Handler with type='" + method + "' and path='"
+                                + endpoint.getPath() + "' already exists.");
+                    }
+                }
+            }
+            ParsedEndpoint[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = parsed;
+            publish(method, updated);
+        }
+        Roles roles = endpoint.metadata(Roles.class);
+        eventManager.fireHandlerAddedEvent(new HandlerMetaInfo(endpoint.getMethod(),
+                Util.prefixContextPath(routerConfig.contextPath, endpoint.getPath()), endpoint.getHandler(),
+                roles == null ? Set.of() : roles.getRoles()));
+        return this;
+    }
+
+    /**
+     * @param handler 등록한 handler. 같은 path 에 여러 handler 가 등록될 수 있는 before / after 를 구분한다.
+     * @return 제거되었다면 true
+     */
+    public synchronized boolean removeHttpEndpoint(HandlerType method, String path, Handler handler) {
+        ParsedEndpoint[] current = entries(endpoints, method);
+        for (int i = 0; i < current.length; i++) {
+            Endpoint endpoint = current[i].getEndpoint();
+            if (endpoint.getPath().equals(path) && endpoint.getHandler() == handler) {
+                ParsedEndpoint[] updated = new ParsedEndpoint[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                publish(method, updated);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * path 에 등록된 handler 를 감싼 handler 로 교체한다. plugin 이 등록한 endpoint 의 동작을 보완할 때 사용한다.
+     *
+     * @return 교체되었다면 true
+     */
+    public synchronized boolean decorateHttpEndpoint(HandlerType method, String path, UnaryOperator<Handler> decorator) {
+        ParsedEndpoint[] current = entries(endpoints, method);
+        for (int i = 0; i < current.length; i++) {
+            Endpoint endpoint = current[i].getEndpoint();
+            if (endpoint.getPath().equals(path)) {
+                Roles roles = endpoint.metadata(Roles.class);
+                Set<EndpointMetadata> metadata = roles == null ? Set.of() : Set.of(roles);
+                ParsedEndpoint[] updated = current.clone();
+                updated[i] = new ParsedEndpoint(new Endpoint(method, path, metadata, decorator.apply(endpoint.getHandler())),
+                        routerConfig);
+                publish(method, updated);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasHttpEndpoint(HandlerType method, String path) {
+        for (ParsedEndpoint entry : entries(endpoints, method)) {
+            if (entry.getEndpoint().getPath().equals(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public Stream<ParsedEndpoint> findHttpHandlerEntries(@NotNull HandlerType handlerType, @Nullable String requestUri) {
+        if (requestUri == null) {
+            return Arrays.stream(entries(endpoints, handlerType));
+        }
+        if (radixTree) {
+            return routeTree(handlerType).find(requestUri);
+        }
+        ParsedEndpoint[] entries = entries(endpoints, handlerType);
+        return Arrays.stream(entries).filter(entry -> matches(entry, requestUri));
+    }
+
+    @Override
+    public boolean hasHttpHandlerEntry(@NotNull HandlerType handlerType, @NotNull String requestUri) {
+        if (radixTree) {
+            return routeTree(handlerType).contains(requestUri);
+        }
+        for (ParsedEndpoint entry : entries(endpoints, handlerType)) {
+            if (matches(entry, requestUri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 상위 class 의 {@link #allHttpHandlers()} 에서만 사용한다. 조회 / 등록은 이 PathMatcher 를 거치지 않는다.
+     */
+    @NotNull
+    @Override
+    protected PathMatcher getHttpPathMatcher() {
+        PathMatcher matcher = new PathMatcher();
+        for (ParsedEndpoint[] entries : endpoints.values()) {
+            for (ParsedEndpoint entry : entries) {
+                matcher.add(entry);
+            }
+        }
+        return matcher;
+    }
+
+    private void publish(HandlerType method, ParsedEndpoint[] updated) {
+        Map<HandlerType, ParsedEndpoint[]> copy = new EnumMap<>(endpoints);
+        copy.put(method, updated);
+        endpoints = copy;
+        if (radixTree && routeTrees.containsKey(method)) {
+            Map<HandlerType, RouteTree> trees = new EnumMap<>(routeTrees);
+            trees.remove(method);
+            routeTrees = trees;
+        }
+    }
+
+    private RouteTree routeTree(HandlerType method) {
+        RouteTree tree = routeTrees.get(method);
+        return tree != null ? tree : compile(method);
+    }
+
+    private synchronized RouteTree compile(HandlerType method) {
+        RouteTree tree = routeTrees.get(method);
+        if (tree == null) {
+            tree = RouteTree.compile(entries(endpoints, method), routerConfig);
+            Map<HandlerType, RouteTree> trees = new EnumMap<>(routeTrees);
+            trees.put(method, tree);
+            routeTrees = trees;
+        }
+        return tree;
+    }
+
+    private static ParsedEndpoint[] entries(Map<HandlerType, ParsedEndpoint[]> snapshot, HandlerType method) {
+        ParsedEndpoint[] entries = snapshot.get(method);
+        return entries == null ? EMPTY : entries;
+    }
+
+    static boolean matches(ParsedEndpoint entry, String requestUri) {
+        String path = entry.getEndpoint().getPath();
+        return "*".equals(path) || path.equals(requestUri) || entry.matches(requestUri);
+    }
+
+}
@@ -0,0 +1,360 @@
+package org.github.waltz4line.server.javalin.route;
+
+import io.javalin.config.RouterConfig;
+import io.javalin.router.ParsedEndpoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * HandlerType 하나의 endpoint 를 path 의 공통 prefix 로 묶은 radix tree.
+ *
+ * 고정 문자열과 segment 전체가 {@code {name}} 인 path parameter 로만 이루어진 path 를 tree 에 넣고, 요청 path 를 한 번 따라
+ * 내려가며 일치하는 endpoint 를 찾는다. 그 외 path (wildcard, {@code <name>}, segment 일부만 parameter 인 경우 등) 는
+ * Javalin 과 같이 정규식으로 비교한다. 결과는 등록 순서로 정렬하므로 Javalin 기본 router 와 같은 endpoint 가 선택된다.
+ *
+ * trailing slash / 연속된 slash / 대소문자 처리는 Javalin {@link io.javalin.router.matcher.PathParser} 가 만드는 정규식과 같다.
+ */
+final class RouteTree {
+
+    private static final int[] NONE = new int[0];
+
+    private final ParsedEndpoint[] entries;
+
+    private final Node root = new Node("");
+
+    private final int[] fallback;
+
+    private final boolean ignoreTrailingSlashes;
+
+    private final boolean multipleSlashes;
+
+    private final boolean caseInsensitive;
+
+    private RouteTree(ParsedEndpoint[] entries, RouterConfig routerConfig) {
+        this.entries = entries;
+        this.ignoreTrailingSlashes = routerConfig.ignoreTrailingSlashes;
+        this.multipleSlashes = routerConfig.treatMultipleSlashesAsSingleSlash;
+        this.caseInsensitive = routerConfig.caseInsensitiveRoutes;
+        int[] fallback = new int[entries.length];
+        int fallbackCount = 0;
+        for (int i = 0; i < entries.length; i++) {
+            List<String> literals = literals(entries[i].getEndpoint().getPath());
+            if (literals == null) {
+                fallback[fallbackCount++] = i;
+            } else {
+                insert(literals, i);
+            }
+        }
+        this.fallback = Arrays.copyOf(fallback, fallbackCount);
+    }
+
+    static RouteTree compile(ParsedEndpoint[] entries, RouterConfig routerConfig) {
+        return new RouteTree(entries, routerConfig);
+    }
+
+    /**
+     * @return requestUri 와 일치하는 endpoint (등록 순서)
+     */
+    Stream<ParsedEndpoint> find(String requestUri) {
+        Matches matches = new Matches();
+        search(root, requestUri, 0, matches);
+        for (int index : fallback) {
+            if (CopyOnWriteRouter.matches(entries[index], requestUri)) {
+                matches.add(index);
+            }
+        }
+        return switch (matches.count) {
+            case 0 -> Stream.empty();
+            case 1 -> Stream.of(entries[matches.indexes[0]]);
+            default -> matches.sorted().mapToObj(index -> entries[index]);
+        };
+    }
+
+    boolean contains(String requestUri) {
+        Matches matches = new Matches();
+        search(root, requestUri, 0, matches);
+        if (matches.count > 0) {
+            return true;
+        }
+        for (int index : fallback) {
+            if (CopyOnWriteRouter.matches(entries[index], requestUri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * path parameter 를 기준으로 나눈 고정 문자열 목록. ("/a/{id}/b" -> ["/a/", "/b"])
+     * tree 로 처리할 수 없는 path 라면 null
+     */
+    private List<String> literals(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/' || path.contains("//")) {
+            return null;
+        }
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder("/");
+        String[] segments = path.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+            if (segment.isEmpty()) {
+                // "/" 또는 trailing slash. trailing slash 무시 설정이 아니라면 path 의 일부로 비교한다.
+                if (last && !ignoreTrailingSlashes && segments.length > 1) {
+                    literal.append('/');
+                }
+                continue;
+            }
+            if (i > 0) {
+                literal.append('/');
+            }
+            if (isParameter(segment)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+            } else if (isLiteral(segment)) {
+                literal.append(caseInsensitive ? lowerCase(segment) : segment);
+            } else {
+                return null;
+            }
+        }
+        literals.add(literal.toString());
+        return literals;
+    }
+
+    private static boolean isParameter(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && isLiteral(segment.substring(1, segment.length() - 1));
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            switch (segment.charAt(i)) {
+                case '{', '}', '<', '>', '*' -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+        }
+        return true;
+    }
+
+    private void insert(List<String> literals, int index) {
+        Node node = root;
+        for (int i = 0; i < literals.size(); i++) {
+            if (i > 0) {
+                if (node.parameter == null) {
+                    node.parameter = new Node("");
+                }
+                node = node.parameter;
+            }
+            node = insert(node, literals.get(i));
+        }
+        node.addEndpoint(index);
+    }
+
+    private static Node insert(Node node, String literal) {
+        String rest = literal;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.addChild(child);
+                return child;
+            }
+            int common = commonPrefix(child.prefix, rest);
+            if (common < child.prefix.length()) {
+                child.split(common);
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /*
+     * node 의 prefix 부터 비교한다. 한 node 는 요청 path 의 한 위치에서만 방문되므로 같은 endpoint 가 중복되지 않는다.
+     */
+    private void search(Node node, String uri, int position, Matches matches) {
+        int end = matchPrefix(node.prefix, uri, position);
+        if (end < 0) {
+            return;
+        }
+        if (node.endpoints.length > 0 && isEnd(node, uri, end)) {
+            matches.add(node.endpoints);
+        }
+        if (end == uri.length()) {
+            return;
+        }
+        char next = uri.charAt(end);
+        Node child = node.child(caseInsensitive ? lowerCase(next) : next);
+        if (child != null) {
+            search(child, uri, end, matches);
+        }
+        if (node.parameter != null && next != '/') {
+            int segmentEnd = uri.indexOf('/', end);
+            search(node.parameter, uri, segmentEnd < 0 ? uri.length() : segmentEnd, matches);
+        }
+    }
+
+    private int matchPrefix(String prefix, String uri, int position) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (position == uri.length()) {
+                return -1;
+            }
+            char expected = prefix.charAt(i);
+            char actual = uri.charAt(position++);
+            if (expected == '/') {
+                if (actual != '/') {
+                    return -1;
+                }
+                if (multipleSlashes) {
+                    while (position < uri.length() && uri.charAt(position) == '/') {
+                        position++;
+                    }
+                }
+            } else if (expected != (caseInsensitive ? lowerCase(actual) : actual)) {
+                return -1;
+            }
+        }
+        return position;
+    }
+
+    /*
+     * endpoint 가 있는 node 에서 남은 요청 path 가 trailing slash 뿐인지 확인한다. "/" path 는 trailing slash 를 허용하지 않는다.
+     */
+    private boolean isEnd(Node node, String uri, int position) {
+        if (position == uri.length()) {
+            return true;
+        }
+        if (!ignoreTrailingSlashes || node == root.child('/') && node.prefix.length() == 1) {
+            return false;
+        }
+        if (!multipleSlashes) {
+            return position == uri.length() - 1 && uri.charAt(position) == '/';
+        }
+        for (int i = position; i < uri.length(); i++) {
+            if (uri.charAt(i) != '/') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Javalin 은 대소문자 무시 정규식 (ASCII 기준) 으로 비교한다.
+     */
+    private static char lowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static String lowerCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = lowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static final class Node {
+
+        private String prefix;
+
+        /*
+         * 첫 글자로 정렬된 고정 문자열 자식
+         */
+        private char[] firsts = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private Node parameter;
+
+        private int[] endpoints = NONE;
+
+        private Node(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private Node child(char first) {
+            int index = Arrays.binarySearch(firsts, first);
+            return index < 0 ? null : children[index];
+        }
+
+        private void addChild(Node child) {
+            int index = -Arrays.binarySearch(firsts, child.prefix.charAt(0)) - 1;
+            char[] updatedFirsts = new char[firsts.length + 1];
+            Node[] updatedChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, updatedFirsts, 0, index);
+            System.arraycopy(children, 0, updatedChildren, 0, index);
+            updatedFirsts[index] = child.prefix.charAt(0);
+            updatedChildren[index] = child;
+            System.arraycopy(firsts, index, updatedFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, updatedChildren, index + 1, children.length - index);
+            firsts = updatedFirsts;
+            children = updatedChildren;
+        }
+
+        private void addEndpoint(int index) {
+            endpoints = Arrays.copyOf(endpoints, endpoints.length + 1);
+            endpoints[endpoints.length - 1] = index;
+        }
+
+        /*
+         * prefix 를 length 위치에서 나누고, 나머지와 기존 자식 / endpoint 를 새 자식 node 로 옮긴다.
+         */
+        private void split(int length) {
+            Node rest = new Node(prefix.substring(length));
+            rest.firsts = firsts;
+            rest.children = children;
+            rest.parameter = parameter;
+            rest.endpoints = endpoints;
+            prefix = prefix.substring(0, length);
+            firsts = new char[]{rest.prefix.charAt(0)};
+            children = new Node[]{rest};
+            parameter = null;
+            endpoints = NONE;
+        }
+
+    }
+
+    private static final class Matches {
+
+        private int[] indexes = new int[4];
+
+        private int count;
+
+        private void add(int index) {
+            if (count == indexes.length) {
+                indexes = Arrays.copyOf(indexes, count * 2);
+            }
+            indexes[count++] = index;
+        }
+
+        private void add(int[] endpoints) {
+            for (int index : endpoints) {
+                add(index);
+            }
+        }
+
+        private IntStream sorted() {
+            int[] sorted = Arrays.copyOf(indexes, count);
+            Arrays.sort(sorted);
+            return Arrays.stream(sorted);
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.github.waltz4line.server.javalin.stream;
+
+import io.javalin.http.ContentTooLargeResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 최대 크기를 초과하여 읽으려 하면 {@link ContentTooLargeResponse} (413) 를 던지는 InputStream
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+
+    private long read;
+
+    LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) {
+        read += n;
+        if (read > maxBytes) {
+            throw tooLarge(maxBytes);
+        }
+    }
+
+    static ContentTooLargeResponse tooLarge(long maxBytes) {
+        return new ContentTooLargeResponse("Request body exceeds " + maxBytes + " bytes");
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.github.waltz4line.server.javalin.stream;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Flow.Publisher} 를 blocking {@link Iterator} 로 변환한다.
+ * 소비한 만큼만 publisher 에 request 하므로 응답 쓰기가 느려지면 (느린 client) publisher 도 함께 느려진다.
+ * 다음 항목을 itemTimeoutNanos 동안 받지 못하면 subscription 을 cancel 하고 예외를 던진다.
+ * {@link #close()} 시 subscription 을 cancel 한다.
+ */
+final class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T>, AutoCloseable {
+
+    private static final Object COMPLETE = new Object();
+
+    private final int batchSize;
+
+    private final int refillThreshold;
+
+    private final long itemTimeoutNanos;
+
+    private final BlockingQueue<Object> queue;
+
+    private volatile Flow.Subscription subscription;
+
+    private volatile boolean cancelled;
+
+    private int consumed;
+
+    private Object next;
+
+    private boolean done;
+
+    PublisherIterator(int batchSize, long itemTimeoutNanos) {
+        this.batchSize = batchSize;
+        this.refillThreshold = Math.max(1, batchSize / 2);
+        this.itemTimeoutNanos = itemTimeoutNanos;
+        this.queue = new ArrayBlockingQueue<>(batchSize + 1);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (!queue.offer(item)) {
+            onError(new IllegalStateException("Publisher emitted more items than requested"));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        queue.offer(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        queue.offer(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (done) {
+            return false;
+        }
+        if (next != null) {
+            return true;
+        }
+        Object signal;
+        try {
+            signal = queue.poll(itemTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for publisher", e);
+        }
+        if (signal == null) {
+            close();
+            throw new IllegalStateException("Publisher did not emit within " + TimeUnit.NANOSECONDS.toMillis(itemTimeoutNanos) + " ms");
+        }
+        if (signal == COMPLETE) {
+            done = true;
+            return false;
+        }
+        if (signal instanceof Failure failure) {
+            done = true;
+            if (failure.cause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Publisher failed", failure.cause());
+        }
+        next = signal;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T item = (T) next;
+        next = null;
+        if (++consumed >= refillThreshold) {
+            subscription.request(consumed);
+            consumed = 0;
+        }
+        return item;
+    }
+
+    @Override
+    public void close() {
+        cancelled = true;
+        done = true;
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private record Failure(Throwable cause) {
+    }
+
+}
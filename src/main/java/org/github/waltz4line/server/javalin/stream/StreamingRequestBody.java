@@ -0,0 +1,173 @@
+package org.github.waltz4line.server.javalin.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.Header;
+import org.github.waltz4line.server.javalin.RouterInvokeHandler;
+import org.github.waltz4line.server.router.StreamingBodyAttr;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link org.github.waltz4line.server.router.annotation.StreamingBody} endpoint 의 handler.
+ * 요청 body 를 버퍼링하지 않고 InputStream 또는 JSON 항목 단위 Iterator / Stream 으로 endpoint 에 전달한다.
+ * 인자 타입 및 항목 타입은 endpoint 등록 시점에 결정한다.
+ */
+public final class StreamingRequestBody {
+
+    private enum Kind {
+        INPUT_STREAM, ITERATOR, STREAM
+    }
+
+    private final Object instance;
+
+    private final Method method;
+
+    private final StreamingBodyAttr streamingBody;
+
+    private final Kind kind;
+
+    private final Type elementType;
+
+    private volatile ObjectReader reader;
+
+    private StreamingRequestBody(Object instance, Method method, StreamingBodyAttr streamingBody, Class<?> requestBody) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 2 || !parameterTypes[0].isAssignableFrom(Context.class)) {
+            throw new IllegalArgumentException("Streaming body method must take (Context, InputStream | Iterator | Stream): " + method);
+        }
+        this.instance = instance;
+        this.method = method;
+        this.streamingBody = streamingBody;
+        this.kind = kindOf(parameterTypes[1], method);
+        this.elementType = elementType(method.getGenericParameterTypes()[1], requestBody);
+    }
+
+    public static Handler handler(Object instance, Method method, StreamingBodyAttr streamingBody, Class<?> requestBody) {
+        StreamingRequestBody body = new StreamingRequestBody(instance, method, streamingBody, requestBody);
+        return body::handle;
+    }
+
+    private void handle(Context ctx) throws Exception {
+        if (streamingBody.limited() && ctx.contentLength() > streamingBody.maxBytes()) {
+            throw LimitedInputStream.tooLarge(streamingBody.maxBytes());
+        }
+        InputStream body = ctx.req().getInputStream();
+        if (streamingBody.limited()) {
+            body = new LimitedInputStream(body, streamingBody.maxBytes());
+        }
+        if (kind == Kind.INPUT_STREAM) {
+            RouterInvokeHandler.handle(ctx, instance, method, body);
+            return;
+        }
+        MappingIterator<Object> values;
+        try {
+            values = reader(ctx).readValues(body);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+        try (MappingIterator<Object> iterator = values) {
+            Iterator<Object> elements = new BodyElements(iterator);
+            Object argument = kind == Kind.ITERATOR ? elements : stream(elements, iterator);
+            RouterInvokeHandler.handle(ctx, instance, method, argument);
+        }
+    }
+
+    private ObjectReader reader(Context ctx) {
+        ObjectReader current = reader;
+        if (current == null) {
+            ObjectMapper mapper = StreamingResponse.mapper(ctx);
+            JavaType javaType = mapper.getTypeFactory().constructType(elementType);
+            current = mapper.readerFor(javaType);
+            reader = current;
+        }
+        return current;
+    }
+
+    private static Stream<Object> stream(Iterator<Object> elements, MappingIterator<Object> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * 항목 parsing 중 발생한 JSON 오류를 400 응답으로 변환한다.
+     */
+    private record BodyElements(MappingIterator<Object> iterator) implements Iterator<Object> {
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return iterator.hasNext();
+            } catch (RuntimeException e) {
+                throw malformed(e);
+            }
+        }
+
+        /**
+         * MappingIterator 는 parsing 오류를 RuntimeJsonMappingException 또는 RuntimeException(JsonProcessingException) 으로 던진다.
+         */
+        private static RuntimeException malformed(RuntimeException e) {
+            if (e instanceof RuntimeJsonMappingException || e.getCause() instanceof JsonProcessingException) {
+                return new BadRequestResponse("Malformed request body");
+            }
+            return e;
+        }
+
+        @Override
+        public Object next() {
+            try {
+                return iterator.next();
+            } catch (RuntimeException e) {
+                throw malformed(e);
+            }
+        }
+
+    }
+
+    private static Kind kindOf(Class<?> parameterType, Method method) {
+        if (parameterType == InputStream.class) {
+            return Kind.INPUT_STREAM;
+        }
+        if (parameterType == Iterator.class) {
+            return Kind.ITERATOR;
+        }
+        if (parameterType == Stream.class) {
+            return Kind.STREAM;
+        }
+        throw new IllegalArgumentException("Unsupported streaming body parameter type " + parameterType.getName() + ": " + method);
+    }
+
+    private static Type elementType(Type parameterType, Class<?> requestBody) {
+        if (parameterType instanceof ParameterizedType parameterizedType) {
+            Type argument = parameterizedType.getActualTypeArguments()[0];
+            if (argument instanceof Class<?> || argument instanceof ParameterizedType) {
+                return argument;
+            }
+        }
+        return requestBody == null ? Object.class : requestBody;
+    }
+
+}
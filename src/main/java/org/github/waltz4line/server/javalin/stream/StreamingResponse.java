@@ -0,0 +1,167 @@
+package org.github.waltz4line.server.javalin.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
+import org.github.waltz4line.server.javalin.format.BinaryBodyJsonMapper;
+import org.github.waltz4line.server.javalin.json.CodecJsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * endpoint 가 반환한 {@link Stream}, {@link Iterator}, {@link Flow.Publisher} 를 전체 결과를 메모리에 올리지 않고
+ * 응답 stream 에 순차적으로 쓴다.
+ *
+ * Accept 에 application/x-ndjson (또는 application/ndjson) 이 있으면 한 줄에 하나의 JSON 을, 그렇지 않으면 JSON array 를 쓴다.
+ * 응답 쓰기는 blocking 으로 수행되므로 client 가 느리면 다음 항목을 읽지 않는다.
+ * client 연결이 끊기면 쓰기를 중단하고 원본 stream 을 close 한다.
+ * 응답을 시작한 뒤 원본에서 예외가 발생하면 status 를 바꿀 수 없으므로 오류를 기록하고 응답을 끝낸다.
+ * 이때 JSON array 는 닫지 않으므로 client 는 응답이 완전하지 않음을 알 수 있다.
+ * Flow.Publisher 가 {@link #PUBLISHER_ITEM_TIMEOUT_NANOS} 동안 다음 항목을 보내지 않는 경우도 같다.
+ */
+public final class StreamingResponse {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingResponse.class);
+
+    public static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+    private static final String CONTENT_TYPE_NDJSON_ALIAS = "application/ndjson";
+
+    private static final String CONTENT_TYPE_JSON = "application/json";
+
+    private static final int FLUSH_EVERY_ITEMS = 256;
+
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final int PUBLISHER_BATCH_SIZE = 64;
+
+    private static final long PUBLISHER_ITEM_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static volatile ObjectMapper fallbackMapper;
+
+    private StreamingResponse() {
+    }
+
+    /**
+     * @return result 가 streaming 대상 타입인지 여부
+     */
+    public static boolean isStreaming(Object result) {
+        return result instanceof Stream<?> || result instanceof Iterator<?> || result instanceof Flow.Publisher<?>;
+    }
+
+    public static void write(Context ctx, Object result) throws IOException {
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                write(ctx, stream.iterator());
+            }
+        } else if (result instanceof Flow.Publisher<?> publisher) {
+            PublisherIterator<Object> iterator = new PublisherIterator<>(PUBLISHER_BATCH_SIZE, PUBLISHER_ITEM_TIMEOUT_NANOS);
+            try (iterator) {
+                publisher.subscribe(iterator);
+                write(ctx, iterator);
+            }
+        } else if (result instanceof Iterator<?> iterator) {
+            try {
+                write(ctx, iterator);
+            } finally {
+                if (iterator instanceof AutoCloseable closeable) {
+                    closeQuietly(closeable);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported streaming result type: " + result.getClass().getName());
+        }
+    }
+
+    private static void write(Context ctx, Iterator<?> iterator) throws IOException {
+        boolean ndjson = acceptsNdjson(ctx.header(Header.ACCEPT));
+        ctx.contentType(ndjson ? CONTENT_TYPE_NDJSON : CONTENT_TYPE_JSON);
+        ctx.res().setStatus(ctx.statusCode());
+
+        OutputStream out;
+        JsonGenerator generator;
+        try {
+            out = ctx.outputStream();
+            generator = mapper(ctx).createGenerator(out);
+        } catch (IOException e) {
+            LOGGER.debug("Client disconnected before streaming response {}", ctx.path());
+            return;
+        }
+        long count = 0;
+        try (generator) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            try {
+                int pending = 0;
+                long lastFlush = System.nanoTime();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                    count++;
+                    if (++pending >= FLUSH_EVERY_ITEMS || System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                        generator.flush();
+                        pending = 0;
+                        lastFlush = System.nanoTime();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 완료된 응답으로 보이지 않도록 close 시 열린 array 를 닫지 않는다.
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                LOGGER.error("Streaming response {} failed after {} items", ctx.path(), count, e);
+                return;
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Client disconnected while streaming response {} after {} items", ctx.path(), count);
+        }
+    }
+
+    static boolean acceptsNdjson(String accept) {
+        return accept != null && (accept.contains(CONTENT_TYPE_NDJSON) || accept.contains(CONTENT_TYPE_NDJSON_ALIAS));
+    }
+
+    static ObjectMapper mapper(Context ctx) {
+        JsonMapper jsonMapper = ctx.jsonMapper();
+        if (jsonMapper instanceof BinaryBodyJsonMapper binaryBodyJsonMapper) {
+            jsonMapper = binaryBodyJsonMapper.getDelegate();
+        }
+        if (jsonMapper instanceof JavalinJackson javalinJackson) {
+            return javalinJackson.getMapper();
+        }
+        if (jsonMapper instanceof CodecJsonMapper codecJsonMapper) {
+            return codecJsonMapper.getMapper();
+        }
+        ObjectMapper mapper = fallbackMapper;
+        if (mapper == null) {
+            mapper = JavalinJackson.defaultMapper();
+            fallbackMapper = mapper;
+        }
+        return mapper;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            LOGGER.debug("Failed to close streaming source", e);
+        }
+    }
+
+}
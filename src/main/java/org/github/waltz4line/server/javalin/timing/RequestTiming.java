@@ -0,0 +1,71 @@
+package org.github.waltz4line.server.javalin.timing;
+
+import io.javalin.http.Context;
+
+import java.util.Arrays;
+
+/**
+ * 요청 하나의 구간별 소요 시간 (nanoseconds). 측정하지 않은 구간은 -1 이다.
+ * {@link ServerTiming} 이 활성화된 경우에만 요청 attribute 로 존재한다.
+ */
+public final class RequestTiming {
+
+    static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long[] nanos = new long[PHASES.length];
+
+    RequestTiming() {
+        Arrays.fill(nanos, -1);
+    }
+
+    /**
+     * @return 요청의 timing, instrumentation 이 비활성화 되어 있다면 null
+     */
+    public static RequestTiming of(Context ctx) {
+        return ctx.attribute(ATTRIBUTE);
+    }
+
+    public void add(TimingPhase phase, long elapsedNanos) {
+        int index = phase.ordinal();
+        nanos[index] = Math.max(0, nanos[index]) + elapsedNanos;
+    }
+
+    public long nanos(TimingPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * @return Server-Timing header 값 (e.g. "queue;dur=0.052, handler;dur=1.204, total;dur=1.310")
+     */
+    String header() {
+        StringBuilder header = new StringBuilder(96);
+        for (TimingPhase phase : PHASES) {
+            long elapsed = nanos[phase.ordinal()];
+            if (elapsed < 0) {
+                continue;
+            }
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            header.append(phase.metricName()).append(";dur=");
+            appendMillis(header, elapsed);
+        }
+        return header.toString();
+    }
+
+    private static void appendMillis(StringBuilder header, long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        long fraction = micros % 1_000;
+        header.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+
+}
@@ -0,0 +1,214 @@
+package org.github.waltz4line.server.javalin.timing;
+
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.http.HandlerType;
+import org.eclipse.jetty.server.Request;
+import org.github.waltz4line.server.javalin.EndpointInterceptor;
+import org.github.waltz4line.server.javalin.EndpointInterceptorFactory;
+import org.github.waltz4line.server.javalin.JavalinContextConfig;
+import org.github.waltz4line.server.router.RequestMapperAttr;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * annotation endpoint 의 요청 처리 구간 ({@link TimingPhase}) 별 소요 시간을 측정한다.
+ *
+ * 활성화되어 있다면 가장 바깥쪽 interceptor 로 요청마다 {@link RequestTiming} 을 만들고, 처리가 끝나면 endpointId 별 구간 histogram 에
+ * 기록하며 Server-Timing header 를 응답한다. (응답이 이미 전송되기 시작한 streaming 응답에는 header 를 쓰지 않는다.)
+ * 비활성화되어 있다면 interceptor 를 만들지 않고 {@link #timed} 도 factory 를 그대로 반환하므로 요청 처리 비용이 없다.
+ */
+public final class ServerTiming implements EndpointInterceptorFactory {
+
+    private static final String HEADER = "Server-Timing";
+
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final boolean enabled;
+
+    private final boolean header;
+
+    private final Map<String, EndpointTimings> endpoints = new ConcurrentHashMap<>();
+
+    public ServerTiming(JavalinContextConfig.JavalinTiming timing) {
+        this.enabled = timing != null && timing.enable();
+        this.header = enabled && timing.header();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        if (!enabled) {
+            return null;
+        }
+        EndpointTimings timings = endpoints.computeIfAbsent(requestMapping.getEndpointDocument().getEndpointId(),
+                endpointId -> new EndpointTimings());
+        return (ctx, next) -> intercept(ctx, next, timings);
+    }
+
+    @Override
+    public void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+        endpoints.remove(requestMapping.getEndpointDocument().getEndpointId());
+    }
+
+    /**
+     * factory 가 만드는 interceptor 의 실행 시간 (다음 interceptor / endpoint 실행 시간 제외) 을 phase 로 기록하도록 감싼다.
+     */
+    public EndpointInterceptorFactory timed(TimingPhase phase, EndpointInterceptorFactory factory) {
+        if (!enabled) {
+            return factory;
+        }
+        return new EndpointInterceptorFactory() {
+            @Override
+            public EndpointInterceptor create(HandlerType handlerType, RequestMapperAttr requestMapping) {
+                EndpointInterceptor interceptor = factory.create(handlerType, requestMapping);
+                return interceptor == null ? null : new TimedInterceptor(phase, interceptor);
+            }
+
+            @Override
+            public void release(HandlerType handlerType, RequestMapperAttr requestMapping) {
+                factory.release(handlerType, requestMapping);
+            }
+        };
+    }
+
+    /**
+     * endpoint handler 의 실행 시간을 {@link TimingPhase#HANDLER} 로 기록하도록 감싼다.
+     */
+    public Handler timed(Handler endpoint) {
+        if (!enabled) {
+            return endpoint;
+        }
+        return ctx -> {
+            RequestTiming timing = RequestTiming.of(ctx);
+            long start = System.nanoTime();
+            try {
+                endpoint.handle(ctx);
+            } finally {
+                if (timing != null) {
+                    timing.add(TimingPhase.HANDLER, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return endpointId 별 구간 통계. 측정되지 않은 구간은 포함하지 않는다.
+     */
+    public Map<String, Map<TimingPhase, TimingStats>> stats() {
+        Map<String, Map<TimingPhase, TimingStats>> stats = new LinkedHashMap<>();
+        endpoints.forEach((endpointId, timings) -> stats.put(endpointId, timings.snapshot()));
+        return stats;
+    }
+
+    private void intercept(Context ctx, Handler next, EndpointTimings timings) throws Exception {
+        long start = System.nanoTime();
+        RequestTiming timing = new RequestTiming();
+        long queued = queued(ctx, start);
+        if (queued >= 0) {
+            timing.add(TimingPhase.QUEUE, queued);
+        }
+        ctx.attribute(RequestTiming.ATTRIBUTE, timing);
+        try {
+            next.handle(ctx);
+        } finally {
+            timing.add(TimingPhase.TOTAL, System.nanoTime() - start + Math.max(0, queued));
+            timings.record(timing);
+            if (header && !ctx.res().isCommitted()) {
+                ctx.res().setHeader(HEADER, timing.header());
+            }
+        }
+    }
+
+    /*
+     * Jetty 가 요청을 읽기 시작한 시각. Jetty 요청이 아니라면 -1
+     */
+    private static long queued(Context ctx, long now) {
+        Request request = Request.getBaseRequest(ctx.req());
+        if (request == null || request.getBeginNanoTime() == 0) {
+            return -1;
+        }
+        return Math.max(0, now - request.getBeginNanoTime());
+    }
+
+    private static final class EndpointTimings {
+
+        private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+
+        private EndpointTimings() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        private void record(RequestTiming timing) {
+            for (TimingPhase phase : PHASES) {
+                long nanos = timing.nanos(phase);
+                if (nanos >= 0) {
+                    histograms[phase.ordinal()].record(nanos);
+                }
+            }
+        }
+
+        private Map<TimingPhase, TimingStats> snapshot() {
+            Map<TimingPhase, TimingStats> snapshot = new EnumMap<>(TimingPhase.class);
+            for (TimingPhase phase : PHASES) {
+                TimingStats stats = histograms[phase.ordinal()].snapshot();
+                if (stats.count() > 0) {
+                    snapshot.put(phase, stats);
+                }
+            }
+            return snapshot;
+        }
+
+    }
+
+    private record TimedInterceptor(TimingPhase phase, EndpointInterceptor delegate) implements EndpointInterceptor {
+
+        @Override
+        public void intercept(Context ctx, Handler next) throws Exception {
+            RequestTiming timing = RequestTiming.of(ctx);
+            if (timing == null) {
+                delegate.intercept(ctx, next);
+                return;
+            }
+            TimedNext timedNext = new TimedNext(next);
+            long start = System.nanoTime();
+            try {
+                delegate.intercept(ctx, timedNext);
+            } finally {
+                timing.add(phase, System.nanoTime() - start - timedNext.nanos);
+            }
+        }
+
+    }
+
+    private static final class TimedNext implements Handler {
+
+        private final Handler next;
+
+        private long nanos;
+
+        private TimedNext(Handler next) {
+            this.next = next;
+        }
+
+        @Override
+        public void handle(Context ctx) throws Exception {
+            long start = System.nanoTime();
+            try {
+                next.handle(ctx);
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+    }
+
+}
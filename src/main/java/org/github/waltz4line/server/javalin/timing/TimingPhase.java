@@ -0,0 +1,53 @@
+package org.github.waltz4line.server.javalin.timing;
+
+/**
+ * 요청 처리 구간. {@link #metricName()} 은 Server-Timing header 의 metric 이름으로 사용된다.
+ */
+public enum TimingPhase {
+
+    /**
+     * Jetty 가 요청을 읽기 시작한 시점부터 endpoint 처리가 시작되기까지 (thread pool 대기, Javalin before handler 포함)
+     */
+    QUEUE("queue"),
+
+    /**
+     * 인증 (credential 검증 및 AuthenticationHandler)
+     */
+    AUTH("auth"),
+
+    /**
+     * endpoint 에 적용된 before / after filter
+     */
+    FILTER("filter"),
+
+    /**
+     * bulkhead permit 대기
+     */
+    BULKHEAD("bulkhead"),
+
+    /**
+     * endpoint 메소드 실행
+     */
+    HANDLER("handler"),
+
+    /**
+     * endpoint 반환 값의 응답 변환 (JSON 직렬화 등)
+     */
+    SERIALIZE("serialize"),
+
+    /**
+     * QUEUE 부터 endpoint 처리가 끝날 때까지 (응답 전송 제외)
+     */
+    TOTAL("total");
+
+    private final String metricName;
+
+    TimingPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+
+}
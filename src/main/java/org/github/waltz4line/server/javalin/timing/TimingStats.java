@@ -0,0 +1,17 @@
+package org.github.waltz4line.server.javalin.timing;
+
+/**
+ * 구간 소요 시간 통계. 분위수는 histogram bucket 의 상한값이다.
+ *
+ * @param count     측정 횟수
+ * @param meanNanos 평균 소요 시간
+ * @param p50Nanos  50 분위수
+ * @param p90Nanos  90 분위수
+ * @param p99Nanos  99 분위수
+ * @param maxNanos  최대 소요 시간
+ */
+public record TimingStats(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+
+    static final TimingStats EMPTY = new TimingStats(0, 0, 0, 0, 0, 0);
+
+}
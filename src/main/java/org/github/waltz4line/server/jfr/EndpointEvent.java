@@ -0,0 +1,36 @@
+package org.github.waltz4line.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * annotation endpoint 요청 처리. 기본 threshold 는 JFR 설정 ({@code org.github.waltz4line.Endpoint#threshold}) 으로 변경할 수 있다.
+ */
+@Name("org.github.waltz4line.Endpoint")
+@Label("Endpoint")
+@Description("Annotation endpoint invocation including interceptors")
+@Category({"Waltz4line", "HTTP"})
+@StackTrace(false)
+@Threshold("10 ms")
+public final class EndpointEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint Id")
+    public String endpointId;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Exception")
+    public String exception;
+
+}
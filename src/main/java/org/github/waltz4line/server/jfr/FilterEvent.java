@@ -0,0 +1,33 @@
+package org.github.waltz4line.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * before / after filter 실행
+ */
+@Name("org.github.waltz4line.Filter")
+@Label("Filter")
+@Description("BeforeFilter / AfterFilter execution")
+@Category({"Waltz4line", "HTTP"})
+@StackTrace(false)
+@Threshold("1 ms")
+public final class FilterEvent extends jdk.jfr.Event {
+
+    @Label("Filter")
+    public String filter;
+
+    @Label("Filter Path")
+    public String filterPath;
+
+    @Label("Before")
+    public boolean before;
+
+    @Label("Request Path")
+    public String requestPath;
+
+}
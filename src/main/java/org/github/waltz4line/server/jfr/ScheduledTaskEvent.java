@@ -0,0 +1,39 @@
+package org.github.waltz4line.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * scheduler trigger 에 의한 작업 실행
+ */
+@Name("org.github.waltz4line.ScheduledTask")
+@Label("Scheduled Task")
+@Description("Task execution fired by a scheduler trigger")
+@Category({"Waltz4line", "Scheduler"})
+@StackTrace(false)
+@Threshold("0 ms")
+public final class ScheduledTaskEvent extends jdk.jfr.Event {
+
+    @Label("Pool")
+    public String pool;
+
+    @Label("Trigger")
+    public String trigger;
+
+    @Label("Task")
+    public String task;
+
+    @Label("Lag")
+    @Description("Delay between the scheduled time and the start of execution")
+    @Timespan(Timespan.MILLISECONDS)
+    public long lag;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
@@ -0,0 +1,25 @@
+package org.github.waltz4line.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 서버 구동 단계 ({@link org.github.waltz4line.server.StartupReport}). 단계가 끝난 시점에 기록되며 소요 시간은 elapsed 이다.
+ */
+@Name("org.github.waltz4line.StartupPhase")
+@Label("Startup Phase")
+@Category({"Waltz4line", "Startup"})
+@StackTrace(false)
+public final class StartupPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    public long elapsed;
+
+}
@@ -0,0 +1,28 @@
+package org.github.waltz4line.server.router;
+
+import java.util.List;
+
+/**
+ * endpoint 응답 캐시 설정
+ *
+ * @param ttlNanos      캐시 유지 시간 (nano seconds)
+ * @param maxEntries    최대 캐시 항목 수
+ * @param keyHeaders    cache key 에 포함할 header 이름
+ * @param maxWaitMillis 같은 key 의 응답을 읽어오는 중인 요청의 결과를 기다리는 최대 시간
+ */
+public record CacheAttr(long ttlNanos, int maxEntries, List<String> keyHeaders, long maxWaitMillis) {
+
+    public static CacheAttr of(long ttlNanos, int maxEntries, List<String> keyHeaders, long maxWaitMillis) {
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("maxWaitMillis must be positive");
+        }
+        return new CacheAttr(ttlNanos, maxEntries, List.copyOf(keyHeaders), maxWaitMillis);
+    }
+
+}
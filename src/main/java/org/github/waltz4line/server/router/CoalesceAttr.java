@@ -0,0 +1,20 @@
+package org.github.waltz4line.server.router;
+
+import java.util.List;
+
+/**
+ * 동일 요청 병합 설정
+ *
+ * @param keyHeaders    request key 에 포함할 header 이름
+ * @param maxWaitMillis 처리 중인 요청의 결과를 기다리는 최대 시간
+ */
+public record CoalesceAttr(List<String> keyHeaders, long maxWaitMillis) {
+
+    public static CoalesceAttr of(List<String> keyHeaders, long maxWaitMillis) {
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("maxWaitMillis must be positive");
+        }
+        return new CoalesceAttr(List.copyOf(keyHeaders), maxWaitMillis);
+    }
+
+}
@@ -0,0 +1,24 @@
+package org.github.waltz4line.server.router;
+
+import org.github.waltz4line.server.router.annotation.AuthMode;
+import org.github.waltz4line.server.router.annotation.PushOverflow;
+
+/**
+ * WebSocket / Server-Sent Events endpoint 설정
+ *
+ * @param path       endpoint path
+ * @param endpointId endpoint 식별자 (tag.methodName)
+ * @param queueSize  연결마다 전송 대기할 수 있는 최대 메시지 수
+ * @param overflow   전송 대기열이 가득 찼을 때의 처리 방식
+ * @param auth       연결 (upgrade / 구독 요청) 시 인증 방식. 선언하지 않았다면 null
+ */
+public record PushMappingAttr(String path, String endpointId, int queueSize, PushOverflow overflow, AuthMode auth) {
+
+    public static PushMappingAttr of(String path, String endpointId, int queueSize, PushOverflow overflow, AuthMode auth) {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize must be positive");
+        }
+        return new PushMappingAttr(path, endpointId, queueSize, overflow, auth);
+    }
+
+}
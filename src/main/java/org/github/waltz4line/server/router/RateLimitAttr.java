@@ -0,0 +1,46 @@
+package org.github.waltz4line.server.router;
+
+import org.apache.commons.lang3.StringUtils;
+import org.github.waltz4line.server.router.annotation.RateLimitKey;
+
+/**
+ * endpoint 에 적용할 rate limit 설정
+ *
+ * @param permitsPerSecond 초당 허용 요청 수. 0 이하이면 제한하지 않음
+ * @param burst            순간적으로 허용하는 최대 요청 수
+ * @param key              bucket 구분 단위
+ * @param header           {@link RateLimitKey#HEADER} 사용 시 bucket 을 구분할 header 이름
+ */
+public record RateLimitAttr(int permitsPerSecond, int burst, RateLimitKey key, String header) {
+
+    public static final RateLimitAttr DISABLED = new RateLimitAttr(0, 0, RateLimitKey.GLOBAL, null);
+
+    public boolean enabled() {
+        return permitsPerSecond > 0;
+    }
+
+    public static RateLimitAttr of(int permitsPerSecond, int burst, RateLimitKey key, String header) {
+        if (permitsPerSecond <= 0) {
+            return DISABLED;
+        }
+        RateLimitKey rateLimitKey = key == null || key == RateLimitKey.INHERIT ? RateLimitKey.GLOBAL : key;
+        if (rateLimitKey == RateLimitKey.HEADER && StringUtils.isEmpty(header)) {
+            throw new IllegalArgumentException("rateLimitHeader must be set when rateLimitKey is HEADER");
+        }
+        return new RateLimitAttr(permitsPerSecond, burst > 0 ? burst : permitsPerSecond, rateLimitKey, header);
+    }
+
+    /**
+     * mapping annotation 의 설정을 {@link org.github.waltz4line.server.router.annotation.Router} 의 설정 위에 덮어쓴다.
+     * permitsPerSecond 가 음수이면 router 설정을 그대로 사용한다.
+     */
+    RateLimitAttr override(int permitsPerSecond, int burst, RateLimitKey key, String header) {
+        if (permitsPerSecond < 0) {
+            return this;
+        }
+        return of(permitsPerSecond, burst,
+                key == null || key == RateLimitKey.INHERIT ? this.key : key,
+                StringUtils.isEmpty(header) ? this.header : header);
+    }
+
+}
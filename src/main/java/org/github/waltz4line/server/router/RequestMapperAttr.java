@@ -1,5 +1,7 @@
 package org.github.waltz4line.server.router;
 
+import org.github.waltz4line.server.router.annotation.AuthMode;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -10,6 +12,18 @@ public class RequestMapperAttr {
 
     private final EndpointDocument endpointDocument;
 
+    private RateLimitAttr rateLimit = RateLimitAttr.DISABLED;
+
+    private CacheAttr cache;
+
+    private CoalesceAttr coalesce;
+
+    private boolean conditionalGet;
+
+    private StreamingBodyAttr streamingBody;
+
+    private AuthMode auth;
+
     private RequestMapperAttr(String path, EndpointDocument endpointDocument) {
         this.path = path;
         this.endpointDocument = endpointDocument;
@@ -51,6 +65,30 @@ public class RequestMapperAttr {
         this.endpointDocument.errorDescriptions.addAll(errorDescriptions);
     }
 
+    void setRateLimit(RateLimitAttr rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    void setCache(CacheAttr cache) {
+        this.cache = cache;
+    }
+
+    void setCoalesce(CoalesceAttr coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    void setConditionalGet(boolean conditionalGet) {
+        this.conditionalGet = conditionalGet;
+    }
+
+    void setStreamingBody(StreamingBodyAttr streamingBody) {
+        this.streamingBody = streamingBody;
+    }
+
+    void setAuth(AuthMode auth) {
+        this.auth = auth;
+    }
+
     public String getPath() {
         return path;
     }
@@ -59,6 +97,42 @@ public class RequestMapperAttr {
         return endpointDocument;
     }
 
+    public RateLimitAttr getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * @return 응답 캐시 설정. 캐시하지 않는 endpoint 는 null
+     */
+    public CacheAttr getCache() {
+        return cache;
+    }
+
+    /**
+     * @return 동일 요청 병합 설정. 병합하지 않는 endpoint 는 null
+     */
+    public CoalesceAttr getCoalesce() {
+        return coalesce;
+    }
+
+    public boolean isConditionalGet() {
+        return conditionalGet;
+    }
+
+    /**
+     * @return 요청 body streaming 설정. body 를 stream 으로 받지 않는 endpoint 는 null
+     */
+    public StreamingBodyAttr getStreamingBody() {
+        return streamingBody;
+    }
+
+    /**
+     * @return 인증 방식. {@link org.github.waltz4line.server.router.annotation.Auth} 를 선언하지 않았다면 null
+     */
+    public AuthMode getAuth() {
+        return auth;
+    }
+
     public record ParameterDescription(String name, Class<?> type, String description) {
     }
 
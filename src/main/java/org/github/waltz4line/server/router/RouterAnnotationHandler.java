@@ -23,6 +23,12 @@ public final class RouterAnnotationHandler {
     private static final String KEY_REQUEST_BODY = "requestBody";
     private static final String KEY_RESPONSE_BODY = "responseBody";
     private static final String KEY_ERROR_BODY = "errorBody";
+    private static final String KEY_RATE_LIMIT = "rateLimit";
+    private static final String KEY_BURST = "burst";
+    private static final String KEY_RATE_LIMIT_KEY = "rateLimitKey";
+    private static final String KEY_RATE_LIMIT_HEADER = "rateLimitHeader";
+    private static final String KEY_QUEUE_SIZE = "queueSize";
+    private static final String KEY_OVERFLOW = "overflow";
 
     private RouterAnnotationHandler() {
     }
@@ -65,16 +71,25 @@ public final class RouterAnnotationHandler {
             method.setAccessible(true);
             if (methodInfo.hasAnnotation(GetMapping.class)) {
                 RequestMapperAttr requestMapping = parseRequestMappingAttr(routerAttr, methodInfo, GetMapping.class);
+                parseCacheAttr(methodInfo).ifPresent(requestMapping::setCache);
+                parseCoalesceAttr(methodInfo).ifPresent(requestMapping::setCoalesce);
+                requestMapping.setConditionalGet(methodInfo.hasAnnotation(ConditionalGet.class));
                 routerMapper.requestGet(instance, method, requestMapping);
             } else if (methodInfo.hasAnnotation(PostMapping.class)) {
                 RequestMapperAttr requestMapping = parseRequestMappingAttr(routerAttr, methodInfo, PostMapping.class);
+                parseStreamingBodyAttr(methodInfo).ifPresent(requestMapping::setStreamingBody);
                 routerMapper.requestPost(instance, method, requestMapping);
             } else if (methodInfo.hasAnnotation(PutMapping.class)) {
                 RequestMapperAttr requestMapping = parseRequestMappingAttr(routerAttr, methodInfo, PutMapping.class);
+                parseStreamingBodyAttr(methodInfo).ifPresent(requestMapping::setStreamingBody);
                 routerMapper.requestPut(instance, method, requestMapping);
             } else if (methodInfo.hasAnnotation(DeleteMapping.class)) {
                 RequestMapperAttr requestMapping = parseRequestMappingAttr(routerAttr, methodInfo, DeleteMapping.class);
                 routerMapper.requestDelete(instance, method, requestMapping);
+            } else if (methodInfo.hasAnnotation(WebSocketMapping.class)) {
+                routerMapper.webSocket(instance, method, parsePushMappingAttr(routerAttr, methodInfo, WebSocketMapping.class));
+            } else if (methodInfo.hasAnnotation(SseMapping.class)) {
+                routerMapper.sse(instance, method, parsePushMappingAttr(routerAttr, methodInfo, SseMapping.class));
             } else {
                 mappingFilter(methodInfo, method, instance, routerAttr, routerMapper);
             }
@@ -87,6 +102,7 @@ public final class RouterAnnotationHandler {
                 .filter(RouterAnnotationHandler::isFilterMethod).toList();
         for (MethodInfo methodInfo : filteredMethods) {
             Method method = methodInfo.loadClassAndGetMethod();
+            method.setAccessible(true);
             mappingFilter(methodInfo, method, instance, routerAttr, routerMapper);
             LOGGER.info("Filter parsed for Class:{} Method:{}", instance.getClass().getName(), method.getName());
         }
@@ -98,7 +114,7 @@ public final class RouterAnnotationHandler {
             routerMapper.filterBefore(instance, method, filterPath);
         } else {
             String filterPath = parseFilterPath(routerAttr, methodInfo, AfterFilter.class);
-            routerMapper.filterBefore(instance, method, filterPath);
+            routerMapper.filterAfter(instance, method, filterPath);
         }
     }
 
@@ -123,23 +139,74 @@ public final class RouterAnnotationHandler {
             requestMapping.addQueryParameters(parseParameterDescription(parameterValues, KEY_QUERY_PARAMS));
         }
         if (parameterValues.containsName(KEY_REQUEST_BODY)) {
-            requestMapping.setRequestBody((Class<?>) parameterValues.getValue(KEY_REQUEST_BODY));
+            requestMapping.setRequestBody(classValue(parameterValues.getValue(KEY_REQUEST_BODY)));
         }
         if (parameterValues.containsName(KEY_RESPONSE_BODY)) {
-            requestMapping.setResponseBody((Class<?>) parameterValues.getValue(KEY_RESPONSE_BODY));
+            requestMapping.setResponseBody(classValue(parameterValues.getValue(KEY_RESPONSE_BODY)));
         }
         if (parameterValues.containsName(KEY_ERROR_BODY)) {
             requestMapping.addErrorDescriptions(parseErrorDescription(parameterValues));
         }
+        requestMapping.setRateLimit(routerAttr.rateLimit().override(
+                intValue(parameterValues, KEY_RATE_LIMIT, -1),
+                intValue(parameterValues, KEY_BURST, 0),
+                enumValue(parameterValues, KEY_RATE_LIMIT_KEY, RateLimitKey.class),
+                (String) parameterValues.getValue(KEY_RATE_LIMIT_HEADER)));
+        requestMapping.setAuth(parseAuthMode(methodInfo.getAnnotationInfo(Auth.class), routerAttr.auth()));
         return requestMapping;
     }
 
+    private static PushMappingAttr parsePushMappingAttr(RouterAttr routerAttr, MethodInfo methodInfo, Class<? extends Annotation> annotation) {
+        AnnotationParameterValueList parameterValues = methodInfo.getAnnotationInfo(annotation).getParameterValues();
+        String path = (String) parameterValues.getValue(KEY_PATH);
+        return PushMappingAttr.of(routerAttr.pathConcat(path),
+                routerAttr.tag() + ENDPOINT_ID_DELIMITER + methodInfo.getName(),
+                intValue(parameterValues, KEY_QUEUE_SIZE, 256),
+                enumValue(parameterValues, KEY_OVERFLOW, PushOverflow.class),
+                parseAuthMode(methodInfo.getAnnotationInfo(Auth.class), routerAttr.auth()));
+    }
+
+    /*
+     * mapping 메소드에 선언된 @Auth 가 있다면 우선하고, 없다면 @Router class 에 선언된 값을 사용한다.
+     */
+    private static AuthMode parseAuthMode(AnnotationInfo authInfo, AuthMode inherited) {
+        if (authInfo == null) {
+            return inherited;
+        }
+        return ((Auth) authInfo.loadClassAndInstantiate()).value();
+    }
+
+    private static Optional<CacheAttr> parseCacheAttr(MethodInfo methodInfo) {
+        if (!methodInfo.hasAnnotation(Cached.class)) {
+            return Optional.empty();
+        }
+        Cached cached = (Cached) methodInfo.getAnnotationInfo(Cached.class).loadClassAndInstantiate();
+        return Optional.of(CacheAttr.of(cached.unit().toNanos(cached.ttl()), cached.maxEntries(), List.of(cached.keyHeaders()),
+                cached.maxWaitMillis()));
+    }
+
+    private static Optional<CoalesceAttr> parseCoalesceAttr(MethodInfo methodInfo) {
+        if (!methodInfo.hasAnnotation(Coalesced.class)) {
+            return Optional.empty();
+        }
+        Coalesced coalesced = (Coalesced) methodInfo.getAnnotationInfo(Coalesced.class).loadClassAndInstantiate();
+        return Optional.of(CoalesceAttr.of(List.of(coalesced.keyHeaders()), coalesced.maxWaitMillis()));
+    }
+
+    private static Optional<StreamingBodyAttr> parseStreamingBodyAttr(MethodInfo methodInfo) {
+        if (!methodInfo.hasAnnotation(StreamingBody.class)) {
+            return Optional.empty();
+        }
+        StreamingBody streamingBody = (StreamingBody) methodInfo.getAnnotationInfo(StreamingBody.class).loadClassAndInstantiate();
+        return Optional.of(new StreamingBodyAttr(streamingBody.maxBytes()));
+    }
+
     private static List<RequestMapperAttr.ParameterDescription> parseParameterDescription(AnnotationParameterValueList parameterValues, String paramName) {
-        ParamDescriptor[] paramDescriptors = (ParamDescriptor[]) parameterValues.getValue(paramName);
-        if (paramDescriptors == null || paramDescriptors.length == 0) {
+        List<ParamDescriptor> paramDescriptors = annotationValues(parameterValues.getValue(paramName), ParamDescriptor.class);
+        if (paramDescriptors.isEmpty()) {
             return Collections.emptyList();
         }
-        List<RequestMapperAttr.ParameterDescription> parameterDescriptions = new ArrayList<>(paramDescriptors.length);
+        List<RequestMapperAttr.ParameterDescription> parameterDescriptions = new ArrayList<>(paramDescriptors.size());
         for (ParamDescriptor paramDescriptor : paramDescriptors) {
             parameterDescriptions.add(new RequestMapperAttr.ParameterDescription(paramDescriptor.name(), paramDescriptor.type(), paramDescriptor.description()));
         }
@@ -147,11 +214,11 @@ public final class RouterAnnotationHandler {
     }
 
     private static List<RequestMapperAttr.ErrorDescription> parseErrorDescription(AnnotationParameterValueList parameterValues) {
-        ErrorBody[] errorBodies = (ErrorBody[]) parameterValues.getValue(KEY_ERROR_BODY);
-        if (errorBodies == null || errorBodies.length == 0) {
+        List<ErrorBody> errorBodies = annotationValues(parameterValues.getValue(KEY_ERROR_BODY), ErrorBody.class);
+        if (errorBodies.isEmpty()) {
             return Collections.emptyList();
         }
-        List<RequestMapperAttr.ErrorDescription> errorDescriptions = new ArrayList<>(errorBodies.length);
+        List<RequestMapperAttr.ErrorDescription> errorDescriptions = new ArrayList<>(errorBodies.size());
         for (ErrorBody errorBody : errorBodies) {
             errorDescriptions.add(new RequestMapperAttr.ErrorDescription(errorBody.statusCode(), errorBody.errorCode(), errorBody.responseClass()));
         }
@@ -169,16 +236,64 @@ public final class RouterAnnotationHandler {
             if (StringUtils.isEmpty(tag)) {
                 tag = classInfo.getSimpleName();
             }
-            return Optional.of(RouterAttr.of(path, tag));
+            RateLimitAttr rateLimit = RateLimitAttr.of(intValue(parameterValues, KEY_RATE_LIMIT, 0),
+                    intValue(parameterValues, KEY_BURST, 0),
+                    enumValue(parameterValues, KEY_RATE_LIMIT_KEY, RateLimitKey.class),
+                    (String) parameterValues.getValue(KEY_RATE_LIMIT_HEADER));
+            return Optional.of(RouterAttr.of(path, tag, rateLimit, parseAuthMode(classInfo.getAnnotationInfo(Auth.class), null)));
         }
         return Optional.of(RouterAttr.of(path));
     }
 
+    /*
+     * ClassGraph 는 annotation 값 중 Class 는 AnnotationClassRef, enum 은 AnnotationEnumValue,
+     * annotation 배열은 AnnotationInfo 를 담은 Object[] 로 반환하므로 실제 타입으로 변환한다.
+     */
+    private static Class<?> classValue(Object value) {
+        if (value instanceof AnnotationClassRef classRef) {
+            value = classRef.loadClass();
+        }
+        if (value == null || value == void.class || value == Void.class) {
+            return null;
+        }
+        return (Class<?>) value;
+    }
+
+    private static int intValue(AnnotationParameterValueList parameterValues, String key, int defaultValue) {
+        Object value = parameterValues.getValue(key);
+        return value instanceof Number number ? number.intValue() : defaultValue;
+    }
+
+    private static <E extends Enum<E>> E enumValue(AnnotationParameterValueList parameterValues, String key, Class<E> enumType) {
+        Object value = parameterValues.getValue(key);
+        if (value instanceof AnnotationEnumValue enumValue) {
+            return enumType.cast(enumValue.loadClassAndReturnEnumValue());
+        }
+        return enumType.isInstance(value) ? enumType.cast(value) : null;
+    }
+
+    private static <A extends Annotation> List<A> annotationValues(Object value, Class<A> annotationType) {
+        if (!(value instanceof Object[] values) || values.length == 0) {
+            return Collections.emptyList();
+        }
+        List<A> annotations = new ArrayList<>(values.length);
+        for (Object element : values) {
+            if (element instanceof AnnotationInfo annotationInfo) {
+                annotations.add(annotationType.cast(annotationInfo.loadClassAndInstantiate()));
+            } else if (annotationType.isInstance(element)) {
+                annotations.add(annotationType.cast(element));
+            }
+        }
+        return annotations;
+    }
+
     private static boolean isEndpointMethod(MethodInfo methodInfo) {
         return methodInfo.hasAnnotation(GetMapping.class) ||
                 methodInfo.hasAnnotation(PostMapping.class) ||
                 methodInfo.hasAnnotation(PutMapping.class) ||
-                methodInfo.hasAnnotation(DeleteMapping.class);
+                methodInfo.hasAnnotation(DeleteMapping.class) ||
+                methodInfo.hasAnnotation(WebSocketMapping.class) ||
+                methodInfo.hasAnnotation(SseMapping.class);
     }
 
     private static boolean isFilterMethod(MethodInfo methodInfo) {
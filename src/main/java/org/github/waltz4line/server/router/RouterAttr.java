@@ -1,16 +1,29 @@
 package org.github.waltz4line.server.router;
 
-public record RouterAttr(String path, String tag) {
+import org.github.waltz4line.server.router.annotation.AuthMode;
+
+/**
+ * @param auth {@link org.github.waltz4line.server.router.annotation.Auth} 로 선언한 인증 방식. 선언하지 않았다면 null
+ */
+public record RouterAttr(String path, String tag, RateLimitAttr rateLimit, AuthMode auth) {
 
     public String pathConcat(String subPath) {
         return path() + subPath;
     }
 
+    public static RouterAttr of(String path, String tag, RateLimitAttr rateLimit, AuthMode auth) {
+        return new RouterAttr(path, tag, rateLimit, auth);
+    }
+
+    public static RouterAttr of(String path, String tag, RateLimitAttr rateLimit) {
+        return new RouterAttr(path, tag, rateLimit, null);
+    }
+
     public static RouterAttr of(String path, String tag) {
-        return new RouterAttr(path, tag);
+        return new RouterAttr(path, tag, RateLimitAttr.DISABLED, null);
     }
 
     public static RouterAttr of(String path) {
-        return new RouterAttr(path, null);
+        return new RouterAttr(path, null, RateLimitAttr.DISABLED, null);
     }
 }
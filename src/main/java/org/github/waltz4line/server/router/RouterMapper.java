@@ -12,6 +12,10 @@ public interface RouterMapper {
 
     void requestDelete(Object instance, Method method, RequestMapperAttr requestMapping);
 
+    void webSocket(Object instance, Method method, PushMappingAttr pushMapping);
+
+    void sse(Object instance, Method method, PushMappingAttr pushMapping);
+
     void filterBefore(Object instance, Method method, String filterPath);
 
     void filterAfter(Object instance, Method method, String filterPath);
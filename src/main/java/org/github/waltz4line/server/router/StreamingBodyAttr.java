@@ -0,0 +1,14 @@
+package org.github.waltz4line.server.router;
+
+/**
+ * 요청 body streaming 설정
+ *
+ * @param maxBytes 읽을 수 있는 최대 body 크기 (-1 이면 제한 없음)
+ */
+public record StreamingBodyAttr(long maxBytes) {
+
+    public boolean limited() {
+        return maxBytes >= 0;
+    }
+
+}
@@ -0,0 +1,24 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * endpoint 의 인증 방식을 지정한다.
+ * {@link Router} class 에 선언하면 하위 모든 mapping 메소드의 기본값이 되며, mapping 메소드에 선언한 값이 우선한다.
+ * 어디에도 선언하지 않은 endpoint 는 설정 (auth.defaultMode) 을 따른다.
+ *
+ * {@link AuthMode#NONE} endpoint 는 인증 단계를 거치지 않는다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Auth {
+
+    /**
+     * @return 인증 적용 방식
+     */
+    AuthMode value() default AuthMode.REQUIRED;
+
+}
@@ -0,0 +1,23 @@
+package org.github.waltz4line.server.router.annotation;
+
+/**
+ * endpoint 의 인증 적용 방식
+ */
+public enum AuthMode {
+
+    /**
+     * 유효한 credential 이 없으면 401 을 응답한다.
+     */
+    REQUIRED,
+
+    /**
+     * credential 이 없으면 인증 없이 처리하고, 있다면 검증하여 유효하지 않은 경우 401 을 응답한다.
+     */
+    OPTIONAL,
+
+    /**
+     * 인증을 수행하지 않는다.
+     */
+    NONE
+
+}
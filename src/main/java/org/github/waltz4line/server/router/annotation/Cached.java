@@ -0,0 +1,45 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GetMapping} 메소드에 선언하면 응답 (status 200) 을 메모리에 캐시한다.
+ * 캐시 hit 시 endpoint 호출 및 직렬화 없이 저장된 응답 bytes 를 그대로 응답한다.
+ * cache key 는 path + query string 에 keyHeaders 로 지정한 header 값을 조합하여 만들며, 인증된 요청은 principal 별로 캐시한다.
+ * endpoint 가 설정한 응답 header (Set-Cookie 제외) 도 함께 캐시한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+    /**
+     * @return 캐시 유지 시간
+     */
+    long ttl();
+
+    /**
+     * @return ttl 의 시간 단위
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * @return 최대 캐시 항목 수. 초과 시 사용 빈도가 낮은 항목부터 제거된다.
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * @return cache key 에 포함할 header 이름
+     */
+    String[] keyHeaders() default {};
+
+    /**
+     * 같은 key 의 응답을 읽어오는 중인 요청의 결과를 기다리는 최대 시간. 초과하거나 처리 중인 요청이 실패하면 직접 endpoint 를 호출한다.
+     * @return milliseconds
+     */
+    long maxWaitMillis() default 10_000;
+
+}
@@ -0,0 +1,28 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link GetMapping} 메소드에 선언하면 같은 요청이 동시에 들어올 때 endpoint 를 한 번만 호출한다.
+ * 처리 중인 요청이 있다면 이후 요청은 그 결과를 기다렸다가 같은 응답 (status, content type, endpoint 가 설정한 header, body) 을 받는다.
+ * 요청 key 는 method + path + query string 에 keyHeaders 로 지정한 header 값을 조합하여 만들며, 인증된 요청은 principal 별로 합친다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    /**
+     * @return request key 에 포함할 header 이름
+     */
+    String[] keyHeaders() default {};
+
+    /**
+     * 처리 중인 요청의 결과를 기다리는 최대 시간. 초과하거나 처리 중인 요청이 실패하면 직접 endpoint 를 호출한다.
+     * @return milliseconds
+     */
+    long maxWaitMillis() default 1000;
+
+}
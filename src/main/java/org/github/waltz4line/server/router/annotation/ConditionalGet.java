@@ -0,0 +1,17 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link GetMapping} 메소드에 선언하면 응답 body 의 hash 로 strong ETag 를 만들어 응답한다.
+ * 요청의 If-None-Match 와 일치하면 body 없이 304 를 응답한다.
+ *
+ * handler 가 버전 정보를 직접 제공하는 경우 (Versioned 반환 또는 ETags.notModified 호출) 에는 body hash 를 계산하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+}
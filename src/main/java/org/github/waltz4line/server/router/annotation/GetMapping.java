@@ -49,4 +49,28 @@ public @interface GetMapping {
      */
     ErrorBody[] errorBody() default {};
 
+    /**
+     * 초당 허용 요청 수. 초과 시 429 와 Retry-After 를 응답한다.
+     * -1 이면 {@link Router#rateLimit()} 설정을 따르며 0 이면 제한하지 않는다.
+     * @return permits per second
+     */
+    int rateLimit() default -1;
+
+    /**
+     * 순간적으로 허용하는 최대 요청 수. 0 이면 rateLimit 과 같다.
+     * @return burst size
+     */
+    int burst() default 0;
+
+    /**
+     * @return rate limit bucket 구분 단위
+     */
+    RateLimitKey rateLimitKey() default RateLimitKey.INHERIT;
+
+    /**
+     * {@link RateLimitKey#HEADER} 사용 시 bucket 을 구분할 header 이름
+     * @return header name
+     */
+    String rateLimitHeader() default "";
+
 }
@@ -0,0 +1,18 @@
+package org.github.waltz4line.server.router.annotation;
+
+/**
+ * push 연결의 전송 대기열이 가득 찼을 때의 처리 방식
+ */
+public enum PushOverflow {
+
+    /**
+     * 새 메시지를 해당 연결에 보내지 않고 버린다.
+     */
+    DROP,
+
+    /**
+     * 느린 연결로 판단하여 연결을 끊는다.
+     */
+    DISCONNECT
+
+}
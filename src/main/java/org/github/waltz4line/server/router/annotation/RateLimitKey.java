@@ -0,0 +1,28 @@
+package org.github.waltz4line.server.router.annotation;
+
+/**
+ * rate limit 을 적용할 단위
+ */
+public enum RateLimitKey {
+
+    /**
+     * {@link Router} 에 설정된 값을 따른다. (mapping annotation 에서만 사용)
+     */
+    INHERIT,
+
+    /**
+     * endpoint 전체에 하나의 bucket 을 사용
+     */
+    GLOBAL,
+
+    /**
+     * client ip 별로 bucket 을 사용
+     */
+    CLIENT_IP,
+
+    /**
+     * rateLimitHeader 로 지정한 header 값 별로 bucket 을 사용
+     */
+    HEADER
+
+}
@@ -35,4 +35,28 @@ public @interface Router {
      */
     String tag() default "";
 
+    /**
+     * 하위 모든 mapping 메소드에 적용할 기본 초당 허용 요청 수. 0 이면 제한하지 않는다.
+     * 각 mapping annotation 의 rateLimit 설정이 우선한다.
+     * @return permits per second
+     */
+    int rateLimit() default 0;
+
+    /**
+     * 순간적으로 허용하는 최대 요청 수. 0 이면 rateLimit 과 같다.
+     * @return burst size
+     */
+    int burst() default 0;
+
+    /**
+     * @return rate limit bucket 구분 단위
+     */
+    RateLimitKey rateLimitKey() default RateLimitKey.GLOBAL;
+
+    /**
+     * {@link RateLimitKey#HEADER} 사용 시 bucket 을 구분할 header 이름
+     * @return header name
+     */
+    String rateLimitHeader() default "";
+
 }
@@ -0,0 +1,27 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link PostMapping} {@link PutMapping} 메소드에 선언하면 요청 body 를 메모리에 모두 읽지 않고 stream 으로 전달한다.
+ * 메소드는 Context 다음 두번째 인자로 아래 타입 중 하나를 받아야 한다.
+ * <ul>
+ *     <li>{@code Iterator<T>}, {@code Stream<T>} : JSON array (또는 NDJSON) 의 각 항목을 순차적으로 parsing 하여 전달</li>
+ *     <li>{@code InputStream} : body 원본 (binary upload)</li>
+ * </ul>
+ * 항목 타입 T 는 generic 타입 인자로 결정하며, 알 수 없다면 requestBody 로 지정한 Class 를 사용한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StreamingBody {
+
+    /**
+     * 읽을 수 있는 최대 body 크기. 초과 시 413 을 응답한다. -1 이면 제한하지 않는다.
+     * @return bytes
+     */
+    long maxBytes() default -1;
+
+}
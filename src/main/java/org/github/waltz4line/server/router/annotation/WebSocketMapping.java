@@ -0,0 +1,39 @@
+package org.github.waltz4line.server.router.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link Router} 가 선언된 Class 내에 Method 에 선언해야 함
+ * WebSocket endpoint 에 Mapping.
+ * 연결마다 한 번 호출되며 메소드는 {@link org.github.waltz4line.server.javalin.push.PushConnection} 하나를 인자로 받아야 한다.
+ * 메소드에서 topic 구독 및 수신 메시지 handler 를 등록한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WebSocketMapping {
+
+    /**
+     *{@link Router} 에 설정된 path 와 조합하여 최종 endpoint 로 만들어짐
+     * @return url path
+     */
+    String path() default "/";
+
+    /**
+     * @return endpoint 에 대한 설명
+     */
+    String description() default "";
+
+    /**
+     * @return 연결마다 전송 대기할 수 있는 최대 메시지 수
+     */
+    int queueSize() default 256;
+
+    /**
+     * @return 전송 대기열이 가득 찼을 때의 처리 방식
+     */
+    PushOverflow overflow() default PushOverflow.DROP;
+
+}
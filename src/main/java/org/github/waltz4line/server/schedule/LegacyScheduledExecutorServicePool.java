@@ -23,6 +23,7 @@
  */
 package org.github.waltz4line.server.schedule;
 
+import org.github.waltz4line.server.jfr.ScheduledTaskEvent;
 import org.github.waltz4line.server.schedule.thread.NamedThreadFactory;
 import org.slf4j.Logger;
 
@@ -41,6 +42,7 @@ import java.util.concurrent.*;
  * # 캐시된 스레드 풀에 대해 타이머 스레드를 실행시킴.
  * # 정해진 시작 시간 및 종료 시간을 갖는 스케줄을 지원 함.
  * # 또한 예약된 실행이 지난 작업에 대해서는 ignore 이벤트를 발생시키도록 함.
+ * # 트리거에 의한 작업 실행을 JFR {@link ScheduledTaskEvent} 로 기록함. (예약 시각 대비 지연, 실행 시간)
  *
  * @author song-uiyoung
  */
@@ -57,6 +59,8 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
 
     // 스케줄 Timer 를 위한 Clock
     private final Clock clock;
+    // 스레드 이름 접두사 (JFR event 의 pool 이름)
+    private final String poolName;
     // 캐시된 스레드 풀을 이용하기 위한 ExecutorService
     private final ExecutorService executorService;
     // 스케줄링을 관리하기 위한 스케줄러 스레드
@@ -80,6 +84,7 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
     private LegacyScheduledExecutorServicePool(Logger logger, Clock clock, String poolName) {
         this.logger = logger;
         this.clock = clock;
+        this.poolName = poolName;
         this.scheduler = new Thread(this, "ScheduledExecutorServicePool");
         this.state = State.running;
         this.scheduler.start();
@@ -302,6 +307,53 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
     }
 
 
+    /*
+     * 작업 실행을 JFR event 로 기록하도록 감싼다. JFR 기록 중이 아니라면 event 의 field 를 채우지 않는다.
+     */
+    private Runnable traced(final Runnable task, final ScheduledTrigger<?> trigger, final long scheduledMillis) {
+        return () -> {
+            final long startMillis = clock.millis();
+            final ScheduledTaskEvent event = new ScheduledTaskEvent();
+            event.begin();
+            boolean failed = true;
+            try {
+                task.run();
+                failed = false;
+            } finally {
+                commit(event, trigger, task, scheduledMillis, startMillis, failed);
+            }
+        };
+    }
+
+    private <V> Callable<V> traced(final Callable<V> task, final ScheduledTrigger<?> trigger, final long scheduledMillis) {
+        return () -> {
+            final long startMillis = clock.millis();
+            final ScheduledTaskEvent event = new ScheduledTaskEvent();
+            event.begin();
+            boolean failed = true;
+            try {
+                final V result = task.call();
+                failed = false;
+                return result;
+            } finally {
+                commit(event, trigger, task, scheduledMillis, startMillis, failed);
+            }
+        };
+    }
+
+    private void commit(final ScheduledTaskEvent event, final ScheduledTrigger<?> trigger, final Object task,
+                        final long scheduledMillis, final long startMillis, final boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.pool = poolName;
+            event.trigger = trigger.getClass().getSimpleName();
+            event.task = task.getClass().getName();
+            event.lag = Math.max(0, startMillis - scheduledMillis);
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
     //
     // -- 스케줄 트리거
     //     : 스케줄 유형 별 트리거를 준비한다.
@@ -433,7 +485,7 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
         @Override
         void execute() {
             synchronized (this) {
-                setFuture((Future<Void>) executorService.submit(command));
+                setFuture((Future<Void>) executorService.submit(traced(command, this, runtime)));
             }
         }
 
@@ -467,7 +519,7 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
 
         @Override
         void execute() {
-            setFuture(executorService.submit(command));
+            setFuture(executorService.submit(traced(command, this, runtime)));
         }
 
         @Override
@@ -495,7 +547,7 @@ public class LegacyScheduledExecutorServicePool implements ScheduledExecutorServ
 
         public RepeatingTrigger(final Runnable command, final long initialDelay, final TimeUnit unit) {
             this.command = () -> {
-                command.run();
+                traced(command, this, nextRuntime).run();
                 synchronized (this) {
                     if (!isCancelled()) {
                         // Reschedule to run at the period from the last run.